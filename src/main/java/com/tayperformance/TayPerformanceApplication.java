@@ -2,12 +2,12 @@ package com.tayperformance;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
-@EnableAsync
+@EnableScheduling
 @EnableTransactionManagement
 @ConfigurationPropertiesScan
 public class TayPerformanceApplication {
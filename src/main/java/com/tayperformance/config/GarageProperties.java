@@ -4,9 +4,15 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.Set;
+
 @Getter
 @Setter
 @Validated
@@ -30,6 +36,18 @@ public class GarageProperties {
 
     private String phone;
 
+    // ------------------------------------------------------------
+    // Openingsuren (gebruikt door de availability engine)
+    // ------------------------------------------------------------
+
+    @DateTimeFormat(pattern = "HH:mm")
+    private LocalTime openingTime = LocalTime.of(8, 0);
+
+    @DateTimeFormat(pattern = "HH:mm")
+    private LocalTime closingTime = LocalTime.of(18, 0);
+
+    private Set<DayOfWeek> openDays = EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.SATURDAY);
+
     /**
      * Helper method voor SMS / frontend formatting
      */
@@ -2,6 +2,7 @@ package com.tayperformance.config;
 
 import com.tayperformance.security.JwtAuthenticationFilter;
 import com.tayperformance.service.auth.CustomUserDetailsService;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -45,7 +46,11 @@ public class SecurityConfig {
                         })
                 )
                 .authorizeHttpRequests(auth -> auth
+                        // async dispatch (SSE / streaming export): request is al geautoriseerd
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/public/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/api/internal/**").hasAnyRole("ADMIN", "STAFF")
                         .anyRequest().denyAll()
                 )
@@ -0,0 +1,65 @@
+package com.tayperformance.config;
+
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Token bucket per afzender (nummer / messaging service) vóór de provider call.
+ *
+ * tay.sms.rate-limit.permits-per-second / burst gelden voor elke afzender,
+ * tay.sms.rate-limit.senders.<key>.* overschrijft dat per afzender.
+ *
+ * De bucket zit in het geheugen van elke node: met N nodes zou een afzender N× de rate
+ * halen. Daarom krijgt elke node 1/nodes van de rate en de burst (tay.sms.rate-limit.nodes).
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "tay.sms.rate-limit")
+public class SmsRateLimitProperties {
+
+    private boolean enabled = true;
+
+    @Positive
+    private double permitsPerSecond = 1.0;
+
+    @Positive
+    private int burst = 5;
+
+    /** Aantal app nodes dat SMS verstuurt; de limiet hierboven geldt voor alle nodes samen. */
+    @Positive
+    private int nodes = 1;
+
+    /** Langer wachten dan dit => SMS terug naar de outbox, max-wait later opnieuw (geen poging). */
+    private Duration maxWait = Duration.ofSeconds(60);
+
+    private Map<String, Sender> senders = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Sender {
+        private Double permitsPerSecond;
+        private Integer burst;
+    }
+
+    /** Rate van deze node voor de afzender. */
+    public double permitsPerSecond(String sender) {
+        Sender s = senders.get(sender);
+        double total = (s != null && s.getPermitsPerSecond() != null) ? s.getPermitsPerSecond() : permitsPerSecond;
+        return total / nodes;
+    }
+
+    /** Burst van deze node, min 1 zodat elke node kan versturen. */
+    public int burst(String sender) {
+        Sender s = senders.get(sender);
+        int total = (s != null && s.getBurst() != null) ? s.getBurst() : burst;
+        return Math.max(1, total / nodes);
+    }
+}
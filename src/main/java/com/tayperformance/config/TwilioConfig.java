@@ -3,9 +3,15 @@ package com.tayperformance.config;
 import com.twilio.Twilio;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Configuration;
 
+/**
+ * Enkel actief met de echte provider (tay.sms.gateway=twilio, default).
+ * Met de simulator zijn geen credentials nodig.
+ */
 @Configuration
+@ConditionalOnProperty(name = "tay.sms.gateway", havingValue = "twilio", matchIfMissing = true)
 public class TwilioConfig {
 
     @Value("${twilio.account-sid}")
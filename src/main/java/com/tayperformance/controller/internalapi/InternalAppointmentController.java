@@ -1,15 +1,34 @@
 package com.tayperformance.controller.internalapi;
 
 import com.tayperformance.dto.appointment.AppointmentResponse;
+import com.tayperformance.dto.auth.JwtResponse;
 import com.tayperformance.dto.appointment.CreateAppointmentRequest;
 import com.tayperformance.dto.appointment.UpdateAppointmentRequest;
+import com.tayperformance.dto.common.CursorPage;
+import com.tayperformance.security.JwtProvider;
+import com.tayperformance.security.SecurityUtils;
 import com.tayperformance.service.appointment.AppointmentService;
+import com.tayperformance.service.appointment.export.AppointmentExportService;
+import com.tayperformance.service.appointment.live.AppointmentEventBroadcaster;
+import com.tayperformance.util.ETags;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/internal/appointments")
@@ -18,6 +37,12 @@ import org.springframework.web.bind.annotation.*;
 public class InternalAppointmentController {
 
     private final AppointmentService service;
+    private final AppointmentExportService exportService;
+    private final AppointmentEventBroadcaster eventBroadcaster;
+    private final JwtProvider jwtProvider;
+
+    @Value("${tay.live.ticket-seconds:60}")
+    private long ticketSeconds;
 
     /** Interne app: direct bevestigde afspraak (CONFIRMED). */
     @PostMapping
@@ -59,10 +84,20 @@ public class InternalAppointmentController {
         return service.markNoShow(id);
     }
 
-    /** Read. */
+    /** Read (ETag: 304 als If-None-Match nog klopt, zonder entity te laden). */
     @GetMapping("/{id}")
-    public AppointmentResponse get(@PathVariable Long id) {
-        return service.getById(id);
+    public ResponseEntity<AppointmentResponse> get(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        String etag = service.etag(id);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(service.getById(id));
     }
 
     /** Search + pagination. */
@@ -77,6 +112,67 @@ public class InternalAppointmentController {
         return service.search(q, date, pageable);
     }
 
+    /** Keyset paginatie: ?cursor= uit de vorige response (nextCursor), geen COUNT. */
+    @GetMapping("/cursor")
+    public CursorPage<AppointmentResponse> seek(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return service.seek(q, cursor, size);
+    }
+
+    /**
+     * Live wijzigingen (Server-Sent Events), event "appointment" met AppointmentEventResponse.
+     * Vervangt polling van de lijst.
+     *
+     * Browser: EventSource kan geen Authorization header sturen; eerst POST /stream/ticket
+     * (met Bearer token), dan new EventSource("/api/internal/appointments/stream?ticket=...").
+     *
+     * Het ticket leeft maar tay.live.ticket-seconds en de automatische reconnect van EventSource
+     * hergebruikt dezelfde URL (dus krijgt 401). Client: bij onerror close(), nieuw ticket halen
+     * en een nieuwe EventSource openen.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return eventBroadcaster.subscribe();
+    }
+
+    /** Kortlevend ticket (enkel geldig voor /stream), zie JwtProvider.generateStreamTicket. */
+    @PostMapping("/stream/ticket")
+    public JwtResponse streamTicket() {
+        return new JwtResponse(jwtProvider.generateStreamTicket(SecurityUtils.currentUsername(), ticketSeconds * 1000));
+    }
+
+    /** Full-text search in werknotities (description, merk/model), gerankt. */
+    @GetMapping("/fulltext")
+    public List<AppointmentResponse> fullText(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return service.fullTextSearch(q, limit);
+    }
+
+    /**
+     * Export (boekhouding): ?format=csv|ndjson&from=2025-01-01&to=2025-12-31 (inclusief).
+     * Rijen worden gestreamd vanuit een DB-cursor, niet eerst in het geheugen geladen.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        AppointmentExportService.Format fmt = AppointmentExportService.Format.parse(format);
+        exportService.validateRange(from, to);
+
+        String filename = "afspraken_" + from + "_" + to + "." + fmt.extension;
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(fmt.mediaType)
+                .body(out -> exportService.export(fmt, from, to, out));
+    }
+
     @DeleteMapping("/{id}")
     public void delete(@PathVariable Long id) {
         service.delete(id);
@@ -4,10 +4,15 @@ import com.tayperformance.dto.customer.CustomerHistoryResponse;
 import com.tayperformance.dto.customer.CustomerResponse;
 import com.tayperformance.dto.customer.UpdateCustomerRequest;
 import com.tayperformance.service.customer.CustomerService;
+import com.tayperformance.util.ETags;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -24,9 +29,20 @@ public class InternalCustomerController {
         return customerService.search(q, pageable);
     }
 
+    /** Read (ETag: 304 als If-None-Match nog klopt). */
     @GetMapping("/{id}")
-    public CustomerResponse get(@PathVariable Long id) {
-        return customerService.getById(id);
+    public ResponseEntity<CustomerResponse> get(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        String etag = customerService.etag(id);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(customerService.getById(id));
     }
 
     @GetMapping("/{id}/history")
@@ -0,0 +1,64 @@
+package com.tayperformance.controller.internalapi;
+
+import com.tayperformance.dto.sms.CreateSmsCampaignRequest;
+import com.tayperformance.dto.sms.SmsCampaignResponse;
+import com.tayperformance.service.sms.campaign.SmsCampaignService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/internal/sms-campaigns")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class InternalSmsCampaignController {
+
+    private final SmsCampaignService campaignService;
+
+    // ------------------------------------------------------------
+    // POST /api/internal/sms-campaigns
+    // start meteen; SmsCampaignRunner zet de ontvangers in batches in de outbox
+    // ------------------------------------------------------------
+    @PostMapping
+    public SmsCampaignResponse create(@Valid @RequestBody CreateSmsCampaignRequest req) {
+        return campaignService.create(req);
+    }
+
+    // ------------------------------------------------------------
+    // GET /api/internal/sms-campaigns
+    // ------------------------------------------------------------
+    @GetMapping
+    public Page<SmsCampaignResponse> list(Pageable pageable) {
+        return campaignService.list(pageable);
+    }
+
+    // ------------------------------------------------------------
+    // GET /api/internal/sms-campaigns/{id}
+    // voortgang incl. verzendstatus
+    // ------------------------------------------------------------
+    @GetMapping("/{id}")
+    public SmsCampaignResponse get(@PathVariable Long id) {
+        return campaignService.get(id);
+    }
+
+    // ------------------------------------------------------------
+    // POST /api/internal/sms-campaigns/{id}/pause | resume | cancel
+    // ------------------------------------------------------------
+    @PostMapping("/{id}/pause")
+    public SmsCampaignResponse pause(@PathVariable Long id) {
+        return campaignService.pause(id);
+    }
+
+    @PostMapping("/{id}/resume")
+    public SmsCampaignResponse resume(@PathVariable Long id) {
+        return campaignService.resume(id);
+    }
+
+    @PostMapping("/{id}/cancel")
+    public SmsCampaignResponse cancel(@PathVariable Long id) {
+        return campaignService.cancel(id);
+    }
+}
@@ -1,20 +1,32 @@
 package com.tayperformance.controller.internalapi;
 
+import com.tayperformance.dto.common.CursorPage;
 import com.tayperformance.dto.sms.SmsLogResponse;
 import com.tayperformance.entity.SmsLog;
 import com.tayperformance.entity.SmsStatus;
+import com.tayperformance.entity.SmsType;
 import com.tayperformance.exception.BadRequestException;
 import com.tayperformance.exception.NotFoundException;
 import com.tayperformance.mapper.SmsLogMapper;
 import com.tayperformance.repository.AppointmentRepository;
 import com.tayperformance.repository.SmsLogRepository;
+import com.tayperformance.repository.projection.SmsLogListView;
+import com.tayperformance.service.sms.template.SmsLogCompactor;
+import com.tayperformance.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
 import java.util.List;
 
 @RestController
@@ -23,8 +35,14 @@ import java.util.List;
 @PreAuthorize("hasAnyRole('ADMIN','STAFF')")
 public class InternalSmsLogController {
 
+    private static final ZoneId ZONE = ZoneId.of("Europe/Brussels");
+    private static final int DEFAULT_DAYS = 30;
+    private static final int MAX_DAYS = 90;
+    private static final OffsetDateTime LIST_SINCE = OffsetDateTime.of(2000, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
     private final SmsLogRepository smsLogRepo;
     private final AppointmentRepository appointmentRepo;
+    private final SmsLogCompactor compactor;
 
     // ------------------------------------------------------------
     // 1) Logs per afspraak
@@ -39,7 +57,7 @@ public class InternalSmsLogController {
 
         return smsLogRepo.findAllByAppointment_IdOrderByCreatedAtDesc(appointmentId)
                 .stream()
-                .map(SmsLogMapper::toResponse)
+                .map(this::toResponse)
                 .toList();
     }
 
@@ -51,11 +69,11 @@ public class InternalSmsLogController {
     public SmsLogResponse getById(@PathVariable Long id) {
         SmsLog log = smsLogRepo.findById(id)
                 .orElseThrow(() -> new NotFoundException("SMS log niet gevonden"));
-        return SmsLogMapper.toResponse(log);
+        return toResponse(log);
     }
 
     // ------------------------------------------------------------
-    // 3) Failed logs (paginatie)
+    // 3) Failed logs (paginatie, zonder tekst)
     // GET /api/internal/sms-logs/failed?sinceDays=7
     // ------------------------------------------------------------
     @GetMapping("/failed")
@@ -69,23 +87,65 @@ public class InternalSmsLogController {
 
         OffsetDateTime since = OffsetDateTime.now().minusDays(sinceDays);
 
-        return smsLogRepo.findFailedSince(since, pageable)
+        return smsLogRepo.listPage(EnumSet.of(SmsStatus.FAILED), since, pageable)
                 .map(SmsLogMapper::toResponse);
     }
 
     // ------------------------------------------------------------
-    // 4) Filter op status (paginatie)
+    // 4) Filter op status (paginatie, zonder tekst)
     // GET /api/internal/sms-logs?status=SENT
+    // Grote tabel: liever /cursor (geen COUNT, geen offset)
     // ------------------------------------------------------------
     @GetMapping
     public Page<SmsLogResponse> list(
             @RequestParam(required = false) SmsStatus status,
             Pageable pageable
     ) {
-        if (status == null) {
-            return smsLogRepo.findAll(pageable).map(SmsLogMapper::toResponse);
-        }
-        return smsLogRepo.findAllByStatusOrderByCreatedAtDesc(status, pageable)
+        EnumSet<SmsStatus> statuses = (status == null) ? EnumSet.allOf(SmsStatus.class) : EnumSet.of(status);
+        return smsLogRepo.listPage(statuses, LIST_SINCE, pageable)
                 .map(SmsLogMapper::toResponse);
     }
+
+    // ------------------------------------------------------------
+    // 5) Keyset paginatie (created_at DESC, id DESC), geen COUNT, zonder tekst
+    // GET /api/internal/sms-logs/cursor?status=FAILED&type=REMINDER&from=2026-02-01&to=2026-02-28&cursor=...&size=50
+    // from/to: dagen (Europe/Brussels), inclusief; default de laatste 30 dagen
+    // ------------------------------------------------------------
+    @GetMapping("/cursor")
+    public CursorPage<SmsLogResponse> seek(
+            @RequestParam(required = false) SmsStatus status,
+            @RequestParam(required = false) SmsType type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        Limit limit = CursorPage.limit(size);
+        LocalDate toDay = (to == null) ? LocalDate.now(ZONE) : to;
+        LocalDate fromDay = (from == null) ? toDay.minusDays(DEFAULT_DAYS - 1) : from;
+        if (toDay.isBefore(fromDay)) {
+            throw new BadRequestException("to moet na from liggen");
+        }
+        if (ChronoUnit.DAYS.between(fromDay, toDay) >= MAX_DAYS) {
+            throw new BadRequestException("Periode mag maximaal " + MAX_DAYS + " dagen zijn");
+        }
+
+        EnumSet<SmsStatus> statuses = (status == null) ? EnumSet.allOf(SmsStatus.class) : EnumSet.of(status);
+        EnumSet<SmsType> types = (type == null) ? EnumSet.allOf(SmsType.class) : EnumSet.of(type);
+        OffsetDateTime start = fromDay.atStartOfDay(ZONE).toOffsetDateTime();
+        OffsetDateTime end = toDay.plusDays(1).atStartOfDay(ZONE).toOffsetDateTime();
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        List<SmsLogListView> rows = (after == null)
+                ? smsLogRepo.seekFirst(statuses, types, start, end, limit)
+                : smsLogRepo.seekAfter(statuses, types, start, after.time(), after.id(), limit);
+
+        return CursorPage.of(rows, size, SmsLogMapper::toResponse,
+                v -> new KeysetCursor(v.getCreatedAt(), v.getId()));
+    }
+
+    /** Compact opgeslagen logs (template + waarden) krijgen hun tekst opnieuw gerenderd. */
+    private SmsLogResponse toResponse(SmsLog log) {
+        return SmsLogMapper.toResponse(log, compactor.resolve(log));
+    }
 }
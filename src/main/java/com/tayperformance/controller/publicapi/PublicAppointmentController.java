@@ -3,8 +3,13 @@ package com.tayperformance.controller.publicapi;
 import com.tayperformance.dto.appointment.AppointmentResponse;
 import com.tayperformance.dto.appointment.CreateAppointmentRequest;
 import com.tayperformance.service.appointment.AppointmentService;
+import com.tayperformance.util.ETags;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -19,8 +24,19 @@ public class PublicAppointmentController {
         return service.createPublicRequest(req);
     }
 
+    /** Statuspagina: pollt met If-None-Match, 304 zolang er niets wijzigde. */
     @GetMapping("/{id}")
-    public AppointmentResponse get(@PathVariable Long id) {
-        return service.getById(id);
+    public ResponseEntity<AppointmentResponse> get(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        String etag = service.etag(id);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(service.getById(id));
     }
 }
@@ -0,0 +1,28 @@
+package com.tayperformance.controller.publicapi;
+
+import com.tayperformance.dto.availability.AvailabilitySlotResponse;
+import com.tayperformance.service.availability.AvailabilityService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/public/availability")
+@RequiredArgsConstructor
+public class PublicAvailabilityController {
+
+    private final AvailabilityService availabilityService;
+
+    /** Vrije slots voor een dienst tussen from en to (inclusief). */
+    @GetMapping
+    public List<AvailabilitySlotResponse> freeSlots(
+            @RequestParam Long serviceId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return availabilityService.findFreeSlots(serviceId, from, to);
+    }
+}
@@ -0,0 +1,32 @@
+package com.tayperformance.controller.publicapi;
+
+import com.tayperformance.service.sms.status.SmsStatusCallbackService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Delivery-status webhook van de SMS provider (Twilio StatusCallback).
+ * Publiek bereikbaar, beveiligd via X-Twilio-Signature.
+ */
+@RestController
+@RequestMapping("/api/public/sms")
+@RequiredArgsConstructor
+public class PublicSmsStatusController {
+
+    private final SmsStatusCallbackService callbackService;
+
+    @PostMapping(value = "/status", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public ResponseEntity<Void> status(
+            @RequestParam Map<String, String> params,
+            @RequestHeader(value = "X-Twilio-Signature", required = false) String signature
+    ) {
+        if (!callbackService.handle(params, signature)) {
+            return ResponseEntity.status(403).build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
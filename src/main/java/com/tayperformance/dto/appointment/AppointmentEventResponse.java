@@ -0,0 +1,26 @@
+package com.tayperformance.dto.appointment;
+
+import com.tayperformance.entity.AppointmentStatus;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Compact live-event (SSE) voor de admin kalender.
+ * Client haalt details op via GET /api/internal/appointments/{id} indien nodig.
+ */
+@Value
+@Builder
+public class AppointmentEventResponse {
+
+    /** CREATED, UPDATED of DELETED. */
+    String type;
+
+    Long id;
+    AppointmentStatus status;
+    Long assignedStaffId;
+
+    OffsetDateTime startTime;
+    OffsetDateTime endTime;
+}
@@ -0,0 +1,17 @@
+package com.tayperformance.dto.availability;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.OffsetDateTime;
+
+@Value
+@Builder
+public class AvailabilitySlotResponse {
+
+    OffsetDateTime startTime;
+    OffsetDateTime endTime;
+
+    /** Aantal medewerkers dat dit slot nog vrij heeft (geen namen/ids naar buiten). */
+    int availableStaff;
+}
@@ -0,0 +1,50 @@
+package com.tayperformance.dto.common;
+
+import com.tayperformance.exception.BadRequestException;
+import com.tayperformance.util.KeysetCursor;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset (seek) pagina: geen COUNT, geen offset.
+ * nextCursor == null => laatste pagina.
+ *
+ * Paginagrootte voor alle keyset endpoints: valideren via limit(size), 1 maximum (MAX_SIZE).
+ */
+public record CursorPage<T>(
+        List<T> content,
+        String nextCursor
+) {
+
+    public static final int MAX_SIZE = 100;
+
+    /**
+     * Valideert de gevraagde paginagrootte en geeft de query-limit terug (size + 1, zie of).
+     * @throws BadRequestException buiten [1, MAX_SIZE]
+     */
+    public static Limit limit(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new BadRequestException("size moet tussen 1 en " + MAX_SIZE + " zijn");
+        }
+        return Limit.of(size + 1);
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * @param rows     resultaat van een query met limit(size) (extra rij = er is nog een pagina)
+     * @param cursorOf sleutel (tijdstip, id) van een rij, gebruikt voor de volgende cursor
+     */
+    public static <R, T> CursorPage<T> of(List<R> rows, int size,
+                                          Function<R, T> mapper,
+                                          Function<R, KeysetCursor> cursorOf) {
+        boolean more = rows.size() > size;
+        List<R> page = more ? rows.subList(0, size) : rows;
+        String next = more ? cursorOf.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorPage<>(page.stream().map(mapper).toList(), next);
+    }
+}
@@ -14,5 +14,6 @@ public record GarageSettingsResponse(
         String logoUrl,
         String templateConfirmation,
         String templateReady,
+        String templateLanguage,
         OffsetDateTime updatedAt
 ) {}
@@ -1,6 +1,7 @@
 package com.tayperformance.dto.settings;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 
 public record UpdateGarageSettingsRequest(
@@ -11,5 +12,8 @@ public record UpdateGarageSettingsRequest(
         @Size(max = 255) String logoUrl,
 
         @NotBlank @Size(max = 4000) String templateConfirmation,
-        @NotBlank @Size(max = 4000) String templateReady
+        @NotBlank @Size(max = 4000) String templateReady,
+
+        /** Taal van de templates (FR/NL); leeg = gebruikt voor elke tay.sms.language. */
+        @Pattern(regexp = "(?i)FR|NL") String templateLanguage
 ) {}
@@ -0,0 +1,9 @@
+package com.tayperformance.dto.sms;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record CreateSmsCampaignRequest(
+        @NotBlank @Size(max = 120) String name,
+        @NotBlank @Size(max = 1600) String message
+) {}
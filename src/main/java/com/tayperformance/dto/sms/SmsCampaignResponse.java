@@ -0,0 +1,32 @@
+package com.tayperformance.dto.sms;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+
+@Data
+@Builder
+public class SmsCampaignResponse {
+
+    private Long id;
+    private String name;
+    private String message;
+    private String status;          // RUNNING / PAUSED / COMPLETED / CANCELED
+
+    // ontvangers
+    private int totalCustomers;     // actieve klanten bij de start
+    private int enqueued;           // in de outbox gezet (uniek nummer)
+    private int duplicates;         // nummer al gehad
+    private int skipped;            // geen bruikbaar nummer
+
+    // verzending (null in lijsten, enkel in de detail view)
+    private Long pending;           // nog in de outbox (PENDING / HELD)
+    private Long queued;
+    private Long sent;
+    private Long delivered;
+    private Long failed;
+
+    private OffsetDateTime createdAt;
+    private OffsetDateTime finishedAt;
+}
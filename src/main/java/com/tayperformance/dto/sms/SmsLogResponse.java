@@ -23,4 +23,9 @@ public class SmsLogResponse {
     private OffsetDateTime createdAt;
     private OffsetDateTime sentAt;
     private OffsetDateTime deliveredAt;
+
+    private int attempts;
+    private OffsetDateTime nextRetryAt; // null = geen retry gepland
+
+    private Integer segmentCount;       // null = van vóór V13
 }
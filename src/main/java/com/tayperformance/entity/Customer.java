@@ -40,6 +40,14 @@ public class Customer {
     @Column(unique = true, nullable = false, length = 30)
     private String phone;
 
+    /**
+     * Enkel de cijfers van phone (generated column in Postgres, zie V4__trigram_search.sql).
+     * Voor substring search op telefoonfragmenten, ongeacht opmaak.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "phone_digits", length = 30, insertable = false, updatable = false)
+    private String phoneDigits;
+
     @Size(max = 80)
     @Column(name = "first_name", length = 80)
     private String firstName;
@@ -66,6 +74,13 @@ public class Customer {
     private List<Appointment> appointments = new ArrayList<>();
 
     public String getDisplayName() {
+        return displayName(firstName, lastName, phone);
+    }
+
+    /**
+     * Zelfde logica als getDisplayName, bruikbaar op projecties zonder entity.
+     */
+    public static String displayName(String firstName, String lastName, String phone) {
         if (firstName != null && !firstName.isBlank() && lastName != null && !lastName.isBlank()) {
             return firstName + " " + lastName;
         }
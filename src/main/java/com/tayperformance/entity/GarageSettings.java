@@ -18,7 +18,8 @@ public class GarageSettings {
     @Column(name = "garage_name", nullable = false, length = 120)
     private String garageName;
 
-    @Column(nullable = false, length = 255)
+    /** NULL = adres uit tay.garage.* */
+    @Column(length = 255)
     private String address;
 
     @Column(length = 40)
@@ -36,6 +37,10 @@ public class GarageSettings {
     @Column(name = "template_ready", nullable = false, columnDefinition = "text")
     private String templateReady;
 
+    /** FR / NL: templates worden enkel gebruikt als dit tay.sms.language is (NULL = elke taal). */
+    @Column(name = "template_language", length = 2)
+    private String templateLanguage;
+
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt;
@@ -0,0 +1,8 @@
+package com.tayperformance.entity;
+
+public enum OutboxStatus {
+    PENDING,
+    /** Campagne gepauzeerd: wordt niet geclaimd tot resume (terug naar PENDING). */
+    HELD,
+    DONE
+}
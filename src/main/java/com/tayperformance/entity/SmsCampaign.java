@@ -0,0 +1,97 @@
+package com.tayperformance.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Bulk SMS naar alle actieve klanten (promo, sluitingsdag).
+ *
+ * Workflow:
+ * 1. RUNNING   → SmsCampaignRunner zet ontvangers in batches in de outbox
+ *    (cursor over customers vanaf lastCustomerId, dedupe per genormaliseerd nummer)
+ * 2. PAUSED    → geen nieuwe batches, openstaande outbox rijen staan op HELD
+ * 3. COMPLETED → alle ontvangers in de outbox en de outbox-backlog is leeg
+ * 4. CANCELED  → openstaande outbox rijen gaan naar DONE zonder te versturen
+ */
+@Entity
+@Table(name = "sms_campaigns")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class SmsCampaign {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Version
+    private Long version;
+
+    @Column(nullable = false, length = 120)
+    private String name;
+
+    /** SMS template; enkel {{customerName}} en garage-placeholders (zie SmsTemplateEngine.compileCampaign). */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private SmsCampaignStatus status = SmsCampaignStatus.RUNNING;
+
+    /** Resume-punt van de cursor over customers (keyset op id). */
+    @Column(name = "last_customer_id", nullable = false)
+    @Builder.Default
+    private long lastCustomerId = 0;
+
+    /** Cursor is op het einde: alle ontvangers staan in de outbox. */
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean exhausted = false;
+
+    /** Vroegste available_at voor de volgende batch (pacing over batches heen). */
+    @Column(name = "next_slot_at")
+    private OffsetDateTime nextSlotAt;
+
+    // ============================================================
+    // VOORTGANG
+    // ============================================================
+
+    /** Aantal actieve klanten bij de start (schatting van het totaal). */
+    @Column(name = "total_customers", nullable = false)
+    @Builder.Default
+    private int totalCustomers = 0;
+
+    /** In de outbox gezet (1 per uniek nummer). */
+    @Column(nullable = false)
+    @Builder.Default
+    private int enqueued = 0;
+
+    /** Overgeslagen: nummer al gehad in deze campagne. */
+    @Column(nullable = false)
+    @Builder.Default
+    private int duplicates = 0;
+
+    /** Overgeslagen: geen bruikbaar telefoonnummer. */
+    @Column(nullable = false)
+    @Builder.Default
+    private int skipped = 0;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "finished_at")
+    private OffsetDateTime finishedAt;
+
+    public boolean isOpen() {
+        return status == SmsCampaignStatus.RUNNING || status == SmsCampaignStatus.PAUSED;
+    }
+}
@@ -0,0 +1,48 @@
+package com.tayperformance.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+
+/**
+ * Ontvanger van een campagne, uniek per genormaliseerd nummer (E.164).
+ *
+ * Geschreven met INSERT ... ON CONFLICT DO NOTHING (SmsCampaignStore): twee klanten
+ * met hetzelfde nummer krijgen samen 1 SMS.
+ */
+@Entity
+@Table(name = "sms_campaign_recipients")
+@IdClass(SmsCampaignRecipient.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SmsCampaignRecipient {
+
+    @Id
+    @Column(name = "campaign_id", nullable = false)
+    private Long campaignId;
+
+    @Id
+    @Column(nullable = false, length = 30)
+    private String phone;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long campaignId;
+        private String phone;
+    }
+}
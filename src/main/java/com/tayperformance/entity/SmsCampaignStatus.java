@@ -0,0 +1,8 @@
+package com.tayperformance.entity;
+
+public enum SmsCampaignStatus {
+    RUNNING,
+    PAUSED,
+    COMPLETED,
+    CANCELED
+}
@@ -18,14 +18,16 @@ import java.time.OffsetDateTime;
  * - Retry logic (gefaalde SMS'en opnieuw versturen)
  *
  * RETENTION POLICY: Automatisch verwijderen na 30 dagen om opslag te besparen.
+ * De tabel is per maand gepartitioneerd op created_at (V11); PK in de DB is (id, created_at).
  */
 @Entity
 @Table(
         name = "sms_logs",
         indexes = {
                 @Index(name = "idx_sms_appt", columnList = "appointment_id"),
-                @Index(name = "idx_sms_status", columnList = "status"),
-                @Index(name = "idx_sms_created", columnList = "created_at"),
+                @Index(name = "idx_sms_created_id", columnList = "created_at DESC, id DESC"),
+                @Index(name = "idx_sms_status_created_id", columnList = "status, created_at DESC, id DESC"),
+                @Index(name = "idx_sms_type_created_id", columnList = "type, created_at DESC, id DESC"),
                 @Index(name = "idx_sms_expires", columnList = "expires_at")
         }
 )
@@ -56,21 +58,27 @@ public class SmsLog {
 
     /**
      * Afspraak waarvoor deze SMS verstuurd werd.
-     * Elke SMS is gekoppeld aan een afspraak.
+     * Null voor campagne-SMS (dan is campaignId gezet).
      */
-    @NotNull(message = "Afspraak is verplicht")
-    @ManyToOne(fetch = FetchType.LAZY, optional = false)
-    @JoinColumn(name = "appointment_id", nullable = false)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "appointment_id")
     @JsonIgnore
     private Appointment appointment;
 
+    /**
+     * SmsCampaign waartoe deze SMS hoort (null voor afspraak-SMS).
+     * Geen FK: partities worden gedropt, campagnes blijven.
+     */
+    @Column(name = "campaign_id")
+    private Long campaignId;
+
     // ============================================================
     // SMS INFORMATIE
     // ============================================================
 
     /**
      * Type SMS bericht.
-     * Zie SmsType enum: CONFIRM, UPDATE, CANCEL, REMINDER
+     * Zie SmsType enum: CONFIRM, UPDATE, CANCEL, REMINDER, CAMPAIGN
      */
     @NotNull(message = "SMS type is verplicht")
     @Enumerated(EnumType.STRING)
@@ -114,12 +122,35 @@ public class SmsLog {
      *  Adresse: 123 Rue Example, Strasbourg. À bientôt!"
      *
      * Max 1600 tekens (10 SMS segmenten).
+     *
+     * Null bij compacte opslag (tay.sms.log-storage=TEMPLATE): dan staan templateId +
+     * templateParams ingevuld en wordt de tekst bij het lezen opnieuw gerenderd (SmsLogCompactor).
      */
-    @NotBlank(message = "SMS inhoud is verplicht")
     @Size(min = 10, max = 1600, message = "SMS moet tussen 10 en 1600 karakters zijn")
-    @Column(name = "message_body", columnDefinition = "TEXT", nullable = false)
+    @Column(name = "message_body", columnDefinition = "TEXT")
     private String messageBody;
 
+    /**
+     * Template-versie (sms_templates) waarmee messageBody gerenderd werd.
+     * Null als de volledige tekst in messageBody staat.
+     */
+    @Column(name = "template_id")
+    private Long templateId;
+
+    /**
+     * Variabele waarden van de template (naam, datum, uur, ...), in placeholder-volgorde.
+     * Formaat: zie SmsLogCompactor.
+     */
+    @Column(name = "template_params", columnDefinition = "TEXT")
+    private String templateParams;
+
+    /**
+     * Aantal SMS segmenten van messageBody (GSM-7: 160/153, UCS-2: 70/67 tekens).
+     * Zie SmsEncoder. Null voor logs van vóór V13.
+     */
+    @Column(name = "segment_count")
+    private Integer segmentCount;
+
     // ============================================================
     // PROVIDER INFORMATIE
     // ============================================================
@@ -151,6 +182,24 @@ public class SmsLog {
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
 
+    // ============================================================
+    // RETRY
+    // ============================================================
+
+    /**
+     * Aantal verzendpogingen bij de provider.
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    /**
+     * Volgende automatische retry (exponential backoff).
+     * Null als er geen retry meer gepland is (verstuurd of opgegeven).
+     */
+    @Column(name = "next_retry_at")
+    private OffsetDateTime nextRetryAt;
+
     // ============================================================
     // TIMESTAMPS
     // ============================================================
@@ -190,7 +239,7 @@ public class SmsLog {
 
     /**
      * Zet automatisch de vervaldatum voor het opslaan.
-     * SMS logs worden na 30 dagen automatisch verwijderd (batch job).
+     * SMS logs worden na 30 dagen automatisch verwijderd (SmsRetentionJob).
      *
      * Waarom 30 dagen?
      * - Recent genoeg voor troubleshooting
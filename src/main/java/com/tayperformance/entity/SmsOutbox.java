@@ -0,0 +1,84 @@
+package com.tayperformance.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.OffsetDateTime;
+
+/**
+ * SMS outbox - te versturen SMS, geschreven in de transactie van de boeking.
+ *
+ * Workflow:
+ * 1. PENDING → wacht op de dispatcher (availableAt <= nu)
+ * 2. geclaimd → lockedUntil/lockedBy gezet (lease); verloopt de lease (node crash),
+ *    dan pikt een andere node de rij opnieuw op
+ * 3. DONE     → verwerkt (verstuurd, overgeslagen of definitief gefaald; zie SmsLog)
+ *
+ * HELD: rij van een gepauzeerde campagne, wordt niet geclaimd.
+ */
+@Entity
+@Table(name = "sms_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(exclude = {"appointment", "customer"})
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class SmsOutbox {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Null voor campagne-SMS (dan zijn campaignId + customer gezet). */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "appointment_id")
+    private Appointment appointment;
+
+    /** SmsCampaign waartoe deze rij hoort (null voor afspraak-SMS). */
+    @Column(name = "campaign_id")
+    private Long campaignId;
+
+    /** Ontvanger van een campagne-SMS. */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "customer_id")
+    private Customer customer;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SmsType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    /** Aantal keer geclaimd door een dispatcher. */
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "available_at", nullable = false)
+    @Builder.Default
+    private OffsetDateTime availableAt = OffsetDateTime.now();
+
+    @Column(name = "locked_until")
+    private OffsetDateTime lockedUntil;
+
+    @Column(name = "locked_by", length = 80)
+    private String lockedBy;
+
+    /** SmsLog die voor deze rij aangemaakt werd (hergebruikt bij een reclaim). */
+    @Column(name = "sms_log_id")
+    private Long smsLogId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private OffsetDateTime processedAt;
+}
@@ -0,0 +1,50 @@
+package com.tayperformance.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+
+/**
+ * Idempotency-sleutel voor SMS: max 1 actieve SMS per (afspraak, type).
+ *
+ * Geclaimd met INSERT ... ON CONFLICT DO NOTHING (zie SmsSendKeyRepository.claim),
+ * vrijgegeven zodra de SMS definitief gefaald is.
+ */
+@Entity
+@Table(name = "sms_send_keys")
+@IdClass(SmsSendKey.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SmsSendKey {
+
+    @Id
+    @Column(name = "appointment_id", nullable = false)
+    private Long appointmentId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SmsType type;
+
+    /** SmsLog die de sleutel houdt (null tussen claim en aanmaken van de log). */
+    @Column(name = "sms_log_id")
+    private Long smsLogId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long appointmentId;
+        private SmsType type;
+    }
+}
@@ -0,0 +1,38 @@
+package com.tayperformance.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Onveranderlijke versie van een SMS template, gebruikt door compacte SmsLogs
+ * (template_id + template_params i.p.v. message_body).
+ *
+ * Content-addressed: source_hash is de SHA-256 van source, dezelfde tekst krijgt
+ * altijd hetzelfde id (zie SmsTemplateRegistry).
+ */
+@Entity
+@Table(name = "sms_templates")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SmsTemplateVersion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String source;
+
+    @Column(name = "source_hash", nullable = false, unique = true, length = 64)
+    private String sourceHash;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+}
@@ -4,5 +4,7 @@ public enum SmsType {
     CONFIRM,
     UPDATE,
     CANCEL,
-    REMINDER
+    REMINDER,
+    /** Bulk SMS van een SmsCampaign (geen afspraak). */
+    CAMPAIGN
 }
@@ -28,4 +28,20 @@ public class ConflictException extends RuntimeException {
                 )
         );
     }
+
+    /**
+     * Overlap gemeld door de database (exclusion constraint): de andere afspraak is
+     * op dat moment niet gekend, enkel het gevraagde slot.
+     */
+    public static ConflictException staffOverlap(Long staffId, OffsetDateTime start, OffsetDateTime end) {
+        return new ConflictException(
+                "APPOINTMENT_OVERLAP",
+                "Er is al een afspraak op dit tijdstip voor deze medewerker",
+                Map.of(
+                        "staffId", staffId,
+                        "requestedStartTime", start,
+                        "requestedEndTime", end
+                )
+        );
+    }
 }
@@ -3,6 +3,7 @@ package com.tayperformance.mapper;
 import com.tayperformance.dto.appointment.AppointmentResponse;
 import com.tayperformance.entity.Appointment;
 import com.tayperformance.entity.Customer;
+import com.tayperformance.repository.projection.AppointmentListView;
 
 import java.time.Duration;
 
@@ -50,4 +51,37 @@ public final class AppointmentMapper {
 
                 .build();
     }
+
+    public static AppointmentResponse toResponse(AppointmentListView v) {
+
+        if (v == null) return null;
+
+        Integer duration = null;
+        if (v.getStartTime() != null && v.getEndTime() != null) {
+            duration = (int) Duration.between(v.getStartTime(), v.getEndTime()).toMinutes();
+        }
+
+        return AppointmentResponse.builder()
+                .id(v.getId())
+
+                .customerId(v.getCustomerId())
+                .customerPhone(v.getCustomerPhone())
+                .customerName(Customer.displayName(v.getCustomerFirstName(), v.getCustomerLastName(), v.getCustomerPhone()))
+
+                .assignedStaffId(v.getAssignedStaffId())
+
+                .carBrand(v.getCarBrand())
+                .carModel(v.getCarModel())
+                .description(v.getDescription())
+
+                .startTime(v.getStartTime())
+                .endTime(v.getEndTime())
+
+                .durationMinutes(duration)
+
+                .price(v.getPrice())
+                .status(v.getStatus())
+
+                .build();
+    }
 }
@@ -0,0 +1,52 @@
+package com.tayperformance.mapper;
+
+import com.tayperformance.dto.sms.SmsCampaignResponse;
+import com.tayperformance.entity.SmsCampaign;
+import com.tayperformance.entity.SmsStatus;
+import com.tayperformance.repository.projection.SmsStatusCountView;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public final class SmsCampaignMapper {
+
+    private SmsCampaignMapper() {
+    }
+
+    public static SmsCampaignResponse toResponse(SmsCampaign c) {
+        if (c == null) return null;
+        return builder(c).build();
+    }
+
+    /** Detail: met verzendstatus uit sms_logs en de openstaande outbox rijen. */
+    public static SmsCampaignResponse toResponse(SmsCampaign c, List<SmsStatusCountView> counts, long pending) {
+        if (c == null) return null;
+
+        Map<SmsStatus, Long> byStatus = new EnumMap<>(SmsStatus.class);
+        for (SmsStatus s : SmsStatus.values()) byStatus.put(s, 0L);
+        for (SmsStatusCountView v : counts) byStatus.put(v.getStatus(), v.getCount());
+
+        return builder(c)
+                .pending(pending)
+                .queued(byStatus.get(SmsStatus.QUEUED))
+                .sent(byStatus.get(SmsStatus.SENT))
+                .delivered(byStatus.get(SmsStatus.DELIVERED))
+                .failed(byStatus.get(SmsStatus.FAILED))
+                .build();
+    }
+
+    private static SmsCampaignResponse.SmsCampaignResponseBuilder builder(SmsCampaign c) {
+        return SmsCampaignResponse.builder()
+                .id(c.getId())
+                .name(c.getName())
+                .message(c.getMessage())
+                .status(c.getStatus().name())
+                .totalCustomers(c.getTotalCustomers())
+                .enqueued(c.getEnqueued())
+                .duplicates(c.getDuplicates())
+                .skipped(c.getSkipped())
+                .createdAt(c.getCreatedAt())
+                .finishedAt(c.getFinishedAt());
+    }
+}
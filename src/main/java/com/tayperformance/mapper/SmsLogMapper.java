@@ -2,6 +2,7 @@ package com.tayperformance.mapper;
 
 import com.tayperformance.dto.sms.SmsLogResponse;
 import com.tayperformance.entity.SmsLog;
+import com.tayperformance.repository.projection.SmsLogListView;
 
 public final class SmsLogMapper {
 
@@ -9,6 +10,13 @@ public final class SmsLogMapper {
     }
 
     public static SmsLogResponse toResponse(SmsLog log) {
+        return toResponse(log, log == null ? null : log.getMessageBody());
+    }
+
+    /**
+     * @param messageBody tekst van de SMS; bij compacte opslag opnieuw gerenderd (SmsLogCompactor.resolve)
+     */
+    public static SmsLogResponse toResponse(SmsLog log, String messageBody) {
         if (log == null) return null;
 
         return SmsLogResponse.builder()
@@ -19,10 +27,32 @@ public final class SmsLogMapper {
                 .type(log.getType().name())
                 .status(log.getStatus().name())
                 .toPhone(log.getToPhone())
-                .messageBody(log.getMessageBody())
+                .messageBody(messageBody)
                 .createdAt(log.getCreatedAt())
                 .sentAt(log.getSentAt())
                 .deliveredAt(log.getDeliveredAt())
+                .attempts(log.getAttempts())
+                .nextRetryAt(log.getNextRetryAt())
+                .segmentCount(log.getSegmentCount())
+                .build();
+    }
+
+    /** Lijst-variant: zonder messageBody (enkel in de detail view). */
+    public static SmsLogResponse toResponse(SmsLogListView v) {
+        if (v == null) return null;
+
+        return SmsLogResponse.builder()
+                .id(v.getId())
+                .appointmentId(v.getAppointmentId())
+                .type(v.getType().name())
+                .status(v.getStatus().name())
+                .toPhone(v.getToPhone())
+                .createdAt(v.getCreatedAt())
+                .sentAt(v.getSentAt())
+                .deliveredAt(v.getDeliveredAt())
+                .attempts(v.getAttempts())
+                .nextRetryAt(v.getNextRetryAt())
+                .segmentCount(v.getSegmentCount())
                 .build();
     }
 }
@@ -2,12 +2,20 @@ package com.tayperformance.repository;
 
 import com.tayperformance.entity.Appointment;
 import com.tayperformance.entity.AppointmentStatus;
+import com.tayperformance.repository.projection.AppointmentListView;
+import com.tayperformance.repository.projection.AppointmentVersionView;
+import com.tayperformance.repository.projection.ScheduleSlotView;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.*;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
@@ -28,19 +36,148 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             @Param("excludeId") Long excludeId
     );
 
+    // geblokkeerde slots voor de in-memory planning (StaffScheduleIndex)
+    @Query("""
+        SELECT a.id AS id, a.assignedStaff.id AS staffId, a.startTime AS startTime, a.endTime AS endTime
+        FROM Appointment a
+        WHERE a.status IN :statuses
+          AND a.assignedStaff IS NOT NULL
+          AND a.endTime > :since
+    """)
+    List<ScheduleSlotView> findBlockingSlotsEndingAfter(@Param("statuses") List<AppointmentStatus> statuses,
+                                                        @Param("since") OffsetDateTime since);
+
+    // geblokkeerde slots in een periode (availability engine, alle medewerkers in 1 query)
+    @Query("""
+        SELECT a.id AS id, a.assignedStaff.id AS staffId, a.startTime AS startTime, a.endTime AS endTime
+        FROM Appointment a
+        WHERE a.status IN :statuses
+          AND a.assignedStaff IS NOT NULL
+          AND a.startTime < :to
+          AND a.endTime > :from
+    """)
+    List<ScheduleSlotView> findBlockingSlotsBetween(@Param("statuses") List<AppointmentStatus> statuses,
+                                                    @Param("from") OffsetDateTime from,
+                                                    @Param("to") OffsetDateTime to);
+
     Page<Appointment> findAllByOrderByStartTimeDesc(Pageable pageable);
 
+    /** Versie-check voor ETag / If-None-Match: geen entity laden of mappen. */
     @Query("""
-        SELECT a FROM Appointment a
-        WHERE (:term IS NULL OR :term = '' OR
-              LOWER(a.customer.phone) LIKE LOWER(CONCAT('%', :term, '%'))
-           OR LOWER(a.customer.firstName) LIKE LOWER(CONCAT('%', :term, '%'))
-           OR LOWER(a.customer.lastName) LIKE LOWER(CONCAT('%', :term, '%'))
-           OR LOWER(a.carBrand) LIKE LOWER(CONCAT('%', :term, '%'))
-           OR LOWER(a.carModel) LIKE LOWER(CONCAT('%', :term, '%')))
+        SELECT a.version AS version, c.version AS customerVersion
+        FROM Appointment a
+        JOIN a.customer c
+        WHERE a.id = :id
+    """)
+    Optional<AppointmentVersionView> findVersionsById(@Param("id") Long id);
+
+    // ------------------------------------------------------------
+    // LIJSTEN (projectie: 1 statement per pagina + COUNT)
+    // ------------------------------------------------------------
+
+    @Query(value = """
+        SELECT a.id AS id,
+               c.id AS customerId, c.phone AS customerPhone,
+               c.firstName AS customerFirstName, c.lastName AS customerLastName,
+               a.assignedStaff.id AS assignedStaffId,
+               a.carBrand AS carBrand, a.carModel AS carModel, a.description AS description,
+               a.startTime AS startTime, a.endTime AS endTime,
+               a.price AS price, a.status AS status
+        FROM Appointment a
+        JOIN a.customer c
+        ORDER BY a.startTime DESC
+    """, countQuery = "SELECT COUNT(a) FROM Appointment a")
+    Page<AppointmentListView> listAll(Pageable pageable);
+
+    /**
+     * Substring search via pg_trgm (V4). Patterns komen lowercase/ge-escaped binnen (SearchPatterns).
+     * De customer-voorwaarden zitten in een subquery zodat Postgres per tabel een BitmapOr
+     * over de trigram indexes kan doen i.p.v. een OR over een join.
+     */
+    @Query(value = """
+        SELECT a.id AS id,
+               c.id AS customerId, c.phone AS customerPhone,
+               c.firstName AS customerFirstName, c.lastName AS customerLastName,
+               a.assignedStaff.id AS assignedStaffId,
+               a.carBrand AS carBrand, a.carModel AS carModel, a.description AS description,
+               a.startTime AS startTime, a.endTime AS endTime,
+               a.price AS price, a.status AS status
+        FROM Appointment a
+        JOIN a.customer c
+        WHERE (c.id IN (SELECT m.id FROM Customer m
+                        WHERE m.phoneDigits LIKE :digits
+                           OR LOWER(m.firstName) LIKE :pattern
+                           OR LOWER(m.lastName) LIKE :pattern)
+           OR LOWER(a.carBrand) LIKE :pattern
+           OR LOWER(a.carModel) LIKE :pattern)
         ORDER BY a.startTime DESC
+    """, countQuery = """
+        SELECT COUNT(a) FROM Appointment a
+        JOIN a.customer c
+        WHERE (c.id IN (SELECT m.id FROM Customer m
+                        WHERE m.phoneDigits LIKE :digits
+                           OR LOWER(m.firstName) LIKE :pattern
+                           OR LOWER(m.lastName) LIKE :pattern)
+           OR LOWER(a.carBrand) LIKE :pattern
+           OR LOWER(a.carModel) LIKE :pattern)
+    """)
+    Page<AppointmentListView> search(@Param("pattern") String pattern,
+                                     @Param("digits") String digits,
+                                     Pageable pageable);
+
+    // ------------------------------------------------------------
+    // KEYSET (seek) op (start_time, id) DESC — idx_appt_start_time, geen COUNT
+    // ------------------------------------------------------------
+
+    @Query("""
+        SELECT a.id AS id,
+               c.id AS customerId, c.phone AS customerPhone,
+               c.firstName AS customerFirstName, c.lastName AS customerLastName,
+               a.assignedStaff.id AS assignedStaffId,
+               a.carBrand AS carBrand, a.carModel AS carModel, a.description AS description,
+               a.startTime AS startTime, a.endTime AS endTime,
+               a.price AS price, a.status AS status
+        FROM Appointment a
+        JOIN a.customer c
+        WHERE (:pattern = '%'
+           OR c.id IN (SELECT m.id FROM Customer m
+                       WHERE m.phoneDigits LIKE :digits
+                          OR LOWER(m.firstName) LIKE :pattern
+                          OR LOWER(m.lastName) LIKE :pattern)
+           OR LOWER(a.carBrand) LIKE :pattern
+           OR LOWER(a.carModel) LIKE :pattern)
+        ORDER BY a.startTime DESC, a.id DESC
     """)
-    Page<Appointment> search(@Param("term") String term, Pageable pageable);
+    List<AppointmentListView> seekFirst(@Param("pattern") String pattern,
+                                        @Param("digits") String digits,
+                                        Limit limit);
+
+    @Query("""
+        SELECT a.id AS id,
+               c.id AS customerId, c.phone AS customerPhone,
+               c.firstName AS customerFirstName, c.lastName AS customerLastName,
+               a.assignedStaff.id AS assignedStaffId,
+               a.carBrand AS carBrand, a.carModel AS carModel, a.description AS description,
+               a.startTime AS startTime, a.endTime AS endTime,
+               a.price AS price, a.status AS status
+        FROM Appointment a
+        JOIN a.customer c
+        WHERE (:pattern = '%'
+           OR c.id IN (SELECT m.id FROM Customer m
+                       WHERE m.phoneDigits LIKE :digits
+                          OR LOWER(m.firstName) LIKE :pattern
+                          OR LOWER(m.lastName) LIKE :pattern)
+           OR LOWER(a.carBrand) LIKE :pattern
+           OR LOWER(a.carModel) LIKE :pattern)
+          AND a.startTime <= :cursorTime
+          AND (a.startTime < :cursorTime OR a.id < :cursorId)
+        ORDER BY a.startTime DESC, a.id DESC
+    """)
+    List<AppointmentListView> seekAfter(@Param("pattern") String pattern,
+                                        @Param("digits") String digits,
+                                        @Param("cursorTime") OffsetDateTime cursorTime,
+                                        @Param("cursorId") Long cursorId,
+                                        Limit limit);
 
     @Query("""
         SELECT a FROM Appointment a
@@ -68,26 +205,134 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     """)
     long countCompletedByCustomer(@Param("customerId") Long customerId);
 
-    @Query("""
-select a
+    @Query(value = """
+select a.id as id,
+       c.id as customerId, c.phone as customerPhone,
+       c.firstName as customerFirstName, c.lastName as customerLastName,
+       a.assignedStaff.id as assignedStaffId,
+       a.carBrand as carBrand, a.carModel as carModel, a.description as description,
+       a.startTime as startTime, a.endTime as endTime,
+       a.price as price, a.status as status
 from Appointment a
 join a.customer c
-where (
-  :q is null or :q = '' or
-  lower(a.description) like lower(concat('%', :q, '%')) or
-  lower(a.carBrand) like lower(concat('%', :q, '%')) or
-  lower(c.phone) like lower(concat('%', :q, '%'))
-)
+where a.startTime >= :from and a.startTime < :to
 and (
-  :from is null or :to is null or (a.startTime >= :from and a.startTime < :to)
+  :pattern = '%' or
+  lower(a.description) like :pattern or
+  lower(a.carBrand) like :pattern or
+  c.phoneDigits like :digits
 )
 order by a.startTime asc
+""", countQuery = """
+select count(a)
+from Appointment a
+join a.customer c
+where a.startTime >= :from and a.startTime < :to
+and (
+  :pattern = '%' or
+  lower(a.description) like :pattern or
+  lower(a.carBrand) like :pattern or
+  c.phoneDigits like :digits
+)
 """)
-    Page<Appointment> searchAdvanced(
-            @Param("q") String q,
+    Page<AppointmentListView> searchAdvanced(
+            @Param("pattern") String pattern,
+            @Param("digits") String digits,
             @Param("from") OffsetDateTime from,
             @Param("to") OffsetDateTime to,
             Pageable pageable
     );
 
+
+    // ------------------------------------------------------------
+    // FULL-TEXT (V5: appointments.search_tsv + GIN)
+    // ------------------------------------------------------------
+
+    /**
+     * Gerankte full-text search over description + merk/model (Postgres only, niet op H2).
+     * De zoekterm wordt in french, dutch en simple geparsed (websearch syntax:
+     * "quoted phrase", -uitsluiten, or) en die queries worden ge-OR'd.
+     *
+     * Geeft enkel ids terug (beste match eerst); de rijen komen uit findListViewsByIdIn,
+     * zodat enum/timestamptz mapping via de entity loopt i.p.v. via native kolomtypes.
+     */
+    @Query(value = """
+        SELECT a.id
+        FROM appointments a,
+             (SELECT websearch_to_tsquery('french', :q)
+                  || websearch_to_tsquery('dutch', :q)
+                  || websearch_to_tsquery('simple', :q) AS query) tq
+        WHERE a.search_tsv @@ tq.query
+        ORDER BY ts_rank_cd(a.search_tsv, tq.query) DESC, a.start_time DESC
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<Long> fullTextSearchIds(@Param("q") String q, @Param("limit") int limit);
+
+    /** Lijst-rijen voor een set ids, in willekeurige volgorde (zie fullTextSearchIds). */
+    @Query("""
+        SELECT a.id AS id,
+               c.id AS customerId, c.phone AS customerPhone,
+               c.firstName AS customerFirstName, c.lastName AS customerLastName,
+               a.assignedStaff.id AS assignedStaffId,
+               a.carBrand AS carBrand, a.carModel AS carModel, a.description AS description,
+               a.startTime AS startTime, a.endTime AS endTime,
+               a.price AS price, a.status AS status
+        FROM Appointment a
+        JOIN a.customer c
+        WHERE a.id IN :ids
+    """)
+    List<AppointmentListView> findListViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // ------------------------------------------------------------
+    // REMINDERS (V7: idx_appt_confirmed_start)
+    // ------------------------------------------------------------
+
+    /**
+     * CONFIRMED afspraken in [from, to) die nog geen REMINDER hebben (outbox of log).
+     * Enkel ids: de outbox rij wordt zonder entity te laden aangemaakt.
+     */
+    @Query("""
+        SELECT a.id FROM Appointment a
+        WHERE a.status = com.tayperformance.entity.AppointmentStatus.CONFIRMED
+          AND a.startTime >= :from AND a.startTime < :to
+          AND NOT EXISTS (
+              SELECT 1 FROM SmsOutbox o
+              WHERE o.appointment = a AND o.type = com.tayperformance.entity.SmsType.REMINDER)
+          AND NOT EXISTS (
+              SELECT 1 FROM SmsLog s
+              WHERE s.appointment = a AND s.type = com.tayperformance.entity.SmsType.REMINDER)
+        ORDER BY a.startTime ASC, a.id ASC
+    """)
+    List<Long> findDueForReminder(@Param("from") OffsetDateTime from,
+                                  @Param("to") OffsetDateTime to,
+                                  Limit limit);
+
+    // ------------------------------------------------------------
+    // EXPORT (server-side cursor)
+    // ------------------------------------------------------------
+
+    /**
+     * Alle afspraken in [from, to) als stream. Moet binnen een transactie geconsumeerd
+     * (en gesloten) worden: de Postgres driver gebruikt dan een cursor met fetchSize
+     * i.p.v. de volledige resultset in het geheugen te laden.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT a.id AS id,
+               c.id AS customerId, c.phone AS customerPhone,
+               c.firstName AS customerFirstName, c.lastName AS customerLastName,
+               a.assignedStaff.id AS assignedStaffId,
+               a.carBrand AS carBrand, a.carModel AS carModel, a.description AS description,
+               a.startTime AS startTime, a.endTime AS endTime,
+               a.price AS price, a.status AS status
+        FROM Appointment a
+        JOIN a.customer c
+        WHERE a.startTime >= :from AND a.startTime < :to
+        ORDER BY a.startTime ASC, a.id ASC
+    """)
+    Stream<AppointmentListView> streamForExport(@Param("from") OffsetDateTime from,
+                                                @Param("to") OffsetDateTime to);
 }
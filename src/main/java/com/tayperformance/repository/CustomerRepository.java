@@ -1,13 +1,18 @@
 package com.tayperformance.repository;
 
 import com.tayperformance.entity.Customer;
+import com.tayperformance.repository.projection.CampaignRecipientView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
@@ -21,15 +26,44 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     Page<Customer> findAllByActiveTrueOrderByFirstNameAsc(Pageable pageable);
 
+    long countByActiveTrue();
+
+    /**
+     * Actieve klanten met id > afterId, oplopend (campagnes). Moet binnen een transactie
+     * geconsumeerd (en gesloten) worden: de Postgres driver gebruikt dan een cursor met
+     * fetchSize; stoppen na een batch sluit de cursor zonder de rest te lezen.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT c.id AS id, c.phone AS phone
+        FROM Customer c
+        WHERE c.active = true AND c.id > :afterId
+        ORDER BY c.id ASC
+    """)
+    Stream<CampaignRecipientView> streamActiveAfter(@Param("afterId") long afterId);
+
+    /** Versie-check voor ETag / If-None-Match; NULL (oude rij) telt als 0, anders geen resultaat. */
+    @Query("SELECT COALESCE(c.version, 0L) FROM Customer c WHERE c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Substring search via pg_trgm (V4): patterns komen al lowercase/ge-escaped binnen
+     * (SearchPatterns), zodat LOWER(kolom) LIKE :pattern de GIN indexes gebruikt.
+     */
     @Query("""
         SELECT c FROM Customer c
         WHERE c.active = true
           AND (
-               LOWER(c.phone) LIKE LOWER(CONCAT('%', :term, '%'))
-            OR LOWER(c.firstName) LIKE LOWER(CONCAT('%', :term, '%'))
-            OR LOWER(c.lastName) LIKE LOWER(CONCAT('%', :term, '%'))
+               c.phoneDigits LIKE :digits
+            OR LOWER(c.firstName) LIKE :pattern
+            OR LOWER(c.lastName) LIKE :pattern
           )
         ORDER BY c.firstName ASC, c.lastName ASC
     """)
-    Page<Customer> searchActive(@Param("term") String term, Pageable pageable);
+    Page<Customer> searchActive(@Param("pattern") String pattern,
+                                @Param("digits") String digits,
+                                Pageable pageable);
 }
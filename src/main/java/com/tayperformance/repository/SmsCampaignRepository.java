@@ -0,0 +1,53 @@
+package com.tayperformance.repository;
+
+import com.tayperformance.entity.SmsCampaign;
+import com.tayperformance.entity.SmsCampaignStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface SmsCampaignRepository extends JpaRepository<SmsCampaign, Long> {
+
+    Page<SmsCampaign> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    @Query("SELECT c.id FROM SmsCampaign c WHERE c.status = :status ORDER BY c.id")
+    List<Long> findIdsByStatus(@Param("status") SmsCampaignStatus status);
+
+    /**
+     * Lockt een lopende campagne voor 1 batch. SKIP LOCKED: een andere node die
+     * dezelfde campagne aan het verwerken is wordt overgeslagen i.p.v. afgewacht.
+     */
+    @Query(value = """
+        SELECT id FROM sms_campaigns
+        WHERE id = :id AND status = 'RUNNING'
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<Long> lockRunning(@Param("id") Long id);
+
+    /** Wacht op een lopende batch van deze campagne (nextSlotAt wordt aangepast). */
+    @Query(value = "SELECT id FROM sms_campaigns WHERE id = :id FOR UPDATE", nativeQuery = true)
+    List<Long> lock(@Param("id") Long id);
+
+    /**
+     * Statusovergang als 1 conditionele UPDATE: wacht op een lopende batch (row lock)
+     * i.p.v. te falen op de versie.
+     * @return 0 als de campagne niet (meer) in een van de from-statussen staat
+     */
+    @Modifying
+    @Query("""
+        UPDATE SmsCampaign c
+        SET c.status = :to, c.finishedAt = :finishedAt, c.version = COALESCE(c.version, 0) + 1
+        WHERE c.id = :id AND c.status IN :from
+    """)
+    int transition(@Param("id") Long id,
+                   @Param("from") Collection<SmsCampaignStatus> from,
+                   @Param("to") SmsCampaignStatus to,
+                   @Param("finishedAt") OffsetDateTime finishedAt);
+}
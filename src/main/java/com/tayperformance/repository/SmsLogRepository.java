@@ -3,43 +3,164 @@ package com.tayperformance.repository;
 import com.tayperformance.entity.SmsLog;
 import com.tayperformance.entity.SmsStatus;
 import com.tayperformance.entity.SmsType;
+import com.tayperformance.repository.projection.SmsLogKeyView;
+import com.tayperformance.repository.projection.SmsLogListView;
+import com.tayperformance.repository.projection.SmsStatusCountView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface SmsLogRepository extends JpaRepository<SmsLog, Long> {
     void deleteByAppointment_Id(Long appointmentId);
 
+    /**
+     * Status van de eigen logs van geclaimde outbox rijen (reclaim na crash / retry).
+     * Duplicate-preventie zelf gebeurt via sms_send_keys (SmsSendKeyRepository.claim).
+     */
     @Query("""
-        SELECT (COUNT(s) > 0)
+        SELECT s.id AS id, s.appointment.id AS appointmentId, s.type AS type, s.status AS status,
+               s.attempts AS attempts
         FROM SmsLog s
-        WHERE s.appointment.id = :appointmentId
-          AND s.type = :type
-          AND s.status IN (
-             com.tayperformance.entity.SmsStatus.QUEUED,
-             com.tayperformance.entity.SmsStatus.SENT,
-             com.tayperformance.entity.SmsStatus.DELIVERED
-          )
+        WHERE s.id IN :ids
     """)
-    boolean hasTypeBeenSent(@Param("appointmentId") Long appointmentId,
-                            @Param("type") SmsType type);
+    List<SmsLogKeyView> findKeysByIdIn(@Param("ids") Collection<Long> ids);
+
+    // ------------------------------------------------------------
+    // RETRY (V8: idx_sms_retry_due)
+    // ------------------------------------------------------------
+
+    /** Lockt de volgende batch retries die aan de beurt zijn (multi-node safe). */
+    @Query(value = """
+        SELECT id FROM sms_logs
+        WHERE status = 'FAILED'
+          AND next_retry_at IS NOT NULL
+          AND next_retry_at <= :now
+        ORDER BY next_retry_at
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<Long> lockDueRetries(@Param("now") OffsetDateTime now, @Param("limit") int limit);
+
+    /**
+     * Retries die niet meer zinvol zijn (bv. bevestiging van een intussen geannuleerde afspraak
+     * of SMS van een geannuleerde campagne).
+     */
+    @Query("""
+        SELECT s.id FROM SmsLog s
+        LEFT JOIN s.appointment a
+        WHERE s.id IN :ids
+          AND s.type <> com.tayperformance.entity.SmsType.CANCEL
+          AND (a.status IN (
+                 com.tayperformance.entity.AppointmentStatus.CANCELED,
+                 com.tayperformance.entity.AppointmentStatus.COMPLETED,
+                 com.tayperformance.entity.AppointmentStatus.NOSHOW
+               )
+            OR s.campaignId IN (SELECT c.id FROM SmsCampaign c
+                                WHERE c.status = com.tayperformance.entity.SmsCampaignStatus.CANCELED))
+    """)
+    List<Long> findObsoleteRetries(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("""
+        UPDATE SmsLog s
+        SET s.status = com.tayperformance.entity.SmsStatus.QUEUED,
+            s.nextRetryAt = null, s.version = COALESCE(s.version, 0) + 1
+        WHERE s.id IN :ids
+    """)
+    int requeue(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("""
+        UPDATE SmsLog s
+        SET s.nextRetryAt = null, s.version = COALESCE(s.version, 0) + 1
+        WHERE s.id IN :ids
+    """)
+    int cancelRetry(@Param("ids") Collection<Long> ids);
+
+    /** Voortgang van een campagne (idx_sms_logs_campaign). */
+    @Query("""
+        SELECT s.status AS status, COUNT(s) AS count
+        FROM SmsLog s
+        WHERE s.campaignId = :campaignId
+        GROUP BY s.status
+    """)
+    List<SmsStatusCountView> countByStatusForCampaign(@Param("campaignId") Long campaignId);
 
     // logs per afspraak
     List<SmsLog> findAllByAppointment_IdOrderByCreatedAtDesc(Long appointmentId);
 
-    // filter op status (paginatie)
-    Page<SmsLog> findAllByStatusOrderByCreatedAtDesc(SmsStatus status, Pageable pageable);
+    // ------------------------------------------------------------
+    // LIJSTEN: projectie zonder tekst, (created_at, id) DESC
+    // ------------------------------------------------------------
 
-    // failed sinds X dagen (paginatie)
-    @Query("""
-        SELECT s FROM SmsLog s
-        WHERE s.status = com.tayperformance.entity.SmsStatus.FAILED
+    // filter op status (paginatie, met COUNT)
+    @Query(value = """
+        SELECT s.id AS id, s.appointment.id AS appointmentId, s.type AS type, s.status AS status,
+               s.toPhone AS toPhone, s.createdAt AS createdAt, s.sentAt AS sentAt,
+               s.deliveredAt AS deliveredAt, s.attempts AS attempts, s.nextRetryAt AS nextRetryAt,
+               s.segmentCount AS segmentCount
+        FROM SmsLog s
+        WHERE s.status IN :statuses
+          AND s.createdAt >= :since
+        ORDER BY s.createdAt DESC, s.id DESC
+    """, countQuery = """
+        SELECT COUNT(s) FROM SmsLog s
+        WHERE s.status IN :statuses
           AND s.createdAt >= :since
-        ORDER BY s.createdAt DESC
     """)
-    Page<SmsLog> findFailedSince(@Param("since") OffsetDateTime since, Pageable pageable);
+    Page<SmsLogListView> listPage(@Param("statuses") Collection<SmsStatus> statuses,
+                                  @Param("since") OffsetDateTime since,
+                                  Pageable pageable);
+
+    // ------------------------------------------------------------
+    // KEYSET (seek) op (created_at, id) DESC, geen COUNT (V15)
+    //
+    // 1 status/type => "IN (?)" wordt in Postgres "= ?": range scan op
+    // idx_sms_status_created_id / idx_sms_type_created_id. Alle waarden => idx_sms_created_id.
+    // created_at begrensd (from/to): partition pruning op de maandpartities.
+    // ------------------------------------------------------------
+
+    @Query("""
+        SELECT s.id AS id, s.appointment.id AS appointmentId, s.type AS type, s.status AS status,
+               s.toPhone AS toPhone, s.createdAt AS createdAt, s.sentAt AS sentAt,
+               s.deliveredAt AS deliveredAt, s.attempts AS attempts, s.nextRetryAt AS nextRetryAt,
+               s.segmentCount AS segmentCount
+        FROM SmsLog s
+        WHERE s.status IN :statuses
+          AND s.type IN :types
+          AND s.createdAt >= :from
+          AND s.createdAt < :to
+        ORDER BY s.createdAt DESC, s.id DESC
+    """)
+    List<SmsLogListView> seekFirst(@Param("statuses") Collection<SmsStatus> statuses,
+                                   @Param("types") Collection<SmsType> types,
+                                   @Param("from") OffsetDateTime from,
+                                   @Param("to") OffsetDateTime to,
+                                   Limit limit);
+
+    @Query("""
+        SELECT s.id AS id, s.appointment.id AS appointmentId, s.type AS type, s.status AS status,
+               s.toPhone AS toPhone, s.createdAt AS createdAt, s.sentAt AS sentAt,
+               s.deliveredAt AS deliveredAt, s.attempts AS attempts, s.nextRetryAt AS nextRetryAt,
+               s.segmentCount AS segmentCount
+        FROM SmsLog s
+        WHERE s.status IN :statuses
+          AND s.type IN :types
+          AND s.createdAt >= :from
+          AND s.createdAt <= :cursorTime
+          AND (s.createdAt < :cursorTime OR s.id < :cursorId)
+        ORDER BY s.createdAt DESC, s.id DESC
+    """)
+    List<SmsLogListView> seekAfter(@Param("statuses") Collection<SmsStatus> statuses,
+                                   @Param("types") Collection<SmsType> types,
+                                   @Param("from") OffsetDateTime from,
+                                   @Param("cursorTime") OffsetDateTime cursorTime,
+                                   @Param("cursorId") Long cursorId,
+                                   Limit limit);
 }
@@ -0,0 +1,166 @@
+package com.tayperformance.repository;
+
+import com.tayperformance.entity.SmsOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface SmsOutboxRepository extends JpaRepository<SmsOutbox, Long> {
+
+    /**
+     * Lockt de volgende batch openstaande rijen. SKIP LOCKED: rijen die een andere
+     * node op dit moment claimt worden overgeslagen i.p.v. erop te wachten.
+     */
+    @Query(value = """
+        SELECT id FROM sms_outbox
+        WHERE status = 'PENDING'
+          AND available_at <= :now
+          AND (locked_until IS NULL OR locked_until < :now)
+        ORDER BY available_at, id
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<Long> lockDue(@Param("now") OffsetDateTime now, @Param("limit") int limit);
+
+    /** Lease zetten op de gelockte rijen (zelfde transactie als lockDue). */
+    @Modifying
+    @Query("""
+        UPDATE SmsOutbox o
+        SET o.lockedUntil = :until, o.lockedBy = :node, o.attempts = o.attempts + 1
+        WHERE o.id IN :ids
+    """)
+    int lease(@Param("ids") Collection<Long> ids,
+              @Param("until") OffsetDateTime until,
+              @Param("node") String node);
+
+    /**
+     * Rijen die nog door deze node geleased zijn, gelockt tot het einde van de transactie.
+     * Is de lease verlopen en heeft een andere node de rij intussen geclaimd, dan valt
+     * ze hier weg: die node rondt ze af. SKIP LOCKED in lockDue slaat de gelockte rijen over.
+     */
+    @Query(value = """
+        SELECT id FROM sms_outbox
+        WHERE id IN :ids
+          AND locked_by = :node
+          AND status = 'PENDING'
+        FOR UPDATE
+    """, nativeQuery = true)
+    List<Long> lockOwned(@Param("ids") Collection<Long> ids, @Param("node") String node);
+
+    /** Afspraak + klant, of (campagne-SMS) de ontvanger. */
+    @Query("""
+        SELECT o FROM SmsOutbox o
+        LEFT JOIN FETCH o.appointment a
+        LEFT JOIN FETCH a.customer
+        LEFT JOIN FETCH o.customer
+        WHERE o.id IN :ids
+    """)
+    List<SmsOutbox> findClaimed(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Retry: nieuwe outbox rij per log, met sms_log_id zodat de dispatcher de log hergebruikt.
+     * Campagne-SMS: klant via sms_campaign_recipients (campagne + nummer); hun available_at
+     * zet SmsCampaignStore.reslotRetries daarna op de pacing van de campagne.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO sms_outbox (appointment_id, campaign_id, customer_id, type, status, attempts,
+                                available_at, sms_log_id, created_at)
+        SELECT s.appointment_id, s.campaign_id, r.customer_id, s.type, 'PENDING', 0, now(), s.id, now()
+        FROM sms_logs s
+        LEFT JOIN sms_campaign_recipients r ON r.campaign_id = s.campaign_id AND r.phone = s.to_phone
+        WHERE s.id IN :smsLogIds
+          AND (s.appointment_id IS NOT NULL OR r.customer_id IS NOT NULL)
+    """, nativeQuery = true)
+    int enqueueRetries(@Param("smsLogIds") Collection<Long> smsLogIds);
+
+    @Modifying
+    @Query("""
+        UPDATE SmsOutbox o
+        SET o.status = com.tayperformance.entity.OutboxStatus.DONE,
+            o.processedAt = :now, o.lockedUntil = null, o.lockedBy = null
+        WHERE o.id IN :ids
+    """)
+    int markDone(@Param("ids") Collection<Long> ids, @Param("now") OffsetDateTime now);
+
+    /**
+     * Rijen terug naar PENDING met een latere available_at (provider circuit open):
+     * de SmsLog blijft QUEUED en wordt bij de volgende claim hergebruikt.
+     */
+    @Modifying
+    @Query("""
+        UPDATE SmsOutbox o
+        SET o.availableAt = :until, o.lockedUntil = null, o.lockedBy = null
+        WHERE o.id IN :ids
+    """)
+    int defer(@Param("ids") Collection<Long> ids, @Param("until") OffsetDateTime until);
+
+    // ------------------------------------------------------------
+    // CAMPAGNES (idx_sms_outbox_campaign_open)
+    // ------------------------------------------------------------
+
+    /** Openstaande rijen (PENDING + HELD) van een campagne. */
+    @Query("""
+        SELECT COUNT(o) FROM SmsOutbox o
+        WHERE o.campaignId = :campaignId
+          AND o.status IN (com.tayperformance.entity.OutboxStatus.PENDING, com.tayperformance.entity.OutboxStatus.HELD)
+    """)
+    long countOpenForCampaign(@Param("campaignId") Long campaignId);
+
+    /** Pauze: niet-geclaimde rijen op HELD (al geclaimde rijen worden nog afgewerkt). */
+    @Modifying
+    @Query("""
+        UPDATE SmsOutbox o
+        SET o.status = com.tayperformance.entity.OutboxStatus.HELD
+        WHERE o.campaignId = :campaignId
+          AND o.status = com.tayperformance.entity.OutboxStatus.PENDING
+          AND (o.lockedUntil IS NULL OR o.lockedUntil < :now)
+    """)
+    int holdCampaign(@Param("campaignId") Long campaignId, @Param("now") OffsetDateTime now);
+
+    /** Gepauzeerde rijen in hun oorspronkelijke volgorde (hervatten: nieuwe slots, zie SmsCampaignStore). */
+    @Query("""
+        SELECT o.id FROM SmsOutbox o
+        WHERE o.campaignId = :campaignId
+          AND o.status = com.tayperformance.entity.OutboxStatus.HELD
+        ORDER BY o.availableAt, o.id
+    """)
+    List<Long> findHeldIds(@Param("campaignId") Long campaignId);
+
+    /** Hervatten: available_at zet SmsCampaignStore daarna opnieuw (pacing + verzendvenster). */
+    @Modifying
+    @Query("""
+        UPDATE SmsOutbox o
+        SET o.status = com.tayperformance.entity.OutboxStatus.PENDING
+        WHERE o.campaignId = :campaignId
+          AND o.status = com.tayperformance.entity.OutboxStatus.HELD
+    """)
+    int releaseCampaign(@Param("campaignId") Long campaignId);
+
+    /** Retry-rijen van campagne-SMS (net aangemaakt door enqueueRetries). */
+    @Query("""
+        SELECT o FROM SmsOutbox o
+        WHERE o.smsLogId IN :smsLogIds
+          AND o.campaignId IS NOT NULL
+          AND o.status = com.tayperformance.entity.OutboxStatus.PENDING
+          AND o.lockedBy IS NULL
+        ORDER BY o.id
+    """)
+    List<SmsOutbox> findCampaignRetries(@Param("smsLogIds") Collection<Long> smsLogIds);
+
+    /** Annuleren: openstaande rijen naar DONE zonder te versturen. */
+    @Modifying
+    @Query("""
+        UPDATE SmsOutbox o
+        SET o.status = com.tayperformance.entity.OutboxStatus.DONE, o.processedAt = :now
+        WHERE o.campaignId = :campaignId
+          AND o.status IN (com.tayperformance.entity.OutboxStatus.PENDING, com.tayperformance.entity.OutboxStatus.HELD)
+          AND (o.lockedUntil IS NULL OR o.lockedUntil < :now)
+    """)
+    int cancelCampaign(@Param("campaignId") Long campaignId, @Param("now") OffsetDateTime now);
+}
@@ -0,0 +1,38 @@
+package com.tayperformance.repository;
+
+import com.tayperformance.entity.SmsSendKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+
+public interface SmsSendKeyRepository extends JpaRepository<SmsSendKey, SmsSendKey.Key> {
+
+    /**
+     * Claimt de sleutel voor (afspraak, type).
+     * @return 1 als geclaimd, 0 als er al een actieve SMS van dit type is
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO sms_send_keys (appointment_id, type, created_at)
+        VALUES (:appointmentId, :type, now())
+        ON CONFLICT DO NOTHING
+    """, nativeQuery = true)
+    int claim(@Param("appointmentId") Long appointmentId, @Param("type") String type);
+
+    @Modifying
+    @Query(value = """
+        UPDATE sms_send_keys SET sms_log_id = :smsLogId
+        WHERE appointment_id = :appointmentId AND type = :type
+    """, nativeQuery = true)
+    int bind(@Param("appointmentId") Long appointmentId,
+             @Param("type") String type,
+             @Param("smsLogId") Long smsLogId);
+
+    /** Geeft de sleutels vrij van definitief gefaalde SMS (nieuwe trigger mag opnieuw sturen). */
+    @Modifying
+    @Query(value = "DELETE FROM sms_send_keys WHERE sms_log_id IN (:smsLogIds)", nativeQuery = true)
+    int releaseForLogs(@Param("smsLogIds") Collection<Long> smsLogIds);
+}
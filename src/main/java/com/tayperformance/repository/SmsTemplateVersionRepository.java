@@ -0,0 +1,24 @@
+package com.tayperformance.repository;
+
+import com.tayperformance.entity.SmsTemplateVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface SmsTemplateVersionRepository extends JpaRepository<SmsTemplateVersion, Long> {
+
+    /** Registreert de template-tekst als die nog niet bestaat (ook correct bij gelijktijdige nodes). */
+    @Modifying
+    @Query(value = """
+        INSERT INTO sms_templates (source, source_hash, created_at)
+        VALUES (:source, :hash, now())
+        ON CONFLICT (source_hash) DO NOTHING
+    """, nativeQuery = true)
+    int insertIfAbsent(@Param("source") String source, @Param("hash") String hash);
+
+    @Query("select t.id from SmsTemplateVersion t where t.sourceHash = :hash")
+    Optional<Long> findIdByHash(@Param("hash") String hash);
+}
@@ -1,10 +1,14 @@
 package com.tayperformance.repository;
 
+import com.tayperformance.entity.Role;
 import com.tayperformance.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -16,4 +20,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Page<User> findAllByOrderByCreatedAtDesc(Pageable pageable);
 
     Page<User> findByUsernameContainingIgnoreCaseOrderByCreatedAtDesc(String q, Pageable pageable);
+
+    // boekbare medewerkers (availability engine): ADMIN accounts tellen niet mee
+    @Query("SELECT u.id FROM User u WHERE u.active = true AND u.role = :role ORDER BY u.id")
+    List<Long> findActiveIdsByRole(@Param("role") Role role);
 }
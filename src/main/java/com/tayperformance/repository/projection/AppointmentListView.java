@@ -0,0 +1,32 @@
+package com.tayperformance.repository.projection;
+
+import com.tayperformance.entity.AppointmentStatus;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * Exact de kolommen die AppointmentResponse nodig heeft, in 1 statement
+ * (appointments JOIN customers). Geen lazy loading per rij.
+ */
+public interface AppointmentListView {
+    Long getId();
+
+    Long getCustomerId();
+    String getCustomerPhone();
+    String getCustomerFirstName();
+    String getCustomerLastName();
+
+    Long getAssignedStaffId();
+
+    String getCarBrand();
+    String getCarModel();
+    String getDescription();
+
+    OffsetDateTime getStartTime();
+    OffsetDateTime getEndTime();
+
+    BigDecimal getPrice();
+
+    AppointmentStatus getStatus();
+}
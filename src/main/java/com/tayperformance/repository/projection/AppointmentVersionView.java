@@ -0,0 +1,9 @@
+package com.tayperformance.repository.projection;
+
+/**
+ * Enkel de versies die de AppointmentResponse bepalen (afspraak + klant), voor ETags.
+ */
+public interface AppointmentVersionView {
+    Long getVersion();
+    Long getCustomerVersion();
+}
@@ -0,0 +1,9 @@
+package com.tayperformance.repository.projection;
+
+/**
+ * Actieve klant als mogelijke campagne-ontvanger (enkel wat de cursor nodig heeft).
+ */
+public interface CampaignRecipientView {
+    Long getId();
+    String getPhone();
+}
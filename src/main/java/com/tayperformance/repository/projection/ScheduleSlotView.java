@@ -0,0 +1,13 @@
+package com.tayperformance.repository.projection;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Minimale projectie van een geblokkeerd tijdslot (zonder entity-materialisatie).
+ */
+public interface ScheduleSlotView {
+    Long getId();
+    Long getStaffId();
+    OffsetDateTime getStartTime();
+    OffsetDateTime getEndTime();
+}
@@ -0,0 +1,15 @@
+package com.tayperformance.repository.projection;
+
+import com.tayperformance.entity.SmsStatus;
+import com.tayperformance.entity.SmsType;
+
+/**
+ * Minimale SmsLog info voor de outbox dispatcher (status van de eigen log bij reclaim/retry).
+ */
+public interface SmsLogKeyView {
+    Long getId();
+    Long getAppointmentId();
+    SmsType getType();
+    SmsStatus getStatus();
+    int getAttempts();
+}
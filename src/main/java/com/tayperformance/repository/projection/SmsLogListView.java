@@ -0,0 +1,29 @@
+package com.tayperformance.repository.projection;
+
+import com.tayperformance.entity.SmsStatus;
+import com.tayperformance.entity.SmsType;
+
+import java.time.OffsetDateTime;
+
+/**
+ * SmsLog zonder tekst (message_body / template_params) voor lijsten.
+ * De tekst komt enkel mee in de detail view (GET /api/internal/sms-logs/{id}).
+ */
+public interface SmsLogListView {
+    Long getId();
+    Long getAppointmentId();
+
+    SmsType getType();
+    SmsStatus getStatus();
+
+    String getToPhone();
+
+    OffsetDateTime getCreatedAt();
+    OffsetDateTime getSentAt();
+    OffsetDateTime getDeliveredAt();
+
+    int getAttempts();
+    OffsetDateTime getNextRetryAt();
+
+    Integer getSegmentCount();
+}
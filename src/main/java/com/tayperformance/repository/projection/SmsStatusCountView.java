@@ -0,0 +1,11 @@
+package com.tayperformance.repository.projection;
+
+import com.tayperformance.entity.SmsStatus;
+
+/**
+ * Aantal SmsLogs per status (voortgang van een campagne).
+ */
+public interface SmsStatusCountView {
+    SmsStatus getStatus();
+    long getCount();
+}
@@ -22,6 +22,10 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    /** SSE endpoint: EventSource stuurt geen headers, daar mag een stream ticket in ?ticket= */
+    public static final String STREAM_PATH = "/api/internal/appointments/stream";
+    public static final String TICKET_PARAM = "ticket";
+
     private final JwtProvider jwtProvider;
     private final UserDetailsService userDetailsService;
 
@@ -47,13 +51,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String header = request.getHeader(HttpHeaders.AUTHORIZATION);
-        if (header == null || !header.startsWith("Bearer ")) {
+        boolean ticket = false;
+        String token;
+        if (header != null && header.startsWith("Bearer ")) {
+            token = header.substring(7).trim();
+        } else if (isStreamRequest(request)) {
+            token = request.getParameter(TICKET_PARAM);
+            ticket = true;
+        } else {
             chain.doFilter(request, response);
             return;
         }
 
-        String token = header.substring(7).trim();
-        if (token.isEmpty()) {
+        if (token == null || token.isEmpty()) {
             chain.doFilter(request, response);
             return;
         }
@@ -67,7 +77,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
-            if (jwtProvider.isTokenValid(token, userDetails)) {
+            boolean valid = ticket
+                    ? jwtProvider.isStreamTicketValid(token, userDetails)
+                    : jwtProvider.isTokenValid(token, userDetails);
+            if (valid) {
                 var auth = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities()
                 );
@@ -88,4 +101,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         chain.doFilter(request, response);
     }
+
+    private static boolean isStreamRequest(HttpServletRequest request) {
+        return "GET".equalsIgnoreCase(request.getMethod()) && STREAM_PATH.equals(request.getServletPath());
+    }
 }
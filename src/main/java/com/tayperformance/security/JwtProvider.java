@@ -15,6 +15,13 @@ import java.util.Date;
 @Getter
 public class JwtProvider {
 
+    /**
+     * Stream tickets (SSE): EventSource kan geen Authorization header sturen, dus de token
+     * gaat in de URL. Daarom kortlevend en enkel geldig voor de stream (scope claim).
+     */
+    private static final String SCOPE_CLAIM = "scope";
+    private static final String STREAM_SCOPE = "stream";
+
     private final String secret;
     private final long expirationMs;
 
@@ -50,20 +57,38 @@ public class JwtProvider {
                 .compact();
     }
 
+    public String generateStreamTicket(String username, long ttlMs) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setSubject(username.toLowerCase())
+                .claim(SCOPE_CLAIM, STREAM_SCOPE)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + ttlMs))
+                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
     public String extractUsername(String token) {
         return parseClaims(token).getSubject();
     }
 
+    /** Gewone login token; een stream ticket wordt hier geweigerd. */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        String username = extractUsername(token);
-        return username != null
-                && username.equalsIgnoreCase(userDetails.getUsername())
-                && !isTokenExpired(token);
+        Claims claims = parseClaims(token);
+        return claims.get(SCOPE_CLAIM) == null && isValid(claims, userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        Date expiration = parseClaims(token).getExpiration();
-        return expiration.before(new Date());
+    /** Enkel een stream ticket (zie generateStreamTicket). */
+    public boolean isStreamTicketValid(String token, UserDetails userDetails) {
+        Claims claims = parseClaims(token);
+        return STREAM_SCOPE.equals(claims.get(SCOPE_CLAIM)) && isValid(claims, userDetails);
+    }
+
+    private static boolean isValid(Claims claims, UserDetails userDetails) {
+        String username = claims.getSubject();
+        return username != null
+                && username.equalsIgnoreCase(userDetails.getUsername())
+                && !claims.getExpiration().before(new Date());
     }
 
     private Claims parseClaims(String token) {
@@ -3,6 +3,7 @@ package com.tayperformance.service.appointment;
 import com.tayperformance.dto.appointment.AppointmentResponse;
 import com.tayperformance.dto.appointment.CreateAppointmentRequest;
 import com.tayperformance.dto.appointment.UpdateAppointmentRequest;
+import com.tayperformance.dto.common.CursorPage;
 import com.tayperformance.entity.*;
 import com.tayperformance.exception.BadRequestException;
 import com.tayperformance.exception.NotFoundException;
@@ -10,18 +11,30 @@ import com.tayperformance.mapper.AppointmentMapper;
 import com.tayperformance.repository.AppointmentRepository;
 import com.tayperformance.repository.SmsLogRepository;
 import com.tayperformance.repository.UserRepository;
+import com.tayperformance.repository.projection.AppointmentListView;
+import com.tayperformance.repository.projection.AppointmentVersionView;
+import com.tayperformance.service.appointment.core.AppointmentChangeNotifier;
 import com.tayperformance.service.appointment.core.AppointmentConflictChecker;
 import com.tayperformance.service.appointment.core.AppointmentSmsScheduler;
+import com.tayperformance.service.appointment.core.AppointmentSnapshot;
 import com.tayperformance.service.appointment.core.AppointmentValidator;
 import com.tayperformance.service.customer.CustomerService;
+import com.tayperformance.util.ETags;
+import com.tayperformance.util.KeysetCursor;
+import com.tayperformance.util.SearchPatterns;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 @Transactional
@@ -35,6 +48,7 @@ public class AppointmentService {
     private final AppointmentValidator validator;
     private final AppointmentConflictChecker conflictChecker;
     private final AppointmentSmsScheduler smsScheduler;
+    private final AppointmentChangeNotifier changeNotifier;
     private final CustomerService customerService;
     private final SmsLogRepository smsLogRepo;
 
@@ -64,6 +78,7 @@ public class AppointmentService {
                 .build();
 
         appt = appointmentRepo.save(appt);
+        changeNotifier.afterCommit(null, appt);
 
         // (optioneel) geen SMS bij REQUESTED, want nog niet bevestigd
         return AppointmentMapper.toResponse(appt);
@@ -111,9 +126,8 @@ public class AppointmentService {
                 .status(AppointmentStatus.CONFIRMED)
                 .build();
 
-        conflictChecker.ensureNoConflict(appt);
-
-        appt = appointmentRepo.save(appt);
+        appt = conflictChecker.saveChecked(appt);
+        changeNotifier.afterCommit(null, appt);
 
         // ✅ stuur confirm sms na commit
         smsScheduler.schedule(appt, SmsType.CONFIRM);
@@ -127,6 +141,7 @@ public class AppointmentService {
     public AppointmentResponse update(Long id, UpdateAppointmentRequest req) {
         Appointment appt = appointmentRepo.findById(id)
                 .orElseThrow(() -> new NotFoundException("Afspraak niet gevonden"));
+        AppointmentSnapshot before = AppointmentSnapshot.of(appt);
 
         validator.ensureModifiable(appt);
 
@@ -181,9 +196,8 @@ public class AppointmentService {
         if (req.getCarBrand() != null) appt.setCarBrand(req.getCarBrand());
         if (req.getCarModel() != null) appt.setCarModel(req.getCarModel());
 
-        if (needsConflictCheck) conflictChecker.ensureNoConflict(appt);
-
-        appt = appointmentRepo.save(appt);
+        appt = needsConflictCheck ? conflictChecker.saveChecked(appt) : appointmentRepo.save(appt);
+        changeNotifier.afterCommit(before, appt);
 
         if (needsSms) smsScheduler.schedule(appt, SmsType.UPDATE);
 
@@ -196,6 +210,7 @@ public class AppointmentService {
     public AppointmentResponse confirmRequest(Long id, UpdateAppointmentRequest req) {
         Appointment appt = appointmentRepo.findById(id)
                 .orElseThrow(() -> new NotFoundException("Afspraak niet gevonden"));
+        AppointmentSnapshot before = AppointmentSnapshot.of(appt);
 
         if (appt.getStatus() != AppointmentStatus.REQUESTED) {
             throw new BadRequestException("Alleen REQUESTED afspraken kunnen bevestigd worden");
@@ -215,9 +230,8 @@ public class AppointmentService {
         appt.setEndTime(appt.getStartTime().plusMinutes(req.getDurationMinutes()));
         appt.setStatus(AppointmentStatus.CONFIRMED);
 
-        conflictChecker.ensureNoConflict(appt);
-
-        appt = appointmentRepo.save(appt);
+        appt = conflictChecker.saveChecked(appt);
+        changeNotifier.afterCommit(before, appt);
         smsScheduler.schedule(appt, SmsType.CONFIRM);
 
         return AppointmentMapper.toResponse(appt);
@@ -229,6 +243,7 @@ public class AppointmentService {
     public AppointmentResponse cancel(Long id, String reason) {
         Appointment appt = appointmentRepo.findById(id)
                 .orElseThrow(() -> new NotFoundException("Afspraak niet gevonden"));
+        AppointmentSnapshot before = AppointmentSnapshot.of(appt);
 
         if (appt.getStatus() == AppointmentStatus.CANCELED) {
             throw new BadRequestException("Afspraak is al geannuleerd");
@@ -245,6 +260,7 @@ public class AppointmentService {
         }
 
         appt = appointmentRepo.save(appt);
+        changeNotifier.afterCommit(before, appt);
         smsScheduler.schedule(appt, SmsType.CANCEL);
 
         return AppointmentMapper.toResponse(appt);
@@ -260,9 +276,11 @@ public class AppointmentService {
     private AppointmentResponse transitionStatus(Long id, AppointmentStatus newStatus) {
         Appointment appt = appointmentRepo.findById(id)
                 .orElseThrow(() -> new NotFoundException("Afspraak niet gevonden"));
+        AppointmentSnapshot before = AppointmentSnapshot.of(appt);
 
         appt.setStatus(newStatus);
         appt = appointmentRepo.save(appt);
+        changeNotifier.afterCommit(before, appt);
 
         return AppointmentMapper.toResponse(appt);
     }
@@ -277,20 +295,25 @@ public class AppointmentService {
         return AppointmentMapper.toResponse(appt);
     }
 
+    /** ETag uit afspraak- + klantversie (1 lichte query, geen mapping). */
+    @Transactional(readOnly = true)
+    public String etag(Long id) {
+        AppointmentVersionView v = appointmentRepo.findVersionsById(id)
+                .orElseThrow(() -> new NotFoundException("Afspraak niet gevonden"));
+        return ETags.of("appt", id, v.getVersion(), v.getCustomerVersion());
+    }
+
     @Transactional(readOnly = true)
     public Page<AppointmentResponse> search(String q, java.time.LocalDate date, Pageable pageable) {
 
         String term = (q == null) ? "" : q.trim();
+        String pattern = SearchPatterns.contains(term);
+        String digits = SearchPatterns.phoneDigits(term);
 
         // ✅ GEEN date-filter -> gebruik simpele query (geen null OffsetDateTime params)
         if (date == null) {
-            // optie A: altijd search()
-            Page<Appointment> page = appointmentRepo.search(term, pageable);
-            return page.map(AppointmentMapper::toResponse);
-
-            // optie B (sneller): als term leeg is, pak gewoon alles
-            // if (term.isBlank()) return appointmentRepo.findAllByOrderByStartTimeDesc(pageable).map(AppointmentMapper::toResponse);
-            // return appointmentRepo.search(term, pageable).map(AppointmentMapper::toResponse);
+            if (term.isBlank()) return appointmentRepo.listAll(pageable).map(AppointmentMapper::toResponse);
+            return appointmentRepo.search(pattern, digits, pageable).map(AppointmentMapper::toResponse);
         }
 
         // ✅ MET date-filter -> gebruik searchAdvanced met echte from/to
@@ -298,17 +321,57 @@ public class AppointmentService {
         java.time.OffsetDateTime from = date.atStartOfDay(zone).toOffsetDateTime();
         java.time.OffsetDateTime to = from.plusDays(1);
 
-        Page<Appointment> page = appointmentRepo.searchAdvanced(term, from, to, pageable);
-        return page.map(AppointmentMapper::toResponse);
+        return appointmentRepo.searchAdvanced(pattern, digits, from, to, pageable).map(AppointmentMapper::toResponse);
+    }
+
+
+    /**
+     * Keyset paginatie (start_time DESC, id DESC): constante latency, ook diep in de lijst.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AppointmentResponse> seek(String q, String cursor, int size) {
+        Limit limit = CursorPage.limit(size);
+        String pattern = SearchPatterns.contains(q);
+        String digits = SearchPatterns.phoneDigits(q);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        List<AppointmentListView> rows = (after == null)
+                ? appointmentRepo.seekFirst(pattern, digits, limit)
+                : appointmentRepo.seekAfter(pattern, digits, after.time(), after.id(), limit);
+
+        return CursorPage.of(rows, size, AppointmentMapper::toResponse,
+                v -> new KeysetCursor(v.getStartTime(), v.getId()));
     }
 
+    /**
+     * Full-text search op werknotities, best scorende match eerst (geen paginatie).
+     */
+    @Transactional(readOnly = true)
+    public List<AppointmentResponse> fullTextSearch(String q, int limit) {
+        if (q == null || q.isBlank()) throw new BadRequestException("q is verplicht");
+        if (limit < 1 || limit > 100) throw new BadRequestException("limit moet tussen 1 en 100 zijn");
+
+        List<Long> ids = appointmentRepo.fullTextSearchIds(q.trim(), limit);
+        if (ids.isEmpty()) return List.of();
+
+        // rangorde van de full-text query behouden
+        Map<Long, AppointmentListView> byId = new HashMap<>();
+        for (AppointmentListView v : appointmentRepo.findListViewsByIdIn(ids)) byId.put(v.getId(), v);
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(AppointmentMapper::toResponse)
+                .toList();
+    }
 
     public void delete(Long id) {
         Appointment appt = appointmentRepo.findById(id)
                 .orElseThrow(() -> new NotFoundException("Afspraak niet gevonden"));
+        AppointmentSnapshot before = AppointmentSnapshot.of(appt);
 
         smsLogRepo.deleteByAppointment_Id(id); // ✅ eerst logs weg
         appointmentRepo.delete(appt);          // ✅ dan afspraak weg
+        changeNotifier.afterCommit(before, null);
     }
 
 }
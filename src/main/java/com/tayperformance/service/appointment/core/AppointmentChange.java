@@ -0,0 +1,20 @@
+package com.tayperformance.service.appointment.core;
+
+/**
+ * Gecommitte wijziging van een afspraak.
+ * before == null => nieuw, after == null => verwijderd.
+ */
+public record AppointmentChange(AppointmentSnapshot before, AppointmentSnapshot after) {
+
+    public Long id() {
+        return after != null ? after.id() : before.id();
+    }
+
+    public boolean isCreated() {
+        return before == null;
+    }
+
+    public boolean isDeleted() {
+        return after == null;
+    }
+}
@@ -0,0 +1,8 @@
+package com.tayperformance.service.appointment.core;
+
+/**
+ * Wordt aangeroepen nadat een wijziging aan een afspraak gecommit is.
+ */
+public interface AppointmentChangeListener {
+    void onAppointmentChanged(AppointmentChange change);
+}
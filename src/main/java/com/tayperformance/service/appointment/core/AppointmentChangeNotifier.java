@@ -0,0 +1,50 @@
+package com.tayperformance.service.appointment.core;
+
+import com.tayperformance.entity.Appointment;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Verdeelt afspraak-wijzigingen over alle {@link AppointmentChangeListener}s,
+ * pas nadat de transactie gecommit is (zelfde patroon als AppointmentSmsScheduler).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AppointmentChangeNotifier {
+
+    private final List<AppointmentChangeListener> listeners;
+
+    /**
+     * @param before snapshot vóór de wijziging (null bij aanmaak)
+     * @param appt   de afspraak na de wijziging (null bij verwijderen); wordt pas bij commit uitgelezen
+     */
+    public void afterCommit(AppointmentSnapshot before, Appointment appt) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(new AppointmentChange(before, AppointmentSnapshot.of(appt)));
+                }
+            });
+        } else {
+            publish(new AppointmentChange(before, AppointmentSnapshot.of(appt)));
+        }
+    }
+
+    private void publish(AppointmentChange change) {
+        for (AppointmentChangeListener l : listeners) {
+            try {
+                l.onAppointmentChanged(change);
+            } catch (Exception e) {
+                // één listener mag de andere niet blokkeren
+                log.warn("Appointment change listener {} failed appt={}", l.getClass().getSimpleName(), change.id(), e);
+            }
+        }
+    }
+}
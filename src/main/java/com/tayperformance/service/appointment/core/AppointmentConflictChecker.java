@@ -5,25 +5,38 @@ import com.tayperformance.entity.AppointmentStatus;
 import com.tayperformance.exception.ConflictException;
 import com.tayperformance.repository.AppointmentRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.sql.SQLException;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class AppointmentConflictChecker {
 
-    private static final List<AppointmentStatus> BLOCKING_STATUSES =
+    public static final List<AppointmentStatus> BLOCKING_STATUSES =
             List.of(AppointmentStatus.CONFIRMED, AppointmentStatus.IN_PROGRESS);
 
+    private static final String OVERLAP_CONSTRAINT = "no_overlapping_per_staff";
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final AppointmentRepository repo;
+    private final StaffScheduleIndex scheduleIndex;
+
+    @Value("${tay.appointments.booking-mode:CONSTRAINT}")
+    private BookingMode bookingMode;
 
     public void ensureNoConflict(Appointment appt) {
         if (appt.getAssignedStaff() == null) return;
 
+        Long staffId = appt.getAssignedStaff().getId();
+
+        // DB beslist
         List<Appointment> conflicts = repo.findConflicting(
                 BLOCKING_STATUSES,
-                appt.getAssignedStaff().getId(),
+                staffId,
                 appt.getStartTime(),
                 appt.getEndTime(),
                 appt.getId()
@@ -33,4 +46,50 @@ public class AppointmentConflictChecker {
             throw ConflictException.appointmentOverlap(c.getId(), c.getStartTime(), c.getCarBrand());
         });
     }
+
+    /**
+     * Slaat een afspraak op die een tijdslot bij een medewerker claimt.
+     *
+     * CHECK_THEN_INSERT: eerst ensureNoConflict (altijd een DB-query), dan schrijven.
+     * CONSTRAINT: direct schrijven; de exclusion constraint vangt elke overlap, ook bij
+     * gelijktijdige boekingen. Enkel in deze mode wordt StaffScheduleIndex gebruikt: een
+     * treffer weigert vooraf met de details van de bestaande afspraak (in plaats van de
+     * kale constraint-fout). Dat is een betere foutmelding, geen snelheidswinst.
+     *
+     * In beide modes wordt een exclusion-violation vertaald naar een ConflictException.
+     */
+    public Appointment saveChecked(Appointment appt) {
+        if (bookingMode == BookingMode.CHECK_THEN_INSERT) {
+            ensureNoConflict(appt);
+        } else if (appt.getAssignedStaff() != null
+                && scheduleIndex.isReady()
+                && scheduleIndex.findConflict(appt.getAssignedStaff().getId(),
+                        appt.getStartTime(), appt.getEndTime(), appt.getId()).isPresent()) {
+            // index weet al dat het botst: details ophalen voor een duidelijke fout
+            // (vindt de DB niets, dan was de index verouderd en schrijven we gewoon)
+            ensureNoConflict(appt);
+        }
+
+        try {
+            return repo.saveAndFlush(appt);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw ConflictException.staffOverlap(
+                        appt.getAssignedStaff().getId(), appt.getStartTime(), appt.getEndTime());
+            }
+            throw e;
+        }
+    }
+
+    private boolean isOverlapViolation(Throwable t) {
+        for (Throwable c = t; c != null && c.getCause() != c; c = c.getCause()) {
+            if (c instanceof SQLException sql
+                    && EXCLUSION_VIOLATION.equals(sql.getSQLState())
+                    && sql.getMessage() != null
+                    && sql.getMessage().contains(OVERLAP_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
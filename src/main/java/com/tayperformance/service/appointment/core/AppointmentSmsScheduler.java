@@ -1,41 +1,37 @@
 package com.tayperformance.service.appointment.core;
 
 import com.tayperformance.entity.Appointment;
+import com.tayperformance.entity.SmsOutbox;
 import com.tayperformance.entity.SmsType;
-import com.tayperformance.service.sms.SmsService;
+import com.tayperformance.repository.SmsOutboxRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.support.TransactionSynchronization;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class AppointmentSmsScheduler {
 
-    private final SmsService smsService;
+    private final SmsOutboxRepository outboxRepo;
 
-    public void schedule(Appointment appt, SmsType type) {
+    @Value("${tay.sms.enabled:false}")
+    private boolean smsEnabled;
 
-        // ✅ verstuur pas nadat de transactie committed is
-        if (TransactionSynchronizationManager.isSynchronizationActive()) {
-            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-                @Override
-                public void afterCommit() {
-                    sendNow(appt, type);
-                }
-            });
-        } else {
-            // fallback (zou zelden gebeuren)
-            sendNow(appt, type);
+    /**
+     * Zet de SMS in de outbox, in dezelfde transactie als de boeking:
+     * rollback => geen SMS, commit => SMS gegarandeerd in de wachtrij (SmsOutboxDispatcher).
+     */
+    public void schedule(Appointment appt, SmsType type) {
+        if (!smsEnabled) {
+            log.info("SMS disabled, skip {} appt={}", type, appt.getId());
+            return;
         }
-    }
 
-    private void sendNow(Appointment appt, SmsType type) {
-        switch (type) {
-            case CONFIRM -> smsService.sendConfirmation(appt);
-            case UPDATE -> smsService.sendUpdate(appt);
-            case CANCEL -> smsService.sendCancellation(appt);
-            case REMINDER -> smsService.sendReminder(appt);
-        }
+        outboxRepo.save(SmsOutbox.builder()
+                .appointment(appt)
+                .type(type)
+                .build());
     }
 }
@@ -0,0 +1,34 @@
+package com.tayperformance.service.appointment.core;
+
+import com.tayperformance.entity.Appointment;
+import com.tayperformance.entity.AppointmentStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Onveranderlijke momentopname van de planning-velden van een afspraak.
+ * Wordt vóór een wijziging genomen zodat listeners ook de oude toestand kennen.
+ */
+public record AppointmentSnapshot(
+        Long id,
+        Long staffId,
+        OffsetDateTime startTime,
+        OffsetDateTime endTime,
+        AppointmentStatus status
+) {
+
+    public static AppointmentSnapshot of(Appointment a) {
+        if (a == null) return null;
+        return new AppointmentSnapshot(
+                a.getId(),
+                a.getAssignedStaff() != null ? a.getAssignedStaff().getId() : null,
+                a.getStartTime(),
+                a.getEndTime(),
+                a.getStatus()
+        );
+    }
+
+    public boolean isBlocking() {
+        return staffId != null && AppointmentConflictChecker.BLOCKING_STATUSES.contains(status);
+    }
+}
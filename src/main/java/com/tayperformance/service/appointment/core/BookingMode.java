@@ -0,0 +1,13 @@
+package com.tayperformance.service.appointment.core;
+
+/**
+ * Hoe dubbele boekingen per medewerker tegengehouden worden.
+ */
+public enum BookingMode {
+
+    /** SELECT op conflicten, daarna INSERT/UPDATE (race mogelijk tussen beide). */
+    CHECK_THEN_INSERT,
+
+    /** Default. Direct schrijven; de exclusion constraint no_overlapping_per_staff beslist. */
+    CONSTRAINT
+}
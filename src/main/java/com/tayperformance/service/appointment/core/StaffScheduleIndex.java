@@ -0,0 +1,263 @@
+package com.tayperformance.service.appointment.core;
+
+import com.tayperformance.repository.AppointmentRepository;
+import com.tayperformance.repository.projection.ScheduleSlotView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+/**
+ * In-memory planning per medewerker: gesorteerde epoch-seconden arrays van alle
+ * CONFIRMED/IN_PROGRESS afspraken.
+ *
+ * - Warm geladen bij startup, daarna bijgewerkt na elke commit (via AppointmentChangeNotifier).
+ * - Afgelopen afspraken (end < nu) vallen eruit bij elke wijziging van die medewerker en
+ *   periodiek voor alle medewerkers, zodat geheugen en kopieerkost niet blijven groeien.
+ * - Lezen is lock-free (immutable snapshot per medewerker), schrijven is gesynchroniseerd.
+ * - Enkel actief in booking-mode CONSTRAINT: daar weigert een treffer vooraf met de details
+ *   van de bestaande afspraak, in plaats van de kale exclusion-violation. "Geen overlap" zegt
+ *   niets; dan beslist de constraint. In CHECK_THEN_INSERT doet de DB-query al het werk en
+ *   zou de index pure overhead zijn, dus laden we hem dan niet.
+ * - Geen snelheidswinst voor de conflict-check zelf: ScheduleConflictBenchmark meet tegen
+ *   in-memory H2 en zegt niets over Postgres.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StaffScheduleIndex implements AppointmentChangeListener {
+
+    private final AppointmentRepository repo;
+
+    @Value("${tay.appointments.conflict-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tay.appointments.booking-mode:CONSTRAINT}")
+    private BookingMode bookingMode;
+
+    /** Hoe ver terug we afspraken laden (lopende afspraken blijven relevant). */
+    @Value("${tay.appointments.conflict-index.lookback-hours:24}")
+    private long lookbackHours;
+
+    private final Map<Long, Timeline> timelines = new ConcurrentHashMap<>();
+
+    /** appointmentId -> staffId, nodig om een afspraak bij een andere medewerker weg te halen. */
+    private final Map<Long, Long> owners = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    // -------------------------
+    // STARTUP
+    // -------------------------
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        if (!isActive()) {
+            log.info("Schedule index disabled (enabled={}, bookingMode={})", enabled, bookingMode);
+            return;
+        }
+
+        OffsetDateTime since = OffsetDateTime.now().minusHours(lookbackHours);
+        List<ScheduleSlotView> slots = repo.findBlockingSlotsEndingAfter(AppointmentConflictChecker.BLOCKING_STATUSES, since);
+
+        synchronized (this) {
+            timelines.clear();
+            owners.clear();
+            for (ScheduleSlotView s : slots) {
+                put(s.getId(), s.getStaffId(), s.getStartTime(), s.getEndTime());
+            }
+            ready = true;
+        }
+        log.info("Schedule index loaded slots={} staff={}", slots.size(), timelines.size());
+    }
+
+    public boolean isReady() {
+        return isActive() && ready;
+    }
+
+    private boolean isActive() {
+        return enabled && bookingMode == BookingMode.CONSTRAINT;
+    }
+
+    // -------------------------
+    // LOOKUP
+    // -------------------------
+
+    /**
+     * Zoekt een overlappende afspraak voor deze medewerker in [start, end).
+     * Geeft het id van de eerste gevonden conflict-afspraak terug.
+     */
+    public OptionalLong findConflict(Long staffId, OffsetDateTime start, OffsetDateTime end, Long excludeId) {
+        Timeline t = timelines.get(staffId);
+        if (t == null) return OptionalLong.empty();
+        return t.findOverlap(start.toEpochSecond(), end.toEpochSecond(), excludeId == null ? -1L : excludeId);
+    }
+
+    // -------------------------
+    // UPDATES (na commit)
+    // -------------------------
+    @Override
+    public synchronized void onAppointmentChanged(AppointmentChange change) {
+        if (!isActive()) return;
+
+        remove(change.id());
+
+        AppointmentSnapshot after = change.after();
+        if (after != null && after.isBlocking()) {
+            put(after.id(), after.staffId(), after.startTime(), after.endTime());
+        }
+    }
+
+    // -------------------------
+    // OPRUIMEN
+    // -------------------------
+    @Scheduled(fixedDelayString = "${tay.appointments.conflict-index.prune-ms:3600000}")
+    public synchronized void prune() {
+        if (!isReady()) return;
+        long now = OffsetDateTime.now().toEpochSecond();
+        for (Long staffId : List.copyOf(timelines.keySet())) prune(staffId, now);
+    }
+
+    private void prune(Long staffId, long now) {
+        Timeline t = timelines.get(staffId);
+        if (t == null) return;
+        Timeline next = t.endedBefore(now, owners::remove);
+        if (next.isEmpty()) timelines.remove(staffId);
+        else if (next != t) timelines.put(staffId, next);
+    }
+
+    private void remove(Long appointmentId) {
+        Long staffId = owners.remove(appointmentId);
+        if (staffId == null) return;
+        timelines.computeIfPresent(staffId, (k, t) -> {
+            Timeline next = t.without(appointmentId);
+            return next.isEmpty() ? null : next;
+        });
+    }
+
+    private void put(Long id, Long staffId, OffsetDateTime start, OffsetDateTime end) {
+        if (ready) prune(staffId, OffsetDateTime.now().toEpochSecond());
+        owners.put(id, staffId);
+        timelines.merge(staffId,
+                Timeline.of(id, start.toEpochSecond(), end.toEpochSecond()),
+                (current, single) -> current.with(id, start.toEpochSecond(), end.toEpochSecond()));
+    }
+
+    // -------------------------
+    // Timeline (immutable)
+    // -------------------------
+
+    /**
+     * Gesorteerd op starttijd. maxDuration begrenst hoe ver we terug moeten scannen,
+     * zodat een lookup O(log n + k) blijft, ook als er (legacy) overlaps in de data zitten.
+     */
+    static final class Timeline {
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] ids;
+        private final long maxDuration;
+
+        private Timeline(long[] starts, long[] ends, long[] ids) {
+            this.starts = starts;
+            this.ends = ends;
+            this.ids = ids;
+            long max = 0;
+            for (int i = 0; i < starts.length; i++) max = Math.max(max, ends[i] - starts[i]);
+            this.maxDuration = max;
+        }
+
+        static Timeline of(long id, long start, long end) {
+            return new Timeline(new long[]{start}, new long[]{end}, new long[]{id});
+        }
+
+        boolean isEmpty() {
+            return ids.length == 0;
+        }
+
+        OptionalLong findOverlap(long start, long end, long excludeId) {
+            // eerste index met start >= end: alles daarvoor begint vóór het einde
+            int i = lowerBound(end);
+            long horizon = start - maxDuration;
+            for (int j = i - 1; j >= 0 && starts[j] >= horizon; j--) {
+                if (ends[j] > start && ids[j] != excludeId) return OptionalLong.of(ids[j]);
+            }
+            return OptionalLong.empty();
+        }
+
+        Timeline with(long id, long start, long end) {
+            int pos = lowerBound(start);
+            int n = ids.length;
+            long[] s = new long[n + 1], e = new long[n + 1], d = new long[n + 1];
+            System.arraycopy(starts, 0, s, 0, pos);
+            System.arraycopy(ends, 0, e, 0, pos);
+            System.arraycopy(ids, 0, d, 0, pos);
+            s[pos] = start;
+            e[pos] = end;
+            d[pos] = id;
+            System.arraycopy(starts, pos, s, pos + 1, n - pos);
+            System.arraycopy(ends, pos, e, pos + 1, n - pos);
+            System.arraycopy(ids, pos, d, pos + 1, n - pos);
+            return new Timeline(s, e, d);
+        }
+
+        Timeline without(long id) {
+            int idx = -1;
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) { idx = i; break; }
+            }
+            if (idx < 0) return this;
+
+            int n = ids.length;
+            long[] s = Arrays.copyOf(starts, n - 1), e = Arrays.copyOf(ends, n - 1), d = Arrays.copyOf(ids, n - 1);
+            System.arraycopy(starts, idx + 1, s, idx, n - idx - 1);
+            System.arraycopy(ends, idx + 1, e, idx, n - idx - 1);
+            System.arraycopy(ids, idx + 1, d, idx, n - idx - 1);
+            return new Timeline(s, e, d);
+        }
+
+        /**
+         * Zonder de afspraken die op of voor cutoff eindigen; removed krijgt hun ids.
+         * Geeft dezelfde instantie terug als er niets af moet.
+         */
+        Timeline endedBefore(long cutoff, LongConsumer removed) {
+            int keep = 0;
+            for (long e : ends) if (e > cutoff) keep++;
+            if (keep == ids.length) return this;
+
+            long[] s = new long[keep], e = new long[keep], d = new long[keep];
+            int j = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (ends[i] > cutoff) {
+                    s[j] = starts[i];
+                    e[j] = ends[i];
+                    d[j++] = ids[i];
+                } else {
+                    removed.accept(ids[i]);
+                }
+            }
+            return new Timeline(s, e, d);
+        }
+
+        private int lowerBound(long value) {
+            int lo = 0, hi = starts.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (starts[mid] < value) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+}
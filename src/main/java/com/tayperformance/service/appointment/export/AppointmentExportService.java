@@ -0,0 +1,171 @@
+package com.tayperformance.service.appointment.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tayperformance.entity.Customer;
+import com.tayperformance.exception.BadRequestException;
+import com.tayperformance.mapper.AppointmentMapper;
+import com.tayperformance.repository.AppointmentRepository;
+import com.tayperformance.repository.projection.AppointmentListView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Export van afspraken (boekhouding) als CSV of NDJSON.
+ *
+ * Rijen komen via een server-side cursor (fetchSize) uit Postgres en gaan
+ * rechtstreeks naar de response: geheugengebruik blijft vlak, ongeacht het aantal rijen.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AppointmentExportService {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Brussels");
+    private static final char SEP = ';'; // Excel FR/BE verwacht ;
+    private static final String FORMULA_START = "=+-@\t\r";
+
+    private final AppointmentRepository appointmentRepo;
+    private final ObjectMapper objectMapper;
+
+    @Value("${tay.export.max-days:366}")
+    private int maxDays;
+
+    public enum Format {
+        CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8)),
+        NDJSON("ndjson", MediaType.APPLICATION_NDJSON);
+
+        public final String extension;
+        public final MediaType mediaType;
+
+        Format(String extension, MediaType mediaType) {
+            this.extension = extension;
+            this.mediaType = mediaType;
+        }
+
+        public static Format parse(String value) {
+            if (value == null || value.isBlank()) return CSV;
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Onbekend export formaat: " + value + " (csv of ndjson)");
+            }
+        }
+    }
+
+    /** Vooraf valideren: eens de stream loopt kunnen we geen 400 meer sturen. */
+    public void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) throw new BadRequestException("from en to zijn verplicht");
+        if (to.isBefore(from)) throw new BadRequestException("to moet na from liggen");
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new BadRequestException("Periode mag maximaal " + maxDays + " dagen zijn");
+        }
+    }
+
+    /**
+     * Schrijft alle afspraken met startdatum in [from, to] (inclusief) naar out.
+     * De transactie blijft open zolang de stream loopt (nodig voor de cursor).
+     */
+    @Transactional(readOnly = true)
+    public long export(Format format, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        validateRange(from, to);
+
+        OffsetDateTime start = from.atStartOfDay(ZONE).toOffsetDateTime();
+        OffsetDateTime end = to.plusDays(1).atStartOfDay(ZONE).toOffsetDateTime();
+        long t0 = System.nanoTime();
+        long rows = 0;
+
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        try (Stream<AppointmentListView> stream = appointmentRepo.streamForExport(start, end)) {
+            if (format == Format.CSV) writeCsvHeader(w);
+
+            for (AppointmentListView v : (Iterable<AppointmentListView>) stream::iterator) {
+                if (format == Format.CSV) writeCsvRow(w, v);
+                else writeJsonLine(w, v);
+                rows++;
+            }
+        }
+        w.flush();
+
+        log.info("Appointment export format={} from={} to={} rows={} ms={}",
+                format, from, to, rows, (System.nanoTime() - t0) / 1_000_000);
+        return rows;
+    }
+
+    // -------------------------
+    // Writers
+    // -------------------------
+
+    private void writeJsonLine(Writer w, AppointmentListView v) throws IOException {
+        w.write(objectMapper.writeValueAsString(AppointmentMapper.toResponse(v)));
+        w.write('\n');
+    }
+
+    private void writeCsvHeader(Writer w) throws IOException {
+        w.write('\uFEFF'); // BOM zodat Excel UTF-8 herkent (accenten)
+        w.write("id;start;end;duration_minutes;status;customer;phone;car_brand;car_model;price;description\n");
+    }
+
+    private void writeCsvRow(Writer w, AppointmentListView v) throws IOException {
+        Long minutes = (v.getStartTime() != null && v.getEndTime() != null)
+                ? Duration.between(v.getStartTime(), v.getEndTime()).toMinutes()
+                : null;
+
+        csv(w, v.getId()); w.write(SEP);
+        csv(w, local(v.getStartTime())); w.write(SEP);
+        csv(w, local(v.getEndTime())); w.write(SEP);
+        csv(w, minutes); w.write(SEP);
+        csv(w, v.getStatus()); w.write(SEP);
+        text(w, Customer.displayName(v.getCustomerFirstName(), v.getCustomerLastName(), v.getCustomerPhone())); w.write(SEP);
+        text(w, v.getCustomerPhone()); w.write(SEP);
+        text(w, v.getCarBrand()); w.write(SEP);
+        text(w, v.getCarModel()); w.write(SEP);
+        csv(w, v.getPrice() == null ? null : v.getPrice().toPlainString()); w.write(SEP);
+        text(w, v.getDescription());
+        w.write('\n');
+    }
+
+    private static LocalDateTime local(OffsetDateTime t) {
+        return t == null ? null : t.atZoneSameInstant(ZONE).toLocalDateTime();
+    }
+
+    /**
+     * Vrije tekst (klant, telefoon, merk, notities): begint de cel met = + - @ (of tab / CR),
+     * dan voert Excel ze uit als formule. Prefix "'" zodat het tekst blijft ("+32..." incl.).
+     */
+    private static void text(Writer w, String value) throws IOException {
+        if (value != null && !value.isEmpty() && FORMULA_START.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        csv(w, value);
+    }
+
+    /** RFC 4180: quoten als er een scheidingsteken, quote of newline in zit. */
+    private static void csv(Writer w, Object value) throws IOException {
+        if (value == null) return;
+        String s = value.toString();
+
+        boolean quote = false;
+        for (int i = 0; i < s.length() && !quote; i++) {
+            char c = s.charAt(i);
+            quote = c == SEP || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            w.write(s);
+            return;
+        }
+        w.write('"');
+        w.write(s.replace("\"", "\"\""));
+        w.write('"');
+    }
+}
@@ -0,0 +1,249 @@
+package com.tayperformance.service.appointment.live;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tayperformance.dto.appointment.AppointmentEventResponse;
+import com.tayperformance.exception.ConflictException;
+import com.tayperformance.service.appointment.core.AppointmentChange;
+import com.tayperformance.service.appointment.core.AppointmentChangeListener;
+import com.tayperformance.service.appointment.core.AppointmentSnapshot;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live push van afspraak-wijzigingen naar de admin app (Server-Sent Events).
+ *
+ * - Gevoed door AppointmentChangeNotifier (na commit), dus enkel gecommitte data.
+ * - Geen thread per client: SseEmitters zijn async requests. Elk event wordt 1x
+ *   geserialiseerd en in een begrensde buffer per client gezet; een kleine pool sender-threads
+ *   leegt die buffers. Een trage client houdt zo hooguit 1 sender bezig en wordt
+ *   losgekoppeld zodra zijn buffer vol zit (de client verbindt opnieuw met een nieuw ticket).
+ * - Max maxClients verbindingen: een slot wordt atomair gereserveerd bij register en
+ *   vrijgegeven bij close, zodat gelijktijdige subscribes de limiet niet kunnen overschrijden.
+ * - Heartbeat houdt proxies/load balancers open en ruimt dode verbindingen op.
+ *
+ * Beperking: enkel events van deze node. Bij meerdere nodes ziet een client enkel de
+ * wijzigingen die via zijn eigen node gecommit werden (zie README, Live kalender).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AppointmentEventBroadcaster implements AppointmentChangeListener {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${tay.live.max-clients:200}")
+    private int maxClients;
+
+    @Value("${tay.live.emitter-timeout-minutes:30}")
+    private long emitterTimeoutMinutes;
+
+    /** Events die per client mogen wachten; daarboven wordt de client losgekoppeld. */
+    @Value("${tay.live.client-buffer:64}")
+    private int clientBuffer;
+
+    @Value("${tay.live.sender-threads:4}")
+    private int senderThreads;
+
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+    /** Gereserveerde slots (incl. clients die nog geregistreerd worden). */
+    private final AtomicInteger connected = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ExecutorService sender;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger n = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread t = new Thread(r, "appointment-sse-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // -------------------------
+    // SUBSCRIBE
+    // -------------------------
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMinutes * 60_000);
+        Client client = register(emitter);
+        try {
+            // meteen iets sturen zodat de client weet dat de stream open is
+            emitter.send(SseEmitter.event().comment("connected").reconnectTime(5_000));
+        } catch (IOException e) {
+            close(client);
+        }
+        return emitter;
+    }
+
+    Client register(SseEmitter emitter) {
+        reserveSlot();
+        Client client = new Client(emitter, new ArrayBlockingQueue<>(clientBuffer));
+        emitter.onCompletion(() -> close(client));
+        emitter.onTimeout(() -> close(client));
+        emitter.onError(e -> close(client));
+        clients.add(client);
+        return client;
+    }
+
+    public int clientCount() {
+        return connected.get();
+    }
+
+    /** Check en reservatie in 1 stap: twee gelijktijdige subscribes kunnen niet allebei het laatste slot nemen. */
+    private void reserveSlot() {
+        int current;
+        do {
+            current = connected.get();
+            if (current >= maxClients) {
+                throw new ConflictException("LIVE_CLIENT_LIMIT",
+                        "Te veel live verbindingen, probeer later opnieuw", Map.of("maxClients", maxClients));
+            }
+        } while (!connected.compareAndSet(current, current + 1));
+    }
+
+    // -------------------------
+    // PUBLISH (na commit)
+    // -------------------------
+    @Override
+    public void onAppointmentChanged(AppointmentChange change) {
+        if (clients.isEmpty()) return;
+
+        AppointmentEventResponse event = toEvent(change);
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event); // 1x, niet per client
+        } catch (JsonProcessingException e) {
+            log.warn("SSE event serialisatie mislukt appt={}", event.getId(), e);
+            return;
+        }
+
+        // commit-thread wacht niet op clients: enkel in de buffers zetten
+        publish(SseEmitter.event()
+                .id(Long.toString(sequence.incrementAndGet()))
+                .name("appointment")
+                .data(json, MediaType.APPLICATION_JSON)
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${tay.live.heartbeat-ms:25000}")
+    public void heartbeat() {
+        if (clients.isEmpty()) return;
+        publish(SseEmitter.event().comment("ping").build());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+        for (Client c : clients) {
+            c.closed = true;
+            c.complete();
+        }
+        clients.clear();
+        connected.set(0);
+    }
+
+    // -------------------------
+    // Per client buffer
+    // -------------------------
+
+    /** Frame is 1x gebouwd en wordt door alle clients gedeeld (niet meer wijzigen). */
+    private void publish(Set<DataWithMediaType> frame) {
+        for (Client c : clients) {
+            if (c.closed) continue;
+            if (c.buffer.offer(frame)) {
+                schedule(c);
+            } else {
+                // niet hier afsluiten: complete() wacht op een lopende (trage) send
+                log.info("SSE client te traag, buffer vol ({}): verbinding gesloten", clientBuffer);
+                close(c);
+                schedule(c);
+            }
+        }
+    }
+
+    private void schedule(Client c) {
+        if (!c.draining.compareAndSet(false, true)) return;
+        try {
+            sender.execute(() -> drain(c));
+        } catch (RejectedExecutionException e) {
+            c.draining.set(false); // afsluiten
+        }
+    }
+
+    private void drain(Client c) {
+        try {
+            Set<DataWithMediaType> frame;
+            while (!c.closed && (frame = c.buffer.poll()) != null) {
+                c.emitter.send(frame);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // client weg: opruimen, anderen gewoon verder bedienen
+            close(c);
+        } finally {
+            c.draining.set(false);
+        }
+        if (c.closed) c.complete();
+        else if (!c.buffer.isEmpty()) schedule(c); // event toegevoegd net na de laatste poll
+    }
+
+    private void close(Client c) {
+        c.closed = true;
+        c.buffer.clear();
+        if (clients.remove(c)) connected.decrementAndGet(); // close kan meermaals komen
+    }
+
+    private static AppointmentEventResponse toEvent(AppointmentChange change) {
+        AppointmentSnapshot s = change.isDeleted() ? change.before() : change.after();
+        String type = change.isCreated() ? "CREATED" : change.isDeleted() ? "DELETED" : "UPDATED";
+
+        return AppointmentEventResponse.builder()
+                .type(type)
+                .id(s.id())
+                .status(s.status())
+                .assignedStaffId(s.staffId())
+                .startTime(s.startTime())
+                .endTime(s.endTime())
+                .build();
+    }
+
+    static final class Client {
+        final SseEmitter emitter;
+        final BlockingQueue<Set<DataWithMediaType>> buffer;
+        final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        volatile boolean closed;
+
+        Client(SseEmitter emitter, BlockingQueue<Set<DataWithMediaType>> buffer) {
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+
+        void complete() {
+            if (!completed.compareAndSet(false, true)) return;
+            try {
+                emitter.complete();
+            } catch (RuntimeException e) {
+                // verbinding al weg
+            }
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.tayperformance.service.availability;
+
+import com.tayperformance.config.GarageProperties;
+import com.tayperformance.dto.availability.AvailabilitySlotResponse;
+import com.tayperformance.entity.DetailService;
+import com.tayperformance.entity.Role;
+import com.tayperformance.exception.BadRequestException;
+import com.tayperformance.exception.NotFoundException;
+import com.tayperformance.repository.AppointmentRepository;
+import com.tayperformance.repository.DetailServiceRepository;
+import com.tayperformance.repository.UserRepository;
+import com.tayperformance.repository.projection.ScheduleSlotView;
+import com.tayperformance.service.appointment.core.AppointmentChange;
+import com.tayperformance.service.appointment.core.AppointmentChangeListener;
+import com.tayperformance.service.appointment.core.AppointmentConflictChecker;
+import com.tayperformance.service.appointment.core.AppointmentSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Vrije-slot engine voor de publieke booking flow.
+ *
+ * Per medewerker per dag houden we een bitmap bij (1 bit per slot van slotMinutes,
+ * bit gezet = bezet). Een dienst van N slots past op positie i als bits [i, i+N) vrij zijn.
+ *
+ * Enkel actieve STAFF accounts tellen als medewerker (ADMIN accounts zijn niet boekbaar).
+ *
+ * Bitmaps worden gecached per medewerker-dag en ongeldig gemaakt na elke
+ * gecommitte afspraak-wijziging, zodat een kalender-render Postgres niet raakt.
+ *
+ * Die invalidatie ziet enkel wijzigingen op deze node. Draaien er meerdere instances,
+ * dan blijft een dag hoogstens cache-ttl-seconds verouderd (zoals de staff-lijst):
+ * een slot kan dus even vrij lijken terwijl het al geboekt is. De conflict-check bij het
+ * boeken (AppointmentConflictChecker) weigert zo'n boeking alsnog met een conflict.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AvailabilityService implements AppointmentChangeListener {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Brussels");
+    private static final int MAX_CACHE_ENTRIES = 10_000;
+
+    private final AppointmentRepository appointmentRepo;
+    private final DetailServiceRepository serviceRepo;
+    private final UserRepository userRepo;
+    private final GarageProperties garage;
+
+    @Value("${tay.availability.slot-minutes:15}")
+    private int slotMinutes;
+
+    @Value("${tay.availability.max-days:31}")
+    private int maxDays;
+
+    /** Slots die binnen deze marge starten bieden we niet meer aan. */
+    @Value("${tay.availability.min-lead-minutes:60}")
+    private int minLeadMinutes;
+
+    @Value("${tay.availability.staff-ttl-seconds:300}")
+    private long staffTtlSeconds;
+
+    /** Maximale leeftijd van een gecachte medewerker-dag (wijzigingen op andere nodes). */
+    @Value("${tay.availability.cache-ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    private final Map<StaffDay, CachedDay> cache = new ConcurrentHashMap<>();
+
+    /** Verhoogd bij elke invalidatie; voorkomt dat een trage load verouderde data cachet. */
+    private long generation;
+
+    private volatile List<Long> staffIds = List.of();
+    private volatile Instant staffLoadedAt = Instant.EPOCH;
+
+    // -------------------------
+    // QUERY
+    // -------------------------
+    @Transactional(readOnly = true)
+    public List<AvailabilitySlotResponse> findFreeSlots(Long serviceId, LocalDate from, LocalDate to) {
+        DetailService service = serviceRepo.findById(serviceId)
+                .filter(DetailService::isActive)
+                .orElseThrow(() -> NotFoundException.of("DetailService", serviceId));
+
+        LocalDate today = LocalDate.now(ZONE);
+        if (from == null || to == null) throw new BadRequestException("from en to zijn verplicht");
+        if (to.isBefore(from)) throw new BadRequestException("to moet na from liggen");
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new BadRequestException("Periode mag maximaal " + maxDays + " dagen zijn");
+        }
+        if (to.isBefore(today)) return List.of();
+        if (from.isBefore(today)) from = today;
+
+        int slotsPerDay = slotsPerDay();
+        int needed = (service.getDefaultMinutes() + slotMinutes - 1) / slotMinutes;
+        if (slotsPerDay <= 0 || needed > slotsPerDay) return List.of();
+
+        List<LocalDate> days = from.datesUntil(to.plusDays(1))
+                .filter(d -> garage.getOpenDays().contains(d.getDayOfWeek()))
+                .toList();
+        List<Long> staff = activeStaff();
+        if (days.isEmpty() || staff.isEmpty()) return List.of();
+
+        Map<StaffDay, BitSet> busy = loadBusy(staff, days, slotsPerDay);
+        OffsetDateTime earliest = OffsetDateTime.now(ZONE).plusMinutes(minLeadMinutes);
+
+        List<AvailabilitySlotResponse> result = new ArrayList<>();
+        for (LocalDate day : days) {
+            int[] freeStaff = new int[slotsPerDay];
+
+            // sweep over vrije runs per medewerker
+            for (Long staffId : staff) {
+                BitSet b = busy.get(new StaffDay(staffId, day));
+                int i = b.nextClearBit(0);
+                while (i < slotsPerDay) {
+                    int j = b.nextSetBit(i);
+                    if (j < 0 || j > slotsPerDay) j = slotsPerDay;
+                    for (int k = i; k + needed <= j; k++) freeStaff[k]++;
+                    i = b.nextClearBit(j);
+                }
+            }
+
+            OffsetDateTime open = dayOpen(day);
+            for (int i = 0; i < slotsPerDay; i++) {
+                if (freeStaff[i] == 0) continue;
+                OffsetDateTime start = open.plusMinutes((long) i * slotMinutes);
+                if (start.isBefore(earliest)) continue;
+                result.add(AvailabilitySlotResponse.builder()
+                        .startTime(start)
+                        .endTime(start.plusMinutes(service.getDefaultMinutes()))
+                        .availableStaff(freeStaff[i])
+                        .build());
+            }
+        }
+        return result;
+    }
+
+    // -------------------------
+    // CACHE
+    // -------------------------
+
+    private Map<StaffDay, BitSet> loadBusy(List<Long> staff, List<LocalDate> days, int slotsPerDay) {
+        Map<StaffDay, BitSet> result = new HashMap<>();
+        Map<StaffDay, BitSet> missing = new HashMap<>();
+        Instant now = Instant.now();
+
+        for (LocalDate day : days) {
+            for (Long staffId : staff) {
+                StaffDay key = new StaffDay(staffId, day);
+                CachedDay cached = cache.get(key);
+                if (cached != null && now.isBefore(cached.expiresAt())) result.put(key, cached.busy());
+                else missing.put(key, new BitSet(slotsPerDay));
+            }
+        }
+        if (missing.isEmpty()) return result;
+
+        long gen;
+        synchronized (this) {
+            gen = generation;
+        }
+
+        // 1 query voor alle ontbrekende medewerker-dagen
+        LocalDate first = missing.keySet().stream().map(StaffDay::day).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate last = missing.keySet().stream().map(StaffDay::day).max(Comparator.naturalOrder()).orElseThrow();
+        List<ScheduleSlotView> slots = appointmentRepo.findBlockingSlotsBetween(
+                AppointmentConflictChecker.BLOCKING_STATUSES, dayOpen(first), dayOpen(last).plusMinutes(openMinutes()));
+
+        for (ScheduleSlotView s : slots) {
+            for (LocalDate day : daysSpanned(s.getStartTime(), s.getEndTime())) {
+                BitSet b = missing.get(new StaffDay(s.getStaffId(), day));
+                if (b != null) mark(b, day, s.getStartTime(), s.getEndTime(), slotsPerDay);
+            }
+        }
+        result.putAll(missing);
+
+        synchronized (this) {
+            if (generation == gen) {
+                if (cache.size() + missing.size() > MAX_CACHE_ENTRIES) evict(now);
+                Instant expiresAt = now.plusSeconds(cacheTtlSeconds);
+                missing.forEach((key, busy) -> cache.put(key, new CachedDay(busy, expiresAt)));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void onAppointmentChanged(AppointmentChange change) {
+        invalidate(change.before());
+        invalidate(change.after());
+    }
+
+    private synchronized void invalidate(AppointmentSnapshot s) {
+        if (s == null || !s.isBlocking()) return;
+        generation++;
+        for (LocalDate day : daysSpanned(s.startTime(), s.endTime())) {
+            cache.remove(new StaffDay(s.staffId(), day));
+        }
+    }
+
+    private void evict(Instant now) {
+        LocalDate today = LocalDate.now(ZONE);
+        cache.entrySet().removeIf(e -> e.getKey().day().isBefore(today) || !now.isBefore(e.getValue().expiresAt()));
+        if (cache.size() > MAX_CACHE_ENTRIES / 2) cache.clear();
+    }
+
+    private List<Long> activeStaff() {
+        if (Instant.now().isAfter(staffLoadedAt.plusSeconds(staffTtlSeconds))) {
+            staffIds = userRepo.findActiveIdsByRole(Role.STAFF);
+            staffLoadedAt = Instant.now();
+        }
+        return staffIds;
+    }
+
+    // -------------------------
+    // Helpers
+    // -------------------------
+
+    private void mark(BitSet b, LocalDate day, OffsetDateTime start, OffsetDateTime end, int slotsPerDay) {
+        OffsetDateTime open = dayOpen(day);
+        long fromMin = Duration.between(open, start).toMinutes();
+        long toMin = Duration.between(open, end).toMinutes();
+
+        int fromSlot = (int) Math.max(0, Math.floorDiv(fromMin, slotMinutes));
+        int toSlot = (int) Math.min(slotsPerDay, Math.floorDiv(toMin + slotMinutes - 1, slotMinutes));
+        if (fromSlot < toSlot) b.set(fromSlot, toSlot);
+    }
+
+    private List<LocalDate> daysSpanned(OffsetDateTime start, OffsetDateTime end) {
+        LocalDate first = start.atZoneSameInstant(ZONE).toLocalDate();
+        LocalDate last = end.minusNanos(1).atZoneSameInstant(ZONE).toLocalDate();
+        return first.datesUntil(last.plusDays(1)).toList();
+    }
+
+    private OffsetDateTime dayOpen(LocalDate day) {
+        return day.atTime(garage.getOpeningTime()).atZone(ZONE).toOffsetDateTime();
+    }
+
+    private int openMinutes() {
+        return (int) Duration.between(garage.getOpeningTime(), garage.getClosingTime()).toMinutes();
+    }
+
+    private int slotsPerDay() {
+        return openMinutes() / slotMinutes;
+    }
+
+    private record StaffDay(Long staffId, LocalDate day) {}
+
+    private record CachedDay(BitSet busy, Instant expiresAt) {}
+}
@@ -12,7 +12,9 @@ import com.tayperformance.mapper.AppointmentMapper;
 import com.tayperformance.mapper.CustomerMapper;
 import com.tayperformance.repository.AppointmentRepository;
 import com.tayperformance.repository.CustomerRepository;
+import com.tayperformance.util.ETags;
 import com.tayperformance.util.PhoneNumberHelper;
+import com.tayperformance.util.SearchPatterns;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -96,6 +98,14 @@ public class CustomerService {
         return CustomerMapper.toResponse(load(id));
     }
 
+    /** ETag uit de klantversie (versie-only query). */
+    @Transactional(readOnly = true)
+    public String etag(Long id) {
+        Long version = customerRepo.findVersionById(id)
+                .orElseThrow(() -> NotFoundException.of("Customer", id));
+        return ETags.of("cust", id, version);
+    }
+
     @Transactional(readOnly = true)
     public CustomerResponse getByPhone(String phone) {
         String normalized = normalizePhone(phone);
@@ -110,7 +120,7 @@ public class CustomerService {
             return customerRepo.findAllByActiveTrueOrderByFirstNameAsc(pageable)
                     .map(CustomerMapper::toResponse);
         }
-        return customerRepo.searchActive(q.trim(), pageable)
+        return customerRepo.searchActive(SearchPatterns.contains(q), SearchPatterns.phoneDigits(q), pageable)
                 .map(CustomerMapper::toResponse);
     }
 
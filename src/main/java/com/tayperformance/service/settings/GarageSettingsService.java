@@ -3,10 +3,17 @@ package com.tayperformance.service.settings;
 import com.tayperformance.dto.settings.GarageSettingsResponse;
 import com.tayperformance.dto.settings.UpdateGarageSettingsRequest;
 import com.tayperformance.entity.GarageSettings;
+import com.tayperformance.exception.BadRequestException;
 import com.tayperformance.repository.GarageSettingsRepository;
+import com.tayperformance.service.sms.template.SmsTemplate;
+import com.tayperformance.service.sms.template.SmsTemplateEngine;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
 
 @Service
 @RequiredArgsConstructor
@@ -15,6 +22,7 @@ public class GarageSettingsService {
     private static final long SETTINGS_ID = 1L;
 
     private final GarageSettingsRepository repo;
+    private final SmsTemplateEngine templateEngine;
 
     @Transactional(readOnly = true)
     public GarageSettingsResponse get() {
@@ -34,10 +42,37 @@ public class GarageSettingsService {
         s.setKvkNumber(req.kvkNumber() != null ? req.kvkNumber().trim() : null);
         s.setLogoUrl(req.logoUrl() != null ? req.logoUrl().trim() : null);
 
-        s.setTemplateConfirmation(req.templateConfirmation().trim());
-        s.setTemplateReady(req.templateReady().trim());
+        s.setTemplateConfirmation(validTemplate("templateConfirmation", req.templateConfirmation()));
+        s.setTemplateReady(validTemplate("templateReady", req.templateReady()));
+        s.setTemplateLanguage(req.templateLanguage() != null ? req.templateLanguage().toUpperCase(Locale.ROOT) : null);
+
+        GarageSettingsResponse response = toResponse(repo.save(s));
+        invalidateTemplatesAfterCommit();
+        return response;
+    }
+
+    /** Ongeldige placeholders meteen weigeren i.p.v. bij de eerste SMS. */
+    private static String validTemplate(String field, String template) {
+        String trimmed = template.trim();
+        try {
+            SmsTemplate.compile(trimmed);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(field + ": " + e.getMessage());
+        }
+        return trimmed;
+    }
 
-        return toResponse(repo.save(s));
+    private void invalidateTemplatesAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    templateEngine.invalidate();
+                }
+            });
+        } else {
+            templateEngine.invalidate();
+        }
     }
 
     private GarageSettingsResponse toResponse(GarageSettings s) {
@@ -50,6 +85,7 @@ public class GarageSettingsService {
                 .logoUrl(s.getLogoUrl())
                 .templateConfirmation(s.getTemplateConfirmation())
                 .templateReady(s.getTemplateReady())
+                .templateLanguage(s.getTemplateLanguage())
                 .updatedAt(s.getUpdatedAt())
                 .build();
     }
@@ -0,0 +1,52 @@
+package com.tayperformance.service.sms;
+
+import com.tayperformance.entity.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import com.tayperformance.service.sms.gateway.SmsGateway;
+import com.tayperformance.service.sms.gateway.SmsProviderGuard;
+import com.tayperformance.service.sms.gateway.SmsRateLimiter;
+import com.tayperformance.service.sms.template.SmsTemplate;
+import com.tayperformance.service.sms.template.SmsTemplateEngine;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DefaultSmsService implements SmsService {
+
+    private final SmsGateway gateway;
+    private final SmsRateLimiter rateLimiter;
+    private final SmsProviderGuard providerGuard;
+    private final SmsTemplateEngine templates;
+
+    /**
+     * Tekst komt uit de gecompileerde templates (GarageSettings + ingebouwde FR/NL teksten).
+     */
+    @Override
+    public String buildMessage(Appointment appointment, SmsType type) {
+        return templates.render(type, appointment);
+    }
+
+    @Override
+    public String buildCampaignMessage(SmsTemplate template, Customer customer) {
+        return templates.renderCampaign(template, customer);
+    }
+
+    // =========================
+    // Send (synchroon, aangeroepen door de outbox dispatcher)
+    // =========================
+
+    @Override
+    public String deliver(String toPhone, String body) {
+        try {
+            // boven de provider-limiet: wachten op onze beurt i.p.v. een 429 te krijgen
+            rateLimiter.acquire(gateway.senderKey());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("SMS send interrupted", e);
+        }
+        // bulkhead + circuit breaker: trage/falende provider houdt geen sender threads vast
+        return providerGuard.call(() -> gateway.send(toPhone, body));
+    }
+}
@@ -1,10 +1,26 @@
 package com.tayperformance.service.sms;
 
 import com.tayperformance.entity.Appointment;
+import com.tayperformance.entity.Customer;
+import com.tayperformance.entity.SmsType;
+import com.tayperformance.service.sms.template.SmsTemplate;
 
+/**
+ * Synchrone SMS API. Versturen gebeurt via de outbox (SmsOutboxDispatcher),
+ * niet rechtstreeks vanuit de boekingsflow.
+ */
 public interface SmsService {
-    void sendConfirmation(Appointment appointment);
-    void sendCancellation(Appointment appointment);
-    void sendUpdate(Appointment appointment);
-    void sendReminder(Appointment appointment);
+
+    /** Berichttekst voor dit type, in de ingestelde taal. */
+    String buildMessage(Appointment appointment, SmsType type);
+
+    /** Berichttekst van een campagne voor deze klant. */
+    String buildCampaignMessage(SmsTemplate template, Customer customer);
+
+    /**
+     * Verstuurt 1 bericht naar de provider (blokkerend).
+     * @return provider message id (bv. Twilio SID)
+     * @throws RuntimeException als de provider het bericht weigert of onbereikbaar is
+     */
+    String deliver(String toPhone, String body);
 }
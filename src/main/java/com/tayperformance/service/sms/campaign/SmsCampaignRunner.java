@@ -0,0 +1,41 @@
+package com.tayperformance.service.sms.campaign;
+
+import com.tayperformance.entity.SmsCampaignStatus;
+import com.tayperformance.repository.SmsCampaignRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Voedt lopende campagnes batch per batch aan de outbox (zie SmsCampaignStore).
+ * Meerdere nodes mogen tegelijk draaien: een campagne wordt per batch gelockt (SKIP LOCKED).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SmsCampaignRunner {
+
+    private final SmsCampaignRepository campaignRepo;
+    private final SmsCampaignStore store;
+
+    @Value("${tay.sms.enabled:false}")
+    private boolean smsEnabled;
+
+    @Scheduled(fixedDelayString = "${tay.sms.campaign.poll-ms:10000}")
+    public void poll() {
+        if (!smsEnabled) return;
+
+        for (Long id : campaignRepo.findIdsByStatus(SmsCampaignStatus.RUNNING)) {
+            try {
+                store.enqueueNext(id, OffsetDateTime.now());
+            } catch (Exception e) {
+                // volgende poll probeert opnieuw vanaf het bewaarde resume-punt
+                log.error("SMS campaign batch failed id={}", id, e);
+            }
+        }
+    }
+}
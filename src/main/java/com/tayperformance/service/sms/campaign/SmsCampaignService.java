@@ -0,0 +1,132 @@
+package com.tayperformance.service.sms.campaign;
+
+import com.tayperformance.dto.sms.CreateSmsCampaignRequest;
+import com.tayperformance.dto.sms.SmsCampaignResponse;
+import com.tayperformance.entity.SmsCampaign;
+import com.tayperformance.entity.SmsCampaignStatus;
+import com.tayperformance.exception.BadRequestException;
+import com.tayperformance.exception.ConflictException;
+import com.tayperformance.exception.NotFoundException;
+import com.tayperformance.mapper.SmsCampaignMapper;
+import com.tayperformance.repository.CustomerRepository;
+import com.tayperformance.repository.SmsCampaignRepository;
+import com.tayperformance.repository.SmsLogRepository;
+import com.tayperformance.repository.SmsOutboxRepository;
+import com.tayperformance.service.sms.SmsService;
+import com.tayperformance.service.sms.encoding.SmsEncoder;
+import com.tayperformance.service.sms.template.SmsTemplate;
+import com.tayperformance.service.sms.template.SmsTemplateEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SmsCampaignService {
+
+    private final SmsCampaignRepository campaignRepo;
+    private final CustomerRepository customerRepo;
+    private final SmsOutboxRepository outboxRepo;
+    private final SmsCampaignStore campaignStore;
+    private final SmsLogRepository smsLogRepo;
+    private final SmsService smsService;
+    private final SmsEncoder encoder;
+
+    // -------------------------
+    // CREATE
+    // -------------------------
+    @Transactional
+    public SmsCampaignResponse create(CreateSmsCampaignRequest req) {
+        SmsTemplate template;
+        try {
+            template = SmsTemplateEngine.compileCampaign(req.message());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+
+        // zonder klantnaam al te lang: elke SMS zou op het budget falen
+        SmsEncoder.Encoded sample = encoder.encode(smsService.buildCampaignMessage(template, null));
+        if (!sample.withinBudget()) {
+            throw new BadRequestException("Bericht is te lang: " + sample.segments().segments()
+                    + " segmenten, maximaal " + encoder.maxSegments());
+        }
+
+        OffsetDateTime now = OffsetDateTime.now();
+        SmsCampaign campaign = campaignRepo.save(SmsCampaign.builder()
+                .name(req.name().trim())
+                .message(req.message())
+                .totalCustomers((int) customerRepo.countByActiveTrue())
+                .nextSlotAt(now)
+                .build());
+
+        log.info("SMS campaign created id={} customers={}", campaign.getId(), campaign.getTotalCustomers());
+        return SmsCampaignMapper.toResponse(campaign);
+    }
+
+    // -------------------------
+    // QUERY
+    // -------------------------
+    @Transactional(readOnly = true)
+    public SmsCampaignResponse get(Long id) {
+        SmsCampaign campaign = campaignRepo.findById(id)
+                .orElseThrow(() -> NotFoundException.of("SmsCampaign", id));
+        return SmsCampaignMapper.toResponse(campaign,
+                smsLogRepo.countByStatusForCampaign(id),
+                outboxRepo.countOpenForCampaign(id));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<SmsCampaignResponse> list(Pageable pageable) {
+        return campaignRepo.findAllByOrderByCreatedAtDesc(pageable).map(SmsCampaignMapper::toResponse);
+    }
+
+    // -------------------------
+    // STATUS
+    // -------------------------
+    @Transactional
+    public SmsCampaignResponse pause(Long id) {
+        OffsetDateTime now = OffsetDateTime.now();
+        transition(id, EnumSet.of(SmsCampaignStatus.RUNNING), SmsCampaignStatus.PAUSED, null);
+        int held = outboxRepo.holdCampaign(id, now);
+        log.info("SMS campaign paused id={} held={}", id, held);
+        return get(id);
+    }
+
+    @Transactional
+    public SmsCampaignResponse resume(Long id) {
+        OffsetDateTime now = OffsetDateTime.now();
+        transition(id, EnumSet.of(SmsCampaignStatus.PAUSED), SmsCampaignStatus.RUNNING, null);
+        int released = campaignStore.releaseHeld(id, now);
+        log.info("SMS campaign resumed id={} released={}", id, released);
+        return get(id);
+    }
+
+    @Transactional
+    public SmsCampaignResponse cancel(Long id) {
+        OffsetDateTime now = OffsetDateTime.now();
+        transition(id, EnumSet.of(SmsCampaignStatus.RUNNING, SmsCampaignStatus.PAUSED), SmsCampaignStatus.CANCELED, now);
+        int dropped = outboxRepo.cancelCampaign(id, now);
+        log.info("SMS campaign canceled id={} dropped={}", id, dropped);
+        return get(id);
+    }
+
+    private void transition(Long id, Set<SmsCampaignStatus> from, SmsCampaignStatus to, OffsetDateTime finishedAt) {
+        if (campaignRepo.transition(id, from, to, finishedAt) > 0) return;
+
+        SmsCampaignStatus current = campaignRepo.findById(id)
+                .map(SmsCampaign::getStatus)
+                .orElseThrow(() -> NotFoundException.of("SmsCampaign", id));
+        throw new ConflictException("CAMPAIGN_STATE",
+                "Campagne staat op " + current + ", kan niet naar " + to,
+                Map.of("campaignId", id, "status", current.name()));
+    }
+}
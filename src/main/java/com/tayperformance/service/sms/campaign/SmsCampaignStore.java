@@ -0,0 +1,251 @@
+package com.tayperformance.service.sms.campaign;
+
+import com.tayperformance.entity.SmsCampaign;
+import com.tayperformance.entity.SmsCampaignStatus;
+import com.tayperformance.entity.SmsOutbox;
+import com.tayperformance.repository.CustomerRepository;
+import com.tayperformance.repository.SmsCampaignRepository;
+import com.tayperformance.repository.SmsOutboxRepository;
+import com.tayperformance.repository.projection.CampaignRecipientView;
+import com.tayperformance.service.sms.PhoneNormalizerFR;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.*;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Zet de volgende batch ontvangers van een campagne in de outbox (1 korte transactie per batch).
+ *
+ * - Ontvangers komen uit een server-side cursor over actieve klanten (id > lastCustomerId);
+ *   na een batch wordt de cursor gesloten en het resume-punt bewaard.
+ * - Dedupe per genormaliseerd nummer: INSERT ... ON CONFLICT DO NOTHING RETURNING phone op
+ *   sms_campaign_recipients (campagne, nummer), ook over batches en nodes heen.
+ * - Pacing: available_at loopt per rij op met 60s / messages-per-minute (nextSlotAt), zodat
+ *   afspraak-SMS tussen de campagne door blijven vertrekken. Versturen doet SmsOutboxDispatcher,
+ *   dus achter dezelfde rate limiter.
+ * - Slots vallen altijd tussen send-from en send-until (Europe/Brussels); een slot erbuiten
+ *   schuift door naar send-from (zelfde dag of de volgende), zoals de reminders.
+ *   Hervatte (HELD) rijen en retries krijgen via dezelfde slot-logica een nieuwe available_at.
+ * - Backlog: een nieuwe batch pas als er minder dan batch-size rijen openstaan
+ *   (pauze moet dus nooit meer dan een paar batches vasthouden).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SmsCampaignStore {
+
+    private static final Pattern E164 = Pattern.compile("^\\+[1-9]\\d{1,14}$");
+    private static final ZoneId ZONE = ZoneId.of("Europe/Brussels");
+
+    private final SmsCampaignRepository campaignRepo;
+    private final CustomerRepository customerRepo;
+    private final SmsOutboxRepository outboxRepo;
+    private final JdbcTemplate jdbc;
+
+    @Value("${tay.sms.campaign.batch-size:50}")
+    private int batchSize;
+
+    @Value("${tay.sms.campaign.messages-per-minute:30}")
+    private int messagesPerMinute;
+
+    @Value("${tay.sms.campaign.send-from:09:00}")
+    private LocalTime sendFrom;
+
+    @Value("${tay.sms.campaign.send-until:20:00}")
+    private LocalTime sendUntil;
+
+    /**
+     * @return aantal nieuw in de outbox gezette SMS
+     */
+    @Transactional
+    public int enqueueNext(Long campaignId, OffsetDateTime now) {
+        // niet (meer) RUNNING, of een andere node is met deze campagne bezig
+        if (campaignRepo.lockRunning(campaignId).isEmpty()) return 0;
+        SmsCampaign campaign = campaignRepo.findById(campaignId).orElseThrow();
+
+        long open = outboxRepo.countOpenForCampaign(campaignId);
+        if (campaign.isExhausted()) {
+            if (open == 0) {
+                campaign.setStatus(SmsCampaignStatus.COMPLETED);
+                campaign.setFinishedAt(now);
+                log.info("SMS campaign completed id={} enqueued={} duplicates={} skipped={}",
+                        campaignId, campaign.getEnqueued(), campaign.getDuplicates(), campaign.getSkipped());
+            }
+            return 0;
+        }
+        if (open >= batchSize) return 0; // dispatcher eerst laten bijbenen
+
+        // 1) volgende batch unieke nummers uit de cursor
+        Map<String, Long> batch = new LinkedHashMap<>(); // nummer -> klant
+        long last = campaign.getLastCustomerId();
+        int skipped = 0, duplicates = 0;
+        boolean exhausted = true;
+
+        try (Stream<CampaignRecipientView> stream = customerRepo.streamActiveAfter(last)) {
+            Iterator<CampaignRecipientView> it = stream.iterator();
+            while (it.hasNext()) {
+                if (batch.size() >= batchSize) {
+                    exhausted = false;
+                    break;
+                }
+                CampaignRecipientView v = it.next();
+                last = v.getId();
+
+                String phone = PhoneNormalizerFR.toE164(v.getPhone());
+                if (phone == null || !E164.matcher(phone).matches()) skipped++;
+                else if (batch.putIfAbsent(phone, v.getId()) != null) duplicates++;
+            }
+        }
+
+        // 2) dedupe over batches heen: enkel nummers die nog niet in de campagne zaten
+        List<Map.Entry<String, Long>> fresh = new ArrayList<>(batch.size());
+        if (!batch.isEmpty()) {
+            Set<String> inserted = insertRecipients(campaignId, batch, Timestamp.from(now.toInstant()));
+            for (Map.Entry<String, Long> e : batch.entrySet()) {
+                if (inserted.contains(e.getKey())) fresh.add(e);
+                else duplicates++;
+            }
+        }
+
+        // 3) outbox rijen, gespreid in de tijd en binnen het verzendvenster
+        List<Timestamp> slots = new ArrayList<>(fresh.size());
+        OffsetDateTime slot = slots(nextSlot(campaign, now), fresh.size(), slots);
+        if (!fresh.isEmpty()) {
+            Timestamp created = Timestamp.from(now.toInstant());
+            int[] index = {0};
+            jdbc.batchUpdate("""
+                    INSERT INTO sms_outbox (campaign_id, customer_id, type, status, attempts, available_at, created_at)
+                    VALUES (?, ?, 'CAMPAIGN', 'PENDING', 0, ?, ?)
+                    """, fresh, fresh.size(), (ps, e) -> {
+                ps.setLong(1, campaignId);
+                ps.setLong(2, e.getValue());
+                ps.setTimestamp(3, slots.get(index[0]++));
+                ps.setTimestamp(4, created);
+            });
+        }
+
+        campaign.setLastCustomerId(last);
+        campaign.setExhausted(exhausted);
+        campaign.setNextSlotAt(slot);
+        campaign.setEnqueued(campaign.getEnqueued() + fresh.size());
+        campaign.setDuplicates(campaign.getDuplicates() + duplicates);
+        campaign.setSkipped(campaign.getSkipped() + skipped);
+
+        log.info("SMS campaign batch id={} enqueued={} duplicates={} skipped={} exhausted={}",
+                campaignId, fresh.size(), duplicates, skipped, exhausted);
+        return fresh.size();
+    }
+
+    /**
+     * Hervatten: HELD rijen terug naar PENDING met nieuwe slots vanaf nu, in hun oude volgorde.
+     * Zo vertrekt de achterstand niet in 1 keer (en niet buiten het verzendvenster).
+     * De campagne is gelockt door de statusovergang in dezelfde transactie.
+     * @return aantal vrijgegeven rijen
+     */
+    @Transactional
+    public int releaseHeld(Long campaignId, OffsetDateTime now) {
+        SmsCampaign campaign = campaignRepo.findById(campaignId).orElseThrow();
+        List<Long> ids = outboxRepo.findHeldIds(campaignId);
+        outboxRepo.releaseCampaign(campaignId);
+        reslot(campaign, ids, now);
+        return ids.size();
+    }
+
+    /**
+     * Retries van campagne-SMS: achter de al geplande rijen (nextSlotAt) i.p.v. meteen.
+     */
+    @Transactional
+    public void reslotRetries(Collection<Long> smsLogIds, OffsetDateTime now) {
+        Map<Long, List<Long>> byCampaign = new LinkedHashMap<>();
+        for (SmsOutbox o : outboxRepo.findCampaignRetries(smsLogIds)) {
+            byCampaign.computeIfAbsent(o.getCampaignId(), id -> new ArrayList<>()).add(o.getId());
+        }
+        byCampaign.forEach((campaignId, ids) -> {
+            campaignRepo.lock(campaignId);
+            SmsCampaign campaign = campaignRepo.findById(campaignId).orElseThrow();
+            reslot(campaign, ids, nextSlot(campaign, now));
+        });
+    }
+
+    private void reslot(SmsCampaign campaign, List<Long> outboxIds, OffsetDateTime start) {
+        if (outboxIds.isEmpty()) return;
+        List<Timestamp> slots = new ArrayList<>(outboxIds.size());
+        campaign.setNextSlotAt(slots(start, outboxIds.size(), slots));
+
+        int[] index = {0};
+        jdbc.batchUpdate("UPDATE sms_outbox SET available_at = ? WHERE id = ?", outboxIds, outboxIds.size(), (ps, id) -> {
+            ps.setTimestamp(1, slots.get(index[0]++));
+            ps.setLong(2, id);
+        });
+    }
+
+    private static OffsetDateTime nextSlot(SmsCampaign campaign, OffsetDateTime now) {
+        return campaign.getNextSlotAt() == null || campaign.getNextSlotAt().isBefore(now) ? now : campaign.getNextSlotAt();
+    }
+
+    /**
+     * {@code count} slots vanaf {@code start}, 60s / messages-per-minute uit elkaar en binnen het venster.
+     * @return het slot na het laatste (nieuwe nextSlotAt)
+     */
+    private OffsetDateTime slots(OffsetDateTime start, int count, List<Timestamp> out) {
+        Duration spacing = Duration.ofMillis(60_000L / Math.max(1, messagesPerMinute));
+        OffsetDateTime slot = start;
+        for (int i = 0; i < count; i++) {
+            slot = inWindow(slot);
+            out.add(Timestamp.from(slot.toInstant()));
+            slot = slot.plus(spacing);
+        }
+        return slot;
+    }
+
+    /**
+     * Nieuwe ontvangers in 1 statement. De JDBC driver voegt RETURNING phone toe (generated keys),
+     * dus enkel echt ingevoegde nummers komen terug; batch update counts zijn daarvoor niet
+     * bruikbaar (SUCCESS_NO_INFO met rewriteBatchedInserts).
+     */
+    private Set<String> insertRecipients(Long campaignId, Map<String, Long> batch, Timestamp createdAt) {
+        String sql = "INSERT INTO sms_campaign_recipients (campaign_id, phone, customer_id, created_at) VALUES "
+                + String.join(", ", Collections.nCopies(batch.size(), "(?, ?, ?, ?)"))
+                + " ON CONFLICT DO NOTHING";
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, new String[]{"phone"});
+            int i = 1;
+            for (Map.Entry<String, Long> e : batch.entrySet()) {
+                ps.setLong(i++, campaignId);
+                ps.setString(i++, e.getKey());
+                ps.setLong(i++, e.getValue());
+                ps.setTimestamp(i++, createdAt);
+            }
+            return ps;
+        }, keys);
+
+        Set<String> inserted = new HashSet<>();
+        for (Map<String, Object> row : keys.getKeyList()) inserted.add((String) row.get("phone"));
+        return inserted;
+    }
+
+    /** Slot buiten send-from / send-until: naar send-from van dezelfde of de volgende dag. */
+    private OffsetDateTime inWindow(OffsetDateTime slot) {
+        ZonedDateTime local = slot.atZoneSameInstant(ZONE);
+        LocalTime time = local.toLocalTime();
+        if (time.isBefore(sendFrom)) {
+            return local.with(sendFrom).toOffsetDateTime();
+        }
+        if (!time.isBefore(sendUntil)) {
+            return local.toLocalDate().plusDays(1).atTime(sendFrom).atZone(ZONE).toOffsetDateTime();
+        }
+        return slot;
+    }
+}
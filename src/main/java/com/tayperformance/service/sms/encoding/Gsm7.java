@@ -0,0 +1,52 @@
+package com.tayperformance.service.sms.encoding;
+
+import java.util.BitSet;
+
+/**
+ * GSM 03.38 (GSM-7) tekenset: basis (1 septet) en extensie-tabel (ESC + teken = 2 septets).
+ */
+public final class Gsm7 {
+
+    private static final String BASIC =
+            "@£$¥èéùìòÇ\nØø\rÅåΔ_ΦΓΛΩΠΨΣΘΞÆæßÉ !\"#¤%&'()*+,-./0123456789:;<=>?"
+            + "¡ABCDEFGHIJKLMNOPQRSTUVWXYZÄÖÑÜ§¿abcdefghijklmnopqrstuvwxyzäöñüà";
+
+    private static final String EXTENSION = "\f^{}\\[~]|€";
+
+    private static final BitSet BASIC_SET = toSet(BASIC);
+    private static final BitSet EXTENSION_SET = toSet(EXTENSION);
+
+    private Gsm7() {}
+
+    public static boolean isBasic(char c) {
+        return BASIC_SET.get(c);
+    }
+
+    public static boolean isExtension(char c) {
+        return EXTENSION_SET.get(c);
+    }
+
+    /** @return true als de hele tekst in GSM-7 past */
+    public static boolean canEncode(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!BASIC_SET.get(c) && !EXTENSION_SET.get(c)) return false;
+        }
+        return true;
+    }
+
+    /** Aantal septets (extensie-tekens tellen dubbel). Enkel zinvol als canEncode true is. */
+    public static int septets(CharSequence text) {
+        int n = 0;
+        for (int i = 0; i < text.length(); i++) {
+            n += EXTENSION_SET.get(text.charAt(i)) ? 2 : 1;
+        }
+        return n;
+    }
+
+    private static BitSet toSet(String chars) {
+        BitSet set = new BitSet(0x10000);
+        for (int i = 0; i < chars.length(); i++) set.set(chars.charAt(i));
+        return set;
+    }
+}
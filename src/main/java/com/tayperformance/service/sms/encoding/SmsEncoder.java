@@ -0,0 +1,130 @@
+package com.tayperformance.service.sms.encoding;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Encoding-stap vóór het versturen.
+ *
+ * Eén teken buiten GSM-7 (emoji, ê, ’) zet het hele bericht op UCS-2: 70 i.p.v. 160 tekens
+ * per segment, dus dubbel zoveel segmenten (kost + provider throughput).
+ *
+ * - transliterate: accenten/typografische tekens naar GSM-7, emoji weg; enkel toegepast
+ *   als het resultaat volledig GSM-7 is (een naam in een ander schrift blijft dus intact).
+ * - max-segments: berichten boven dit budget worden niet verstuurd.
+ *
+ * Metric: tay.sms.segments{encoding} (segmenten per bericht).
+ */
+@Slf4j
+@Component
+public class SmsEncoder {
+
+    private static final Map<Character, String> REPLACEMENTS = Map.ofEntries(
+            Map.entry('á', "a"), Map.entry('â', "a"), Map.entry('ã', "a"),
+            Map.entry('À', "A"), Map.entry('Á', "A"), Map.entry('Â', "A"), Map.entry('Ã', "A"),
+            Map.entry('ç', "c"),
+            Map.entry('ê', "e"), Map.entry('ë', "e"),
+            Map.entry('È', "E"), Map.entry('Ê', "E"), Map.entry('Ë', "E"),
+            Map.entry('í', "i"), Map.entry('î', "i"), Map.entry('ï', "i"),
+            Map.entry('Ì', "I"), Map.entry('Í', "I"), Map.entry('Î', "I"), Map.entry('Ï', "I"),
+            Map.entry('ó', "o"), Map.entry('ô', "o"), Map.entry('õ', "o"),
+            Map.entry('Ò', "O"), Map.entry('Ó', "O"), Map.entry('Ô', "O"), Map.entry('Õ', "O"),
+            Map.entry('ú', "u"), Map.entry('û', "u"),
+            Map.entry('Ù', "U"), Map.entry('Ú', "U"), Map.entry('Û', "U"),
+            Map.entry('ý', "y"), Map.entry('ÿ', "y"), Map.entry('Ý', "Y"),
+            Map.entry('œ', "oe"), Map.entry('Œ', "OE"),
+            Map.entry('‘', "'"), Map.entry('’', "'"), Map.entry('‚', "'"), Map.entry('′', "'"),
+            Map.entry('“', "\""), Map.entry('”', "\""), Map.entry('„', "\""), Map.entry('«', "\""), Map.entry('»', "\""),
+            Map.entry('–', "-"), Map.entry('—', "-"), Map.entry('‐', "-"),
+            Map.entry('…', "..."),
+            Map.entry('\u00A0', " "), Map.entry('\u202F', " "), Map.entry('\t', " ")
+    );
+
+    private final MeterRegistry registry;
+
+    @Value("${tay.sms.encoding.transliterate:true}")
+    private boolean transliterate;
+
+    @Value("${tay.sms.encoding.max-segments:3}")
+    private int maxSegments;
+
+    public SmsEncoder(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public Encoded encode(String body) {
+        String text = body;
+        SmsSegments segments = SmsSegments.of(text);
+
+        if (segments.encoding() == SmsEncoding.UCS2 && transliterate) {
+            String t = transliterate(body);
+            if (Gsm7.canEncode(t)) {
+                text = t;
+                segments = SmsSegments.of(t);
+            }
+        }
+
+        DistributionSummary.builder("tay.sms.segments")
+                .tag("encoding", segments.encoding().name())
+                .register(registry)
+                .record(segments.segments());
+
+        return new Encoded(text, segments, segments.segments() <= maxSegments);
+    }
+
+    public int maxSegments() {
+        return maxSegments;
+    }
+
+    /**
+     * Vervangt tekens buiten GSM-7 door de dichtste GSM-7 variant en laat emoji/symbolen weg.
+     * Tekens zonder vervanging (bv. Cyrillisch) blijven staan.
+     */
+    public static String transliterate(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (Gsm7.isBasic(c) || Gsm7.isExtension(c)) {
+                sb.append(c);
+                continue;
+            }
+            String r = REPLACEMENTS.get(c);
+            if (r != null) {
+                sb.append(r);
+            } else if (isDroppable(s, i)) {
+                if (Character.isHighSurrogate(c)) i++;
+                // emoji gevolgd door een spatie: spatie ook weg ("✅ RDV" -> "RDV")
+                if (i + 1 < s.length() && s.charAt(i + 1) == ' '
+                        && (sb.isEmpty() || sb.charAt(sb.length() - 1) == ' ' || sb.charAt(sb.length() - 1) == '\n')) {
+                    i++;
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        // emoji op het einde laat anders een spatie achter
+        while (!sb.isEmpty() && sb.charAt(sb.length() - 1) == ' ') sb.setLength(sb.length() - 1);
+        return sb.toString();
+    }
+
+    /** Emoji, pictogrammen, variation selectors en zero-width joiners. */
+    private static boolean isDroppable(String s, int i) {
+        int cp = s.codePointAt(i);
+        int type = Character.getType(cp);
+        return type == Character.OTHER_SYMBOL
+                || type == Character.SURROGATE
+                || cp == 0x200D
+                || (cp >= 0xFE00 && cp <= 0xFE0F);
+    }
+
+    /**
+     * @param text         te versturen tekst (eventueel getranslitereerd)
+     * @param withinBudget false als het bericht meer dan max-segments segmenten telt
+     */
+    public record Encoded(String text, SmsSegments segments, boolean withinBudget) {}
+}
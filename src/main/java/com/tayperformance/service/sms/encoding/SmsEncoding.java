@@ -0,0 +1,6 @@
+package com.tayperformance.service.sms.encoding;
+
+public enum SmsEncoding {
+    GSM7,
+    UCS2
+}
@@ -0,0 +1,24 @@
+package com.tayperformance.service.sms.encoding;
+
+/**
+ * Aantal SMS segmenten voor een tekst.
+ *
+ * - GSM-7: 160 septets in 1 SMS, anders 153 per segment (UDH voor concatenatie).
+ * - UCS-2: 70 UTF-16 code units in 1 SMS, anders 67 per segment.
+ */
+public record SmsSegments(SmsEncoding encoding, int units, int segments) {
+
+    public static SmsSegments of(CharSequence text) {
+        if (Gsm7.canEncode(text)) {
+            int septets = Gsm7.septets(text);
+            return new SmsSegments(SmsEncoding.GSM7, septets, count(septets, 160, 153));
+        }
+        int units = text.length();
+        return new SmsSegments(SmsEncoding.UCS2, units, count(units, 70, 67));
+    }
+
+    private static int count(int units, int single, int perPart) {
+        if (units <= single) return 1;
+        return (units + perPart - 1) / perPart;
+    }
+}
@@ -0,0 +1,20 @@
+package com.tayperformance.service.sms.gateway;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Provider call niet uitgevoerd (circuit open of bulkhead vol).
+ * Het bericht is niet verstuurd en mag later opnieuw geprobeerd worden.
+ */
+@Getter
+public class CallNotPermittedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public CallNotPermittedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
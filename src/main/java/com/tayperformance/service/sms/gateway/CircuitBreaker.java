@@ -0,0 +1,133 @@
+package com.tayperformance.service.sms.gateway;
+
+/**
+ * Count-based circuit breaker (CLOSED / OPEN / HALF_OPEN).
+ *
+ * - CLOSED: laatste windowSize calls worden bijgehouden; boven de failure- of
+ *   slow-call drempel (na minCalls) gaat het circuit OPEN.
+ * - OPEN: alle calls geweigerd tot openNanos verstreken is.
+ * - HALF_OPEN: max halfOpenProbes proef-calls; allemaal ok => CLOSED, 1 fout of traag => OPEN.
+ *   Een call die na tryAcquire niet doorging geeft zijn plaats terug via release().
+ *
+ * Tijd in nanos (System.nanoTime), meegegeven door de caller zodat tests een klok kunnen sturen.
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int windowSize;
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final double slowRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int next;
+    private int count;
+    private int failures;
+    private int slows;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    CircuitBreaker(int windowSize, int minCalls, double failureRateThreshold,
+                   double slowRateThreshold, long slowCallNanos, long openNanos, int halfOpenProbes) {
+        this.windowSize = Math.max(1, windowSize);
+        this.minCalls = Math.max(1, Math.min(minCalls, this.windowSize));
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowRateThreshold = slowRateThreshold;
+        this.slowCallNanos = slowCallNanos;
+        this.openNanos = openNanos;
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+        this.failed = new boolean[this.windowSize];
+        this.slow = new boolean[this.windowSize];
+    }
+
+    synchronized State state(long now) {
+        if (state == State.OPEN && now - openedAt >= openNanos) return State.HALF_OPEN;
+        return state;
+    }
+
+    /** @return true als de call door mag (in HALF_OPEN telt dit als proef-call) */
+    synchronized boolean tryAcquire(long now) {
+        if (state == State.OPEN) {
+            if (now - openedAt < openNanos) return false;
+            state = State.HALF_OPEN;
+            probesStarted = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenProbes) return false;
+            probesStarted++;
+        }
+        return true;
+    }
+
+    /** Nanos tot het circuit weer proef-calls toelaat (0 als het niet OPEN is). */
+    synchronized long remainingOpenNanos(long now) {
+        if (state != State.OPEN) return 0;
+        return Math.max(0, openNanos - (now - openedAt));
+    }
+
+    /**
+     * Call toegelaten maar niet bij de provider geraakt (bv. bulkhead vol): geeft een
+     * proef-call in HALF_OPEN terug zonder resultaat te tellen.
+     */
+    synchronized void release() {
+        if (state == State.HALF_OPEN && probesStarted > 0) probesStarted--;
+    }
+
+    synchronized void onResult(boolean success, long durationNanos, long now) {
+        boolean isSlow = durationNanos >= slowCallNanos;
+
+        switch (state) {
+            case HALF_OPEN -> {
+                if (!success || isSlow) open(now);
+                else if (++probesSucceeded >= halfOpenProbes) close();
+            }
+            case CLOSED -> {
+                record(!success, isSlow);
+                if (count >= minCalls
+                        && ((double) failures / count >= failureRateThreshold
+                        || (double) slows / count >= slowRateThreshold)) {
+                    open(now);
+                }
+            }
+            case OPEN -> { /* laat resultaat van een call van vóór het openen */ }
+        }
+    }
+
+    private void record(boolean isFailure, boolean isSlow) {
+        if (count == windowSize) {
+            if (failed[next]) failures--;
+            if (slow[next]) slows--;
+        } else {
+            count++;
+        }
+        failed[next] = isFailure;
+        slow[next] = isSlow;
+        if (isFailure) failures++;
+        if (isSlow) slows++;
+        next = (next + 1) % windowSize;
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openedAt = now;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        next = 0;
+        count = 0;
+        failures = 0;
+        slows = 0;
+        java.util.Arrays.fill(failed, false);
+        java.util.Arrays.fill(slow, false);
+    }
+}
@@ -0,0 +1,14 @@
+package com.tayperformance.service.sms.gateway;
+
+import java.time.Duration;
+
+/**
+ * Rate limit: de wachttijd voor een token is langer dan max-wait.
+ * Zoals bij een open circuit gaat de SMS terug naar de outbox zonder poging te tellen.
+ */
+public class RateLimitedException extends CallNotPermittedException {
+
+    public RateLimitedException(String message, Duration retryAfter) {
+        super(message, retryAfter);
+    }
+}
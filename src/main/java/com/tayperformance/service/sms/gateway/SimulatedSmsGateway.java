@@ -0,0 +1,127 @@
+package com.tayperformance.service.sms.gateway;
+
+import com.tayperformance.entity.SmsStatus;
+import com.tayperformance.service.sms.status.SmsStatusUpdateBuffer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process provider simulator (geen netwerk, geen credentials) om de SMS pipeline
+ * lokaal te testen en te benchmarken.
+ *
+ * - Latency: log-normaal rond latency-median-ms (spreiding latency-sigma), begrensd op latency-max-ms.
+ * - Fouten: error-rate kans op een provider error.
+ * - Throughput cap: meer dan max-per-second sends in dezelfde seconde => "429 Too Many Requests".
+ * - Delivery callbacks: na delivery-delay-ms DELIVERED (of FAILED met delivery-failure-rate),
+ *   rechtstreeks in de SmsStatusUpdateBuffer (zelfde pad als de webhook).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "tay.sms.gateway", havingValue = "simulator")
+public class SimulatedSmsGateway implements SmsGateway {
+
+    private final SmsStatusUpdateBuffer statusBuffer;
+
+    @Value("${tay.sms.simulator.latency-median-ms:120}")
+    private double latencyMedianMs;
+
+    @Value("${tay.sms.simulator.latency-sigma:0.5}")
+    private double latencySigma;
+
+    @Value("${tay.sms.simulator.latency-max-ms:5000}")
+    private long latencyMaxMs;
+
+    @Value("${tay.sms.simulator.error-rate:0.02}")
+    private double errorRate;
+
+    @Value("${tay.sms.simulator.max-per-second:10}")
+    private int maxPerSecond;
+
+    @Value("${tay.sms.simulator.delivery-delay-ms:2000}")
+    private long deliveryDelayMs;
+
+    @Value("${tay.sms.simulator.delivery-failure-rate:0.01}")
+    private double deliveryFailureRate;
+
+    private final ScheduledExecutorService callbacks = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "sms-simulator-callbacks");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private long windowSecond;
+    private int windowCount;
+
+    @Override
+    public String send(String toPhone, String body) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+
+        sleep(latency(rnd));
+
+        if (!acquireThroughput()) {
+            throw new IllegalStateException("429 Too Many Requests (simulator: max " + maxPerSecond + "/s)");
+        }
+        if (rnd.nextDouble() < errorRate) {
+            throw new IllegalStateException("500 Internal Server Error (simulator)");
+        }
+
+        String sid = "SM" + UUID.randomUUID().toString().replace("-", "");
+        SmsStatus outcome = rnd.nextDouble() < deliveryFailureRate ? SmsStatus.FAILED : SmsStatus.DELIVERED;
+        callbacks.schedule(() -> statusBuffer.add(sid, outcome,
+                        outcome == SmsStatus.FAILED ? "Provider status undelivered (simulator)" : null),
+                deliveryDelayMs, TimeUnit.MILLISECONDS);
+
+        log.debug("Simulated SMS sent sid={} to={} length={}", sid, toPhone, body.length());
+        return sid;
+    }
+
+    @Override
+    public String senderKey() {
+        return "simulator";
+    }
+
+    @PreDestroy
+    void shutdown() {
+        callbacks.shutdownNow();
+    }
+
+    // -------------------------
+    // Helpers
+    // -------------------------
+
+    private long latency(ThreadLocalRandom rnd) {
+        double ms = latencyMedianMs * Math.exp(latencySigma * rnd.nextGaussian());
+        return Math.min(latencyMaxMs, Math.max(0, Math.round(ms)));
+    }
+
+    /** Vaste-venster teller per seconde, zoals een provider die per seconde telt. */
+    private synchronized boolean acquireThroughput() {
+        if (maxPerSecond <= 0) return true;
+        long second = System.currentTimeMillis() / 1000;
+        if (second != windowSecond) {
+            windowSecond = second;
+            windowCount = 0;
+        }
+        return ++windowCount <= maxPerSecond;
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulated send interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.tayperformance.service.sms.gateway;
+
+/**
+ * SPI naar de SMS provider. Gekozen via tay.sms.gateway (twilio | simulator).
+ */
+public interface SmsGateway {
+
+    /**
+     * Verstuurt 1 bericht (blokkerend).
+     * @return provider message id; delivery status komt later via de status callback
+     * @throws RuntimeException als de provider het bericht weigert of onbereikbaar is
+     */
+    String send(String toPhone, String body);
+
+    /**
+     * Afzender waarop de provider throughput-limieten toepast
+     * (messaging service of nummer); gebruikt als sleutel voor rate limiting.
+     */
+    String senderKey();
+}
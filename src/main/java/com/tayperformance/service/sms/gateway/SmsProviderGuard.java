@@ -0,0 +1,157 @@
+package com.tayperformance.service.sms.gateway;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker + bulkhead rond de provider call.
+ *
+ * - Bulkhead: eigen begrensde pool (max-concurrent) met timeout per call; een trage
+ *   provider kan zo nooit meer dan max-concurrent threads vasthouden.
+ * - Circuit breaker: bij te veel fouten of trage calls worden calls meteen geweigerd
+ *   (CallNotPermittedException) en blijven de SMS in de outbox tot het circuit
+ *   via een half-open probe herstelt.
+ *
+ * Elke exception van de provider telt als fout, ook een 4xx (ongeldig nummer, 429):
+ * een reeks geweigerde berichten kan het circuit dus openen. Ongeldige nummers zijn
+ * zeldzaam (PhoneNormalizerFR) en 429's wijzen net op een provider die moet afremmen.
+ *
+ * Let op: bij een timeout weten we niet of de provider het bericht toch verstuurde;
+ * de retry kan dan een duplicaat opleveren.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SmsProviderGuard {
+
+    private final MeterRegistry registry;
+
+    @Value("${tay.sms.bulkhead.max-concurrent:8}")
+    private int maxConcurrent;
+
+    @Value("${tay.sms.bulkhead.call-timeout-ms:10000}")
+    private long callTimeoutMs;
+
+    @Value("${tay.sms.circuit.window-size:20}")
+    private int windowSize;
+
+    @Value("${tay.sms.circuit.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${tay.sms.circuit.failure-rate-threshold:0.5}")
+    private double failureRateThreshold;
+
+    @Value("${tay.sms.circuit.slow-call-ms:5000}")
+    private long slowCallMs;
+
+    @Value("${tay.sms.circuit.slow-call-rate-threshold:0.8}")
+    private double slowCallRateThreshold;
+
+    @Value("${tay.sms.circuit.open-seconds:30}")
+    private long openSeconds;
+
+    @Value("${tay.sms.circuit.half-open-probes:3}")
+    private int halfOpenProbes;
+
+    private CircuitBreaker breaker;
+    private ThreadPoolExecutor bulkhead;
+    private volatile CircuitBreaker.State lastState = CircuitBreaker.State.CLOSED;
+
+    @PostConstruct
+    void init() {
+        breaker = new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, slowCallRateThreshold,
+                TimeUnit.MILLISECONDS.toNanos(slowCallMs), TimeUnit.SECONDS.toNanos(openSeconds), halfOpenProbes);
+
+        AtomicInteger n = new AtomicInteger();
+        // SynchronousQueue: geen wachtrij in de bulkhead, vol = meteen weigeren
+        bulkhead = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), r -> {
+            Thread t = new Thread(r, "sms-provider-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("tay.sms.circuit.state", () -> state().ordinal())
+                .description("SMS provider circuit: 0=CLOSED, 1=OPEN, 2=HALF_OPEN")
+                .register(registry);
+        Gauge.builder("tay.sms.bulkhead.active", bulkhead, ThreadPoolExecutor::getActiveCount)
+                .register(registry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        bulkhead.shutdownNow();
+    }
+
+    /** Mag de dispatcher nieuwe rijen claimen? (niet zolang het circuit OPEN is) */
+    public boolean isCallPermitted() {
+        return state() != CircuitBreaker.State.OPEN;
+    }
+
+    public CircuitBreaker.State state() {
+        return breaker.state(System.nanoTime());
+    }
+
+    /** Standaard uitstel voor SMS die niet verstuurd konden worden (circuit open). */
+    public Duration retryAfter() {
+        long remaining = breaker.remainingOpenNanos(System.nanoTime());
+        return remaining > 0 ? Duration.ofNanos(remaining) : Duration.ofSeconds(openSeconds);
+    }
+
+    public String call(Supplier<String> providerCall) {
+        if (!breaker.tryAcquire(System.nanoTime())) {
+            throw new CallNotPermittedException("SMS provider circuit open", retryAfter());
+        }
+
+        long start = System.nanoTime();
+        Future<String> future;
+        try {
+            future = bulkhead.submit(providerCall::get);
+        } catch (RejectedExecutionException e) {
+            // niet bij de provider geraakt: telt niet mee, ook niet als geslaagde probe
+            breaker.release();
+            throw new CallNotPermittedException("SMS provider bulkhead full", Duration.ofSeconds(5));
+        }
+
+        boolean success = false;
+        try {
+            String result = future.get(callTimeoutMs, TimeUnit.MILLISECONDS);
+            success = true;
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new IllegalStateException("SMS provider timeout na " + callTimeoutMs + "ms", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("SMS send interrupted", e);
+        } finally {
+            long now = System.nanoTime();
+            breaker.onResult(success, now - start, now);
+            logTransition();
+        }
+    }
+
+    private void logTransition() {
+        CircuitBreaker.State current = state();
+        if (current != lastState) {
+            log.warn("SMS provider circuit {} -> {}", lastState, current);
+            lastState = current;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.tayperformance.service.sms.gateway;
+
+import com.tayperformance.config.SmsRateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput-limiet per afzender vóór de provider call.
+ * Boven de rate wacht de sender-thread zijn beurt af i.p.v. een 429 van de provider te krijgen.
+ *
+ * Metrics (tag sender):
+ * - tay.sms.ratelimit.waiting   aantal sends dat nu op een token wacht (queue depth)
+ * - tay.sms.ratelimit.wait      wachttijd per send
+ * - tay.sms.ratelimit.rejected  sends die langer dan max-wait zouden moeten wachten
+ *
+ * Zo'n send faalt niet: RateLimitedException stelt de outbox rij uit (zoals een open circuit),
+ * zonder poging of retry-budget te verbruiken.
+ */
+@Slf4j
+@Component
+public class SmsRateLimiter {
+
+    private final SmsRateLimitProperties props;
+    private final MeterRegistry registry;
+
+    private final Map<String, Limited> limiters = new ConcurrentHashMap<>();
+
+    public SmsRateLimiter(SmsRateLimitProperties props, MeterRegistry registry) {
+        this.props = props;
+        this.registry = registry;
+    }
+
+    private final class Limited {
+        final TokenBucket bucket;
+        final AtomicInteger waiting = new AtomicInteger();
+        final Timer waitTimer;
+        final Counter rejected;
+
+        Limited(String sender) {
+            bucket = new TokenBucket(props.permitsPerSecond(sender), props.burst(sender), System.nanoTime());
+            Gauge.builder("tay.sms.ratelimit.waiting", waiting, AtomicInteger::get)
+                    .tag("sender", sender)
+                    .description("SMS sends waiting for a rate limit token")
+                    .register(registry);
+            waitTimer = Timer.builder("tay.sms.ratelimit.wait")
+                    .tag("sender", sender)
+                    .description("Time spent waiting for a rate limit token")
+                    .register(registry);
+            rejected = Counter.builder("tay.sms.ratelimit.rejected")
+                    .tag("sender", sender)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Blokkeert tot deze afzender weer mag versturen.
+     * @throws RateLimitedException als de wachttijd max-wait overschrijdt; na max-wait is de
+     *         huidige wachtrij afgewerkt, dus zoveel later opnieuw proberen
+     */
+    public void acquire(String sender) throws InterruptedException {
+        if (!props.isEnabled()) return;
+
+        String key = (sender == null || sender.isBlank()) ? "default" : sender;
+        Limited l = limiters.computeIfAbsent(key, Limited::new);
+
+        long wait = l.bucket.reserve(System.nanoTime(), props.getMaxWait().toNanos());
+        if (wait < 0) {
+            l.rejected.increment();
+            throw new RateLimitedException("SMS rate limit: wachttijd > " + props.getMaxWait() + " voor " + key,
+                    props.getMaxWait());
+        }
+
+        l.waitTimer.record(Duration.ofNanos(wait));
+        if (wait == 0) return;
+
+        l.waiting.incrementAndGet();
+        try {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        } finally {
+            l.waiting.decrementAndGet();
+        }
+    }
+}
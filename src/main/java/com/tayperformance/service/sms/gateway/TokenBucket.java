@@ -0,0 +1,47 @@
+package com.tayperformance.service.sms.gateway;
+
+/**
+ * Token bucket met reservaties: wie een token vraagt krijgt meteen zijn beurt
+ * toegewezen (FIFO), eventueel in de toekomst. Het saldo mag negatief worden
+ * (= wachtrij); de wachttijd is dan schuld / rate.
+ *
+ * Tijd in nanos (System.nanoTime), zodat tests een klok kunnen meegeven.
+ */
+final class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double capacity;
+
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000d;
+        this.capacity = Math.max(1, burst);
+        this.tokens = capacity;
+        this.lastRefill = nowNanos;
+    }
+
+    /**
+     * Reserveert 1 token.
+     * @return nanos te wachten (0 = meteen), of -1 als dat langer zou duren dan maxWaitNanos
+     *         (dan wordt niets gereserveerd)
+     */
+    synchronized long reserve(long nowNanos, long maxWaitNanos) {
+        refill(nowNanos);
+
+        double after = tokens - 1;
+        long wait = after >= 0 ? 0 : (long) Math.ceil(-after / permitsPerNano);
+        if (wait > maxWaitNanos) return -1;
+
+        tokens = after;
+        return wait;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefill;
+        if (elapsed <= 0) return;
+        tokens = Math.min(capacity, tokens + elapsed * permitsPerNano);
+        lastRefill = nowNanos;
+    }
+}
@@ -0,0 +1,65 @@
+package com.tayperformance.service.sms.gateway;
+
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.rest.api.v2010.account.MessageCreator;
+import com.twilio.type.PhoneNumber;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+
+/**
+ * Echte provider (Twilio REST API). Credentials: zie TwilioConfig.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "tay.sms.gateway", havingValue = "twilio", matchIfMissing = true)
+public class TwilioSmsGateway implements SmsGateway {
+
+    @Value("${twilio.from:}")
+    private String twilioFrom;
+
+    @Value("${twilio.messaging-service-sid:}")
+    private String messagingServiceSid;
+
+    @Value("${tay.sms.status-callback.url:}")
+    private String statusCallbackUrl;
+
+    @Override
+    public String send(String toPhone, String body) {
+        MessageCreator creator;
+
+        if (messagingServiceSid != null && !messagingServiceSid.isBlank()) {
+            creator = Message.creator(
+                    new PhoneNumber(toPhone),
+                    messagingServiceSid,
+                    body
+            );
+        } else {
+            if (twilioFrom == null || twilioFrom.isBlank()) {
+                throw new IllegalStateException("twilio.from ontbreekt (of configureer twilio.messaging-service-sid)");
+            }
+            creator = Message.creator(
+                    new PhoneNumber(toPhone),
+                    new PhoneNumber(twilioFrom),
+                    body
+            );
+        }
+
+        // delivery status komt binnen via PublicSmsStatusController
+        if (statusCallbackUrl != null && !statusCallbackUrl.isBlank()) {
+            creator.setStatusCallback(URI.create(statusCallbackUrl));
+        }
+
+        Message twilioMsg = creator.create();
+        log.info("Twilio SMS sent sid={} to={}", twilioMsg.getSid(), toPhone);
+        return twilioMsg.getSid();
+    }
+
+    @Override
+    public String senderKey() {
+        return (messagingServiceSid != null && !messagingServiceSid.isBlank()) ? messagingServiceSid : twilioFrom;
+    }
+}
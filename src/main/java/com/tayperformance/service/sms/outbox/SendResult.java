@@ -0,0 +1,30 @@
+package com.tayperformance.service.sms.outbox;
+
+import java.time.Duration;
+
+/**
+ * Uitkomst van 1 verzendpoging.
+ * deferAfter != null: niet verstuurd (circuit open, rate limit), later opnieuw proberen zonder poging te tellen.
+ */
+public record SendResult(SmsJob job, String providerMessageId, String error, Duration deferAfter) {
+
+    public static SendResult sent(SmsJob job, String providerMessageId) {
+        return new SendResult(job, providerMessageId, null, null);
+    }
+
+    public static SendResult failed(SmsJob job, String error) {
+        return new SendResult(job, null, error == null ? "unknown error" : error, null);
+    }
+
+    public static SendResult deferred(SmsJob job, Duration after) {
+        return new SendResult(job, null, null, after);
+    }
+
+    public boolean isSent() {
+        return error == null && deferAfter == null;
+    }
+
+    public boolean isDeferred() {
+        return deferAfter != null;
+    }
+}
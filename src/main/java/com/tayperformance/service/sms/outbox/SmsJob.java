@@ -0,0 +1,18 @@
+package com.tayperformance.service.sms.outbox;
+
+import com.tayperformance.entity.SmsType;
+
+/**
+ * Klaar-om-te-versturen SMS: alles wat de send-fase nodig heeft, zonder entities
+ * (de send-fase loopt buiten een transactie).
+ * attempts = aantal eerdere pogingen voor deze SmsLog.
+ */
+public record SmsJob(
+        Long outboxId,
+        Long smsLogId,
+        Long appointmentId,
+        SmsType type,
+        String toPhone,
+        String body,
+        int attempts
+) {}
@@ -0,0 +1,147 @@
+package com.tayperformance.service.sms.outbox;
+
+import com.tayperformance.service.sms.SmsService;
+import com.tayperformance.service.sms.gateway.CallNotPermittedException;
+import com.tayperformance.service.sms.gateway.SmsProviderGuard;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verwerkt de SMS outbox: claim → prepare → send (begrensd parallel) → complete.
+ *
+ * - Meerdere app nodes mogen tegelijk draaien (SKIP LOCKED + lease, zie SmsOutboxStore).
+ * - Vaste pool van {@code concurrency} threads; per ronde nooit meer dan {@code batchSize}
+ *   taken in de wachtrij, dus geen onbegrensde opstapeling in het geheugen.
+ * - At-least-once: crasht een node na het versturen maar vóór complete, dan kan de
+ *   SMS na het verlopen van de lease een tweede keer vertrekken. Duurt een batch langer
+ *   dan {@code lease-seconds}, dan rondt complete enkel de rijen af die nog van deze node zijn.
+ * - Circuit open (SmsProviderGuard): er wordt niet geclaimd; SMS die al geclaimd waren
+ *   gaan terug naar de outbox met een latere available_at i.p.v. op FAILED. Idem als de
+ *   rate limiter langer dan max-wait zou laten wachten (RateLimitedException).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SmsOutboxDispatcher {
+
+    private final SmsOutboxStore store;
+    private final SmsService smsService;
+    private final SmsProviderGuard providerGuard;
+
+    @Value("${tay.sms.enabled:false}")
+    private boolean smsEnabled;
+
+    @Value("${tay.sms.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${tay.sms.outbox.concurrency:4}")
+    private int concurrency;
+
+    @Value("${tay.sms.outbox.lease-seconds:120}")
+    private long leaseSeconds;
+
+    /** Max aantal volle batches per poll, zodat 1 node niet eindeloos blijft draaien. */
+    @Value("${tay.sms.outbox.max-batches-per-poll:20}")
+    private int maxBatchesPerPoll;
+
+    private ExecutorService senders;
+    private String node;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger n = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread t = new Thread(r, "sms-sender-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        node = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${tay.sms.outbox.poll-ms:1000}")
+    public void poll() {
+        if (!smsEnabled) return;
+
+        for (int i = 0; i < maxBatchesPerPoll; i++) {
+            if (!providerGuard.isCallPermitted()) {
+                log.debug("SMS provider circuit open, outbox poll skipped");
+                return;
+            }
+            try {
+                if (dispatchBatch() < batchSize) return;
+            } catch (Exception e) {
+                // volgende poll probeert opnieuw; geclaimde rijen komen vrij na de lease
+                log.error("SMS outbox dispatch failed node={}", node, e);
+                return;
+            }
+        }
+    }
+
+    /** @return aantal geclaimde rijen */
+    int dispatchBatch() throws InterruptedException {
+        List<Long> ids = store.claim(node, batchSize, leaseSeconds);
+        if (ids.isEmpty()) return 0;
+
+        List<SmsJob> jobs = store.prepare(ids);
+        List<SendResult> results = send(jobs);
+        store.complete(node, results);
+
+        log.info("SMS outbox batch node={} claimed={} sent={} failed={} deferred={}", node, ids.size(),
+                results.stream().filter(SendResult::isSent).count(),
+                results.stream().filter(r -> !r.isSent() && !r.isDeferred()).count(),
+                results.stream().filter(SendResult::isDeferred).count());
+        return ids.size();
+    }
+
+    private List<SendResult> send(List<SmsJob> jobs) throws InterruptedException {
+        List<Callable<SendResult>> tasks = new ArrayList<>(jobs.size());
+        for (SmsJob job : jobs) tasks.add(() -> deliver(job));
+
+        List<SendResult> results = new ArrayList<>(jobs.size());
+        List<Future<SendResult>> futures = senders.invokeAll(tasks);
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).get());
+            } catch (ExecutionException e) {
+                results.add(SendResult.failed(jobs.get(i), e.getCause().getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private SendResult deliver(SmsJob job) {
+        try {
+            return SendResult.sent(job, smsService.deliver(job.toPhone(), job.body()));
+        } catch (CallNotPermittedException e) {
+            return SendResult.deferred(job, e.getRetryAfter());
+        } catch (Exception e) {
+            log.error("SMS failed type={} appt={}", job.type(), job.appointmentId(), e);
+            return SendResult.failed(job, e.getMessage());
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node";
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.tayperformance.service.sms.outbox;
+
+import com.tayperformance.entity.*;
+import com.tayperformance.repository.SmsCampaignRepository;
+import com.tayperformance.repository.SmsLogRepository;
+import com.tayperformance.repository.SmsOutboxRepository;
+import com.tayperformance.repository.SmsSendKeyRepository;
+import com.tayperformance.repository.projection.SmsLogKeyView;
+import com.tayperformance.service.sms.PhoneNormalizerFR;
+import com.tayperformance.service.sms.SmsService;
+import com.tayperformance.service.sms.encoding.SmsEncoder;
+import com.tayperformance.service.sms.template.SmsLogCompactor;
+import com.tayperformance.service.sms.template.SmsTemplate;
+import com.tayperformance.service.sms.template.SmsTemplateEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Transactionele stappen van de outbox dispatcher. Elke stap is een korte transactie;
+ * het versturen zelf gebeurt daartussen, zonder open transactie of DB-locks.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SmsOutboxStore {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final int MAX_BODY_LENGTH = 1600;
+
+    /** Afgesloten afspraken: zelfde statussen als SmsLogRepository.findObsoleteRetries. */
+    private static final Set<AppointmentStatus> CLOSED =
+            EnumSet.of(AppointmentStatus.CANCELED, AppointmentStatus.COMPLETED, AppointmentStatus.NOSHOW);
+
+    private final SmsOutboxRepository outboxRepo;
+    private final SmsLogRepository smsLogRepo;
+    private final SmsSendKeyRepository sendKeyRepo;
+    private final SmsCampaignRepository campaignRepo;
+    private final SmsService smsService;
+    private final JdbcTemplate jdbc;
+    private final SmsRetryPolicy retryPolicy;
+    private final SmsEncoder encoder;
+    private final SmsLogCompactor compactor;
+
+    // -------------------------
+    // 1) CLAIM
+    // -------------------------
+
+    /**
+     * Claimt max {@code limit} rijen met een lease. FOR UPDATE SKIP LOCKED + lease:
+     * meerdere nodes kunnen tegelijk pollen zonder dezelfde rij te versturen.
+     */
+    @Transactional
+    public List<Long> claim(String node, int limit, long leaseSeconds) {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<Long> ids = outboxRepo.lockDue(now, limit);
+        if (!ids.isEmpty()) outboxRepo.lease(ids, now.plusSeconds(leaseSeconds), node);
+        return ids;
+    }
+
+    // -------------------------
+    // 2) PREPARE
+    // -------------------------
+
+    /**
+     * Duplicate-check + bericht opbouwen + SmsLog (QUEUED) aanmaken.
+     * Rijen die niet verstuurd moeten worden gaan meteen naar DONE.
+     *
+     * Duplicate-check = sleutel (afspraak, type) claimen in sms_send_keys met
+     * ON CONFLICT DO NOTHING: 1 statement, ook correct bij gelijktijdige triggers/nodes.
+     * Campagne-SMS zijn al per nummer ontdubbeld (sms_campaign_recipients), zie prepareCampaign.
+     *
+     * Tussen enqueue en versturen kan de afspraak veranderd zijn (reminder-spreiding, uitstel bij
+     * open circuit): een SMS voor een afspraak die niet meer in een verzendbare status is gaat
+     * naar DONE zonder de sleutel te claimen (zie isSendable).
+     */
+    @Transactional
+    public List<SmsJob> prepare(List<Long> ids) {
+        List<SmsOutbox> rows = outboxRepo.findClaimed(ids);
+
+        Set<Long> ownIds = rows.stream().map(SmsOutbox::getSmsLogId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, SmsLogKeyView> own = ownIds.isEmpty() ? Map.of() : smsLogRepo.findKeysByIdIn(ownIds).stream()
+                .collect(Collectors.toMap(SmsLogKeyView::getId, l -> l));
+
+        Set<Long> campaignIds = rows.stream().map(SmsOutbox::getCampaignId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, SmsCampaign> campaigns = campaignIds.isEmpty() ? Map.of() : campaignRepo.findAllById(campaignIds).stream()
+                .collect(Collectors.toMap(SmsCampaign::getId, c -> c));
+        Map<Long, SmsTemplate> campaignTemplates = new HashMap<>();
+
+        List<SmsJob> jobs = new ArrayList<>();
+        List<Long> skipped = new ArrayList<>();
+
+        for (SmsOutbox row : rows) {
+            Appointment appt = row.getAppointment();
+
+            // reclaim na crash / retry: eigen log hergebruiken zolang die QUEUED is
+            SmsLogKeyView mine = row.getSmsLogId() == null ? null : own.get(row.getSmsLogId());
+            if (row.getSmsLogId() != null && (mine == null || mine.getStatus() != SmsStatus.QUEUED)) {
+                skipped.add(row.getId());
+                continue;
+            }
+
+            if (row.getCampaignId() != null) {
+                SmsJob job = prepareCampaign(row, mine, campaigns.get(row.getCampaignId()), campaignTemplates);
+                if (job != null) jobs.add(job);
+                else skipped.add(row.getId());
+                continue;
+            }
+
+            if (!isSendable(row.getType(), appt.getStatus())) {
+                log.info("SMS skipped, appointment {} type={} appt={}", appt.getStatus(), row.getType(), appt.getId());
+                if (mine != null) dropObsolete(mine.getId(), appt.getStatus());
+                skipped.add(row.getId());
+                continue;
+            }
+
+            // Safety: customer phone must exist
+            Customer c = appt.getCustomer();
+            if (c == null || c.getPhone() == null || c.getPhone().isBlank()) {
+                log.warn("SMS skipped, missing customer phone appt={}", appt.getId());
+                skipped.add(row.getId());
+                continue;
+            }
+
+            String toPhone = PhoneNormalizerFR.toE164(c.getPhone());
+            SmsEncoder.Encoded encoded = encoder.encode(smsService.buildMessage(appt, row.getType()));
+            if (!encoded.withinBudget()) {
+                rejectOverBudget(row, mine, toPhone, encoded);
+                skipped.add(row.getId());
+                continue;
+            }
+
+            // ✅ Duplicate prevent: sleutel al bezet => er is al een actieve SMS van dit type
+            if (mine == null && sendKeyRepo.claim(appt.getId(), row.getType().name()) == 0) {
+                log.info("SMS already sent, skip {} appt={}", row.getType(), appt.getId());
+                skipped.add(row.getId());
+                continue;
+            }
+
+            String body = encoded.text();
+
+            Long smsLogId = row.getSmsLogId();
+            int attempts = mine != null ? mine.getAttempts() : 0;
+            if (mine == null) {
+                // compact: template-versie + waarden i.p.v. de volledige tekst
+                Optional<SmsLogCompactor.Compact> compact = compactor.compact(appt, row.getType(), body);
+                SmsLog entry = smsLogRepo.save(SmsLog.builder()
+                        .appointment(appt)
+                        .type(row.getType())
+                        .status(SmsStatus.QUEUED)
+                        .toPhone(toPhone)
+                        .messageBody(compact.isPresent() ? null : body)
+                        .templateId(compact.map(SmsLogCompactor.Compact::templateId).orElse(null))
+                        .templateParams(compact.map(SmsLogCompactor.Compact::params).orElse(null))
+                        .segmentCount(encoded.segments().segments())
+                        .build());
+                smsLogId = entry.getId();
+                row.setSmsLogId(smsLogId);
+                sendKeyRepo.bind(appt.getId(), row.getType().name(), smsLogId);
+            }
+
+            jobs.add(new SmsJob(row.getId(), smsLogId, appt.getId(), row.getType(), toPhone, body, attempts));
+        }
+
+        if (!skipped.isEmpty()) outboxRepo.markDone(skipped, OffsetDateTime.now());
+        return jobs;
+    }
+
+    /**
+     * Campagne-SMS: tekst uit de template van de campagne voor deze klant.
+     * @return null als de rij niet (meer) verstuurd moet worden
+     */
+    private SmsJob prepareCampaign(SmsOutbox row, SmsLogKeyView mine, SmsCampaign campaign,
+                                   Map<Long, SmsTemplate> templates) {
+        if (campaign == null || campaign.getStatus() == SmsCampaignStatus.CANCELED) return null;
+
+        Customer c = row.getCustomer();
+        String toPhone = c == null ? null : PhoneNormalizerFR.toE164(c.getPhone());
+        if (toPhone == null) {
+            log.warn("Campaign SMS skipped, missing customer phone campaign={}", campaign.getId());
+            return null;
+        }
+
+        SmsTemplate template = templates.computeIfAbsent(campaign.getId(),
+                id -> SmsTemplateEngine.compileCampaign(campaign.getMessage()));
+        SmsEncoder.Encoded encoded = encoder.encode(smsService.buildCampaignMessage(template, c));
+        if (!encoded.withinBudget()) {
+            rejectOverBudget(row, mine, toPhone, encoded);
+            return null;
+        }
+
+        String body = encoded.text();
+        Long smsLogId = row.getSmsLogId();
+        if (mine == null) {
+            Optional<SmsLogCompactor.Compact> compact = compactor.compactCampaign(template, c, body);
+            SmsLog entry = smsLogRepo.save(SmsLog.builder()
+                    .campaignId(campaign.getId())
+                    .type(SmsType.CAMPAIGN)
+                    .status(SmsStatus.QUEUED)
+                    .toPhone(toPhone)
+                    .messageBody(compact.isPresent() ? null : body)
+                    .templateId(compact.map(SmsLogCompactor.Compact::templateId).orElse(null))
+                    .templateParams(compact.map(SmsLogCompactor.Compact::params).orElse(null))
+                    .segmentCount(encoded.segments().segments())
+                    .build());
+            smsLogId = entry.getId();
+            row.setSmsLogId(smsLogId);
+        }
+
+        return new SmsJob(row.getId(), smsLogId, null, SmsType.CAMPAIGN, toPhone, body,
+                mine != null ? mine.getAttempts() : 0);
+    }
+
+    /**
+     * Boven het segment-budget: niet versturen, log als FAILED (zonder retry) zodat het
+     * zichtbaar is in de SMS logs. Een eigen log (reclaim/retry) geeft zijn sleutel vrij.
+     */
+    private void rejectOverBudget(SmsOutbox row, SmsLogKeyView mine, String toPhone, SmsEncoder.Encoded encoded) {
+        String error = "Bericht te lang: %d segmenten (%s), max %d".formatted(
+                encoded.segments().segments(), encoded.segments().encoding(), encoder.maxSegments());
+        log.warn("SMS over segment budget type={} appt={} campaign={} {}", row.getType(),
+                row.getAppointment() != null ? row.getAppointment().getId() : null, row.getCampaignId(), error);
+
+        SmsLog entry = mine == null
+                ? SmsLog.builder().appointment(row.getAppointment()).campaignId(row.getCampaignId())
+                        .type(row.getType()).toPhone(toPhone).build()
+                : smsLogRepo.findById(mine.getId()).orElseThrow();
+        entry.setStatus(SmsStatus.FAILED);
+        entry.setErrorMessage(error);
+        entry.setNextRetryAt(null);
+        entry.setSegmentCount(encoded.segments().segments());
+        if (entry.getMessageBody() == null) entry.setMessageBody(truncate(encoded.text(), MAX_BODY_LENGTH));
+        smsLogRepo.save(entry);
+
+        if (mine != null) sendKeyRepo.releaseForLogs(List.of(mine.getId()));
+    }
+
+    /**
+     * REMINDER enkel voor een CONFIRMED afspraak; CANCEL altijd; de rest zolang de afspraak
+     * niet afgesloten is (CANCELED / COMPLETED / NOSHOW).
+     */
+    static boolean isSendable(SmsType type, AppointmentStatus status) {
+        if (type == SmsType.CANCEL) return true;
+        if (type == SmsType.REMINDER) return status == AppointmentStatus.CONFIRMED;
+        return !CLOSED.contains(status);
+    }
+
+    /** Eigen QUEUED log (reclaim/uitstel) van een overbodige SMS: afsluiten en sleutel vrijgeven. */
+    private void dropObsolete(Long smsLogId, AppointmentStatus status) {
+        SmsLog entry = smsLogRepo.findById(smsLogId).orElseThrow();
+        entry.setStatus(SmsStatus.FAILED);
+        entry.setErrorMessage("Niet verstuurd: afspraak " + status);
+        entry.setNextRetryAt(null);
+        smsLogRepo.save(entry);
+        sendKeyRepo.releaseForLogs(List.of(smsLogId));
+    }
+
+    // -------------------------
+    // 3) COMPLETE
+    // -------------------------
+
+    /**
+     * Statussen van de hele batch in 1 JDBC batch-update, daarna de outbox rijen op DONE.
+     * Een gefaalde SMS krijgt een next_retry_at (SmsRetryPolicy) tot het maximum bereikt is;
+     * daarna is hij definitief gefaald en komt de sleutel in sms_send_keys weer vrij.
+     * Uitgestelde SMS (circuit open) blijven PENDING met een latere available_at.
+     *
+     * Enkel rijen die {@code node} nog geleased heeft worden afgerond (zie lockOwned): duurde
+     * de batch langer dan de lease en heeft een andere node de rij opnieuw geclaimd, dan
+     * overschrijft deze node diens status niet.
+     */
+    @Transactional
+    public void complete(String node, List<SendResult> batch) {
+        if (batch.isEmpty()) return;
+        OffsetDateTime now = OffsetDateTime.now();
+
+        Set<Long> owned = new HashSet<>(outboxRepo.lockOwned(batch.stream().map(r -> r.job().outboxId()).toList(), node));
+        List<SendResult> all = batch.stream().filter(r -> owned.contains(r.job().outboxId())).toList();
+        if (all.size() < batch.size()) {
+            log.warn("SMS outbox lease lost node={} rows={}, status left to the new owner",
+                    node, batch.size() - all.size());
+        }
+        if (all.isEmpty()) return;
+
+        List<SendResult> deferred = all.stream().filter(SendResult::isDeferred).toList();
+        if (!deferred.isEmpty()) {
+            Duration after = deferred.stream().map(SendResult::deferAfter).max(Comparator.naturalOrder()).orElseThrow();
+            outboxRepo.defer(deferred.stream().map(r -> r.job().outboxId()).toList(), now.plus(after));
+        }
+        List<SendResult> results = all.stream().filter(r -> !r.isDeferred()).toList();
+        if (results.isEmpty()) return;
+        Timestamp sentAt = Timestamp.from(now.toInstant());
+
+        Map<SendResult, OffsetDateTime> retryAt = new IdentityHashMap<>();
+        List<Long> givenUp = new ArrayList<>();
+        for (SendResult r : results) {
+            if (r.isSent()) continue;
+            OffsetDateTime next = retryPolicy.nextRetryAt(r.job().attempts() + 1, now);
+            if (next != null) retryAt.put(r, next);
+            else givenUp.add(r.job().smsLogId());
+        }
+
+        jdbc.batchUpdate("""
+                UPDATE sms_logs
+                SET status = ?, sent_at = ?, provider_message_id = ?, error_message = ?,
+                    attempts = ?, next_retry_at = ?, version = COALESCE(version, 0) + 1
+                WHERE id = ?
+                """, results, results.size(), (ps, r) -> {
+            ps.setString(1, (r.isSent() ? SmsStatus.SENT : SmsStatus.FAILED).name());
+            if (r.isSent()) ps.setTimestamp(2, sentAt);
+            else ps.setNull(2, Types.TIMESTAMP_WITH_TIMEZONE);
+            ps.setString(3, r.providerMessageId());
+            ps.setString(4, truncate(r.error()));
+
+            OffsetDateTime next = retryAt.get(r);
+            ps.setInt(5, r.job().attempts() + 1);
+            if (next != null) ps.setTimestamp(6, Timestamp.from(next.toInstant()));
+            else ps.setNull(6, Types.TIMESTAMP_WITH_TIMEZONE);
+            ps.setLong(7, r.job().smsLogId());
+        });
+
+        if (!givenUp.isEmpty()) sendKeyRepo.releaseForLogs(givenUp);
+        outboxRepo.markDone(results.stream().map(r -> r.job().outboxId()).toList(), now);
+    }
+
+    private static String truncate(String s) {
+        return truncate(s, MAX_ERROR_LENGTH);
+    }
+
+    private static String truncate(String s, int max) {
+        if (s == null || s.length() <= max) return s;
+        return s.substring(0, max);
+    }
+}
@@ -0,0 +1,53 @@
+package com.tayperformance.service.sms.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff met jitter voor gefaalde SMS.
+ *
+ * delay(n) = min(maxDelay, base * 2^(n-1)), daarna willekeurig in [delay/2, delay]
+ * zodat een storing bij de provider niet tot synchrone retry-golven leidt.
+ */
+@Component
+public class SmsRetryPolicy {
+
+    @Value("${tay.sms.retry.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${tay.sms.retry.base-delay-seconds:60}")
+    private long baseDelaySeconds;
+
+    @Value("${tay.sms.retry.max-delay-seconds:3600}")
+    private long maxDelaySeconds;
+
+    public SmsRetryPolicy() {
+    }
+
+    SmsRetryPolicy(int maxAttempts, long baseDelaySeconds, long maxDelaySeconds) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelaySeconds = baseDelaySeconds;
+        this.maxDelaySeconds = maxDelaySeconds;
+    }
+
+    /**
+     * @param attempts aantal pogingen inclusief de net gefaalde
+     * @return tijdstip van de volgende poging, of null als we opgeven
+     */
+    public OffsetDateTime nextRetryAt(int attempts, OffsetDateTime now) {
+        if (attempts >= maxAttempts) return null;
+
+        long delay = delaySeconds(attempts);
+        long jittered = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        return now.plusSeconds(jittered);
+    }
+
+    long delaySeconds(int attempts) {
+        int shift = Math.min(Math.max(attempts - 1, 0), 30);
+        long delay = baseDelaySeconds << shift;
+        return (delay <= 0 || delay > maxDelaySeconds) ? maxDelaySeconds : delay;
+    }
+}
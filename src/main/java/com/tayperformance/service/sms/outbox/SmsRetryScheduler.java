@@ -0,0 +1,68 @@
+package com.tayperformance.service.sms.outbox;
+
+import com.tayperformance.repository.SmsLogRepository;
+import com.tayperformance.repository.SmsOutboxRepository;
+import com.tayperformance.repository.SmsSendKeyRepository;
+import com.tayperformance.service.sms.campaign.SmsCampaignStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Zet gefaalde SMS waarvan next_retry_at verstreken is terug in de outbox.
+ *
+ * FAILED → QUEUED + nieuwe outbox rij met sms_log_id; de dispatcher hergebruikt
+ * dezelfde SmsLog (attempts loopt door). Opgeven gebeurt in SmsOutboxStore.complete
+ * (next_retry_at = null na max-attempts).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SmsRetryScheduler {
+
+    private final SmsLogRepository smsLogRepo;
+    private final SmsOutboxRepository outboxRepo;
+    private final SmsCampaignStore campaignStore;
+    private final SmsSendKeyRepository sendKeyRepo;
+
+    @Value("${tay.sms.enabled:false}")
+    private boolean smsEnabled;
+
+    @Value("${tay.sms.retry.batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${tay.sms.retry.poll-ms:30000}")
+    @Transactional
+    public void run() {
+        if (!smsEnabled) return;
+
+        OffsetDateTime now = OffsetDateTime.now();
+        List<Long> due = smsLogRepo.lockDueRetries(now, batchSize);
+        if (due.isEmpty()) return;
+
+        // afspraak intussen geannuleerd/afgewerkt: retry heeft geen zin meer
+        List<Long> obsolete = smsLogRepo.findObsoleteRetries(due);
+        if (!obsolete.isEmpty()) {
+            smsLogRepo.cancelRetry(obsolete);
+            sendKeyRepo.releaseForLogs(obsolete);
+        }
+
+        List<Long> retry = new ArrayList<>(due);
+        retry.removeAll(obsolete);
+        if (!retry.isEmpty()) {
+            smsLogRepo.requeue(retry);
+            outboxRepo.enqueueRetries(retry);
+            // campagne-SMS: op de pacing en binnen het verzendvenster van de campagne
+            campaignStore.reslotRetries(retry, now);
+        }
+
+        log.info("SMS retries requeued={} dropped={}", retry.size(), obsolete.size());
+    }
+}
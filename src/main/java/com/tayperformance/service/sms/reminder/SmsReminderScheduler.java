@@ -0,0 +1,113 @@
+package com.tayperformance.service.sms.reminder;
+
+import com.tayperformance.repository.AppointmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.*;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Plant REMINDER sms'en voor bevestigde afspraken die het reminder-venster binnenkomen.
+ *
+ * - Range scan op start_time (partiële index V7), enkel ids, in batches.
+ * - Schrijft outbox rijen (JDBC batch insert); versturen doet SmsOutboxDispatcher.
+ * - availableAt krijgt jitter over spread-minutes: na de nachtelijke stilte vertrekt
+ *   de opgespaarde stapel niet allemaal om 09:00:00.
+ * - Idempotent: een afspraak met een REMINDER in outbox of sms_logs wordt overgeslagen.
+ * - Advisory lock: bij meerdere nodes scant er maar 1 tegelijk.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SmsReminderScheduler {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Brussels");
+    private static final long LOCK_KEY = 0x7A7_5E3D_0001L;
+
+    private final AppointmentRepository appointmentRepo;
+    private final JdbcTemplate jdbc;
+
+    @Value("${tay.sms.enabled:false}")
+    private boolean smsEnabled;
+
+    @Value("${tay.sms.reminder.enabled:true}")
+    private boolean reminderEnabled;
+
+    /** Reminder vertrekt zodra de afspraak binnen dit aantal uren start. */
+    @Value("${tay.sms.reminder.hours-before:24}")
+    private long hoursBefore;
+
+    /** Afspraken die binnen deze marge starten krijgen geen reminder meer. */
+    @Value("${tay.sms.reminder.min-lead-minutes:120}")
+    private long minLeadMinutes;
+
+    @DateTimeFormat(pattern = "HH:mm")
+    @Value("${tay.sms.reminder.send-from:09:00}")
+    private LocalTime sendFrom;
+
+    @DateTimeFormat(pattern = "HH:mm")
+    @Value("${tay.sms.reminder.send-until:20:00}")
+    private LocalTime sendUntil;
+
+    @Value("${tay.sms.reminder.spread-minutes:30}")
+    private int spreadMinutes;
+
+    @Value("${tay.sms.reminder.batch-size:200}")
+    private int batchSize;
+
+    @Value("${tay.sms.reminder.max-per-run:2000}")
+    private int maxPerRun;
+
+    @Scheduled(fixedDelayString = "${tay.sms.reminder.poll-ms:300000}")
+    @Transactional
+    public void run() {
+        if (!smsEnabled || !reminderEnabled) return;
+
+        LocalTime local = LocalTime.now(ZONE);
+        if (local.isBefore(sendFrom) || !local.isBefore(sendUntil)) return; // stille uren
+
+        Boolean locked = jdbc.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY);
+        if (!Boolean.TRUE.equals(locked)) return; // andere node is bezig
+
+        OffsetDateTime now = OffsetDateTime.now(ZONE);
+        OffsetDateTime from = now.plusMinutes(minLeadMinutes);
+        OffsetDateTime to = now.plusHours(hoursBefore);
+        if (!from.isBefore(to)) return;
+
+        int total = 0;
+        while (total < maxPerRun) {
+            List<Long> ids = appointmentRepo.findDueForReminder(from, to, Limit.of(Math.min(batchSize, maxPerRun - total)));
+            if (ids.isEmpty()) break;
+
+            enqueue(ids, now);
+            total += ids.size();
+            if (ids.size() < batchSize) break;
+        }
+
+        if (total > 0) log.info("SMS reminders enqueued count={} window=[{}, {})", total, from, to);
+    }
+
+    private void enqueue(List<Long> appointmentIds, OffsetDateTime now) {
+        long spreadSeconds = Math.max(0, spreadMinutes) * 60L;
+
+        jdbc.batchUpdate("""
+                INSERT INTO sms_outbox (appointment_id, type, status, attempts, available_at, created_at)
+                VALUES (?, 'REMINDER', 'PENDING', 0, ?, ?)
+                """, appointmentIds, appointmentIds.size(), (ps, id) -> {
+            long jitter = spreadSeconds == 0 ? 0 : ThreadLocalRandom.current().nextLong(spreadSeconds);
+            ps.setLong(1, id);
+            ps.setTimestamp(2, Timestamp.from(now.plusSeconds(jitter).toInstant()));
+            ps.setTimestamp(3, Timestamp.from(now.toInstant()));
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package com.tayperformance.service.sms.retention;
+
+/**
+ * Hoe verlopen sms_logs opgeruimd worden.
+ */
+public enum RetentionMode {
+
+    /** Hele maandpartities droppen (V11, productie). */
+    PARTITIONS,
+
+    /** Rijen in chunks deleten op expires_at (niet-gepartitioneerde tabel, bv. tests). */
+    ROWS
+}
@@ -0,0 +1,96 @@
+package com.tayperformance.service.sms.retention;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Beheert de maandpartities van sms_logs (V11).
+ *
+ * - Maakt partities months-ahead maanden vooruit aan (bij startup en dagelijks),
+ *   zodat inserts nooit in de default partitie belanden.
+ * - Dropt partities waarvan de hele maand ouder is dan de retentie; 1 DROP per maand
+ *   i.p.v. miljoenen DELETEs (geen WAL-bloat, geen vacuum achteraf).
+ *
+ * De DDL zelf zit in SQL functies (ensure_sms_logs_partition / drop_sms_logs_partition)
+ * met een advisory lock, dus meerdere nodes mogen dit tegelijk draaien.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SmsLogPartitionManager {
+
+    private static final Pattern PARTITION = Pattern.compile("sms_logs_(\\d{4})_(\\d{2})");
+
+    private final JdbcTemplate jdbc;
+
+    @Value("${tay.sms.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    // -------------------------
+    // AANMAKEN
+    // -------------------------
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${tay.sms.partitions.cron:0 0 2 * * *}", zone = "UTC")
+    public void ensureAhead() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        try {
+            for (int i = 0; i <= monthsAhead; i++) {
+                LocalDate month = current.plusMonths(i).atDay(1);
+                jdbc.queryForObject("SELECT ensure_sms_logs_partition(?)", String.class, month);
+            }
+        } catch (Exception e) {
+            // volgende run probeert opnieuw; inserts vallen intussen in sms_logs_default
+            log.error("SMS log partitions could not be created", e);
+        }
+    }
+
+    // -------------------------
+    // RETENTIE
+    // -------------------------
+
+    /**
+     * Dropt maandpartities waarvan de laatste rij ouder is dan {@code retention}.
+     * @return namen van de gedropte partities
+     */
+    public List<String> dropExpired(OffsetDateTime now, Duration retention) {
+        List<String> dropped = new ArrayList<>();
+        for (String name : partitionNames()) {
+            Matcher m = PARTITION.matcher(name);
+            if (!m.matches()) continue; // default partitie
+
+            YearMonth month = YearMonth.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)));
+            OffsetDateTime end = month.plusMonths(1).atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+            if (end.plus(retention).isAfter(now)) continue;
+
+            if (Boolean.TRUE.equals(jdbc.queryForObject("SELECT drop_sms_logs_partition(?)", Boolean.class, name))) {
+                log.info("SMS log partition dropped {}", name);
+                dropped.add(name);
+            }
+        }
+        return dropped;
+    }
+
+    private List<String> partitionNames() {
+        return jdbc.queryForList("""
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = 'sms_logs'
+                ORDER BY c.relname
+                """, String.class);
+    }
+}
@@ -0,0 +1,158 @@
+package com.tayperformance.service.sms.retention;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+/**
+ * Retentie voor SMS data (zie SmsLog.expiresAt: 30 dagen).
+ *
+ * - PARTITIONS (default): sms_logs maandpartities droppen via SmsLogPartitionManager.
+ * - ROWS: verwijdert in chunks van chunk-size ids; elke DELETE is een eigen (autocommit) transactie,
+ *   dus locks en WAL per stap blijven klein. Tussen chunks een korte pauze.
+ * - QUEUED logs en logs met een geplande retry blijven staan tot ze afgewerkt zijn.
+ * - Afgewerkte outbox rijen (DONE) gaan weg na outbox-keep-days.
+ *
+ * Metrics: tay.sms.retention.purged{table}, tay.sms.retention.duration{table}
+ * en tay.sms.retention.partitions.dropped.
+ */
+@Slf4j
+@Service
+public class SmsRetentionJob {
+
+    private final JdbcTemplate jdbc;
+    private final MeterRegistry registry;
+    private final SmsLogPartitionManager partitions;
+
+    @Value("${tay.sms.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tay.sms.retention.mode:PARTITIONS}")
+    private RetentionMode mode;
+
+    /** Gelijk aan de vervaltermijn van SmsLog.expiresAt. */
+    @Value("${tay.sms.retention.log-days:30}")
+    private long logDays;
+
+    @Value("${tay.sms.retention.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${tay.sms.retention.pause-ms:200}")
+    private long pauseMs;
+
+    /** Bovengrens per run; de rest volgt de volgende run. */
+    @Value("${tay.sms.retention.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    @Value("${tay.sms.retention.outbox-keep-days:7}")
+    private long outboxKeepDays;
+
+    public SmsRetentionJob(JdbcTemplate jdbc, MeterRegistry registry, SmsLogPartitionManager partitions) {
+        this.jdbc = jdbc;
+        this.registry = registry;
+        this.partitions = partitions;
+    }
+
+    @Scheduled(cron = "${tay.sms.retention.cron:0 30 3 * * *}", zone = "Europe/Brussels")
+    public void run() {
+        if (!enabled) return;
+
+        OffsetDateTime now = OffsetDateTime.now();
+        try {
+            if (mode == RetentionMode.PARTITIONS) dropLogPartitions(now);
+            else purgeLogs(now);
+            purgeOutbox(now.minusDays(outboxKeepDays));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // -------------------------
+    // SMS LOGS
+    // -------------------------
+
+    /** @return aantal gedropte partities */
+    public int dropLogPartitions(OffsetDateTime now) {
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            int dropped = partitions.dropExpired(now, Duration.ofDays(logDays)).size();
+            registry.counter("tay.sms.retention.partitions.dropped").increment(dropped);
+            return dropped;
+        } finally {
+            sample.stop(registry.timer("tay.sms.retention.duration", "table", "sms_logs"));
+        }
+    }
+
+    /** @return aantal verwijderde rijen */
+    public long purgeLogs(OffsetDateTime now) throws InterruptedException {
+        Timestamp cutoff = Timestamp.from(now.toInstant());
+        return purge("sms_logs", () -> jdbc.update("""
+                DELETE FROM sms_logs
+                WHERE id IN (
+                    SELECT id FROM sms_logs
+                    WHERE expires_at < ?
+                      AND status <> 'QUEUED'
+                      AND next_retry_at IS NULL
+                    ORDER BY expires_at
+                    LIMIT ?
+                )
+                """, cutoff, chunkSize));
+    }
+
+    // -------------------------
+    // OUTBOX
+    // -------------------------
+
+    /** @return aantal verwijderde rijen */
+    public long purgeOutbox(OffsetDateTime processedBefore) throws InterruptedException {
+        Timestamp cutoff = Timestamp.from(processedBefore.toInstant());
+        return purge("sms_outbox", () -> jdbc.update("""
+                DELETE FROM sms_outbox
+                WHERE id IN (
+                    SELECT id FROM sms_outbox
+                    WHERE status = 'DONE'
+                      AND processed_at < ?
+                    ORDER BY processed_at
+                    LIMIT ?
+                )
+                """, cutoff, chunkSize));
+    }
+
+    // -------------------------
+    // Helpers
+    // -------------------------
+
+    private long purge(String table, Chunk chunk) throws InterruptedException {
+        Counter purged = registry.counter("tay.sms.retention.purged", "table", table);
+        Timer.Sample sample = Timer.start(registry);
+
+        long total = 0;
+        try {
+            for (int i = 0; i < maxChunksPerRun; i++) {
+                int deleted = chunk.delete();
+                total += deleted;
+                purged.increment(deleted);
+                if (deleted < chunkSize) break;
+                if (pauseMs > 0) Thread.sleep(pauseMs);
+            }
+        } finally {
+            long nanos = sample.stop(registry.timer("tay.sms.retention.duration", "table", table));
+            if (total > 0) log.info("SMS retention table={} purged={} took={}ms", table, total, nanos / 1_000_000);
+        }
+        return total;
+    }
+
+    @FunctionalInterface
+    private interface Chunk {
+        int delete();
+    }
+}
@@ -0,0 +1,71 @@
+package com.tayperformance.service.sms.status;
+
+import com.tayperformance.entity.SmsStatus;
+import com.twilio.security.RequestValidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Twilio status callback: signature check + vertaling naar SmsStatus.
+ * Het wegschrijven gebeurt gebufferd (SmsStatusUpdateBuffer).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SmsStatusCallbackService {
+
+    private final SmsStatusUpdateBuffer buffer;
+
+    @Value("${twilio.auth-token:}")
+    private String authToken;
+
+    /** Exacte publieke URL die Twilio aanroept (achter proxy verschilt de request URL). */
+    @Value("${tay.sms.status-callback.url:}")
+    private String callbackUrl;
+
+    @Value("${tay.sms.status-callback.validate-signature:true}")
+    private boolean validateSignature;
+
+    /**
+     * @return false als de signature niet klopt (request wordt genegeerd)
+     */
+    public boolean handle(Map<String, String> params, String signature) {
+        if (validateSignature && !isValid(params, signature)) {
+            log.warn("SMS status callback rejected: invalid signature sid={}", params.get("MessageSid"));
+            return false;
+        }
+
+        String sid = params.get("MessageSid");
+        SmsStatus status = map(params.get("MessageStatus"));
+        if (sid == null || sid.isBlank() || status == null) return true; // tussenstatus: niets te doen
+
+        String error = null;
+        if (status == SmsStatus.FAILED) {
+            String code = params.get("ErrorCode");
+            error = "Provider status " + params.get("MessageStatus") + (code != null ? " (error " + code + ")" : "");
+        }
+
+        buffer.add(sid, status, error);
+        return true;
+    }
+
+    private boolean isValid(Map<String, String> params, String signature) {
+        if (signature == null || authToken.isBlank() || callbackUrl.isBlank()) return false;
+        return new RequestValidator(authToken).validate(callbackUrl, params, signature);
+    }
+
+    /** queued/accepted/sending/sent: SENT zet de dispatcher al zelf. */
+    static SmsStatus map(String providerStatus) {
+        if (providerStatus == null) return null;
+        return switch (providerStatus.toLowerCase(Locale.ROOT)) {
+            case "delivered" -> SmsStatus.DELIVERED;
+            case "undelivered", "failed" -> SmsStatus.FAILED;
+            default -> null;
+        };
+    }
+}
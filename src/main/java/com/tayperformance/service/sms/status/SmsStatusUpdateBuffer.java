@@ -0,0 +1,165 @@
+package com.tayperformance.service.sms.status;
+
+import com.tayperformance.entity.SmsStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Verzamelt delivery-status callbacks en schrijft ze om de paar honderd ms
+ * in 1 UPDATE ... FROM unnest(...) weg i.p.v. 1 transactie per callback.
+ *
+ * - Per provider message id wordt enkel de "verste" status bewaard (coalescing).
+ * - Callback vóór de SID in sms_logs staat (dispatcher nog niet klaar)? Dan blijft
+ *   de update nog even in de buffer tot max-age-seconds.
+ * - Staat de SID er al maar is de log al definitief (DELIVERED/FAILED, bv. dubbele
+ *   callback), dan valt de update meteen weg i.p.v. tot max-age-seconds mee te lopen.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SmsStatusUpdateBuffer {
+
+    private final JdbcTemplate jdbc;
+
+    @Value("${tay.sms.status-callback.max-buffered:20000}")
+    private int maxBuffered;
+
+    @Value("${tay.sms.status-callback.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    private volatile Map<String, StatusUpdate> pending = new ConcurrentHashMap<>();
+
+    /** add() = read lock (parallel), wissel van buffer = write lock. */
+    private final ReadWriteLock swap = new ReentrantReadWriteLock();
+
+    record StatusUpdate(String sid, SmsStatus status, Instant at, String error, Instant received) {
+
+        StatusUpdate merge(StatusUpdate other) {
+            // DELIVERED wint van FAILED; anders de laatste
+            if (status == SmsStatus.DELIVERED && other.status != SmsStatus.DELIVERED) return this;
+            return new StatusUpdate(sid, other.status, other.at, other.error, received);
+        }
+    }
+
+    /**
+     * @param status enkel DELIVERED of FAILED (SENT zet de dispatcher zelf)
+     */
+    public void add(String providerMessageId, SmsStatus status, String error) {
+        Instant now = Instant.now();
+        swap.readLock().lock();
+        try {
+            pending.merge(providerMessageId, new StatusUpdate(providerMessageId, status, now, error, now), StatusUpdate::merge);
+        } finally {
+            swap.readLock().unlock();
+        }
+
+        // backpressure: buffer vol => deze thread schrijft mee weg
+        if (pending.size() >= maxBuffered) flush();
+    }
+
+    @Scheduled(fixedDelayString = "${tay.sms.status-callback.flush-ms:250}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) return;
+
+        Map<String, StatusUpdate> batch;
+        swap.writeLock().lock();
+        try {
+            batch = pending;
+            pending = new ConcurrentHashMap<>();
+        } finally {
+            swap.writeLock().unlock();
+        }
+        List<StatusUpdate> updates = new ArrayList<>(batch.values());
+
+        Set<String> known;
+        try {
+            known = write(updates);
+        } catch (Exception e) {
+            log.error("SMS status flush failed size={}", updates.size(), e);
+            known = Set.of();
+        }
+
+        // SID nog niet in sms_logs (of fout): terug in de buffer zolang ze niet te oud zijn
+        Instant cutoff = Instant.now().minusSeconds(maxAgeSeconds);
+        int dropped = 0;
+        for (StatusUpdate u : updates) {
+            if (known.contains(u.sid())) continue;
+            if (u.received().isBefore(cutoff)) {
+                dropped++;
+                continue;
+            }
+            pending.merge(u.sid(), u, (newer, older) -> older.merge(newer));
+        }
+
+        if (dropped > 0) log.info("SMS status updates not applied (unknown id) count={}", dropped);
+        log.debug("SMS status flush size={} known={}", updates.size(), known.size());
+    }
+
+    /**
+     * @return de SIDs die in sms_logs bestaan: bijgewerkt, of al definitief (dan niets te doen)
+     */
+    private Set<String> write(List<StatusUpdate> updates) {
+        String[] sids = new String[updates.size()];
+        String[] statuses = new String[updates.size()];
+        Timestamp[] times = new Timestamp[updates.size()];
+        String[] errors = new String[updates.size()];
+        for (int i = 0; i < updates.size(); i++) {
+            StatusUpdate u = updates.get(i);
+            sids[i] = u.sid();
+            statuses[i] = u.status().name();
+            times[i] = Timestamp.from(u.at());
+            errors[i] = u.error();
+        }
+
+        // enkel rijen die nog QUEUED/SENT zijn: een late callback overschrijft niets.
+        // FAILED (undelivered) is definitief: sleutel in sms_send_keys vrijgeven.
+        // Het resultaat zijn alle bekende SIDs (snapshot vóór de update), ook de al definitieve.
+        List<String> known = jdbc.query((Connection con) -> {
+            PreparedStatement ps = con.prepareStatement("""
+                    WITH u AS (
+                        SELECT * FROM unnest(?, ?, ?, ?) AS u(sid, status, at, error)
+                    ), upd AS (
+                        UPDATE sms_logs s
+                        SET status = u.status,
+                            delivered_at = CASE WHEN u.status = 'DELIVERED' THEN u.at ELSE s.delivered_at END,
+                            error_message = COALESCE(u.error, s.error_message),
+                            version = COALESCE(s.version, 0) + 1
+                        FROM u
+                        WHERE s.provider_message_id = u.sid
+                          AND s.status IN ('QUEUED', 'SENT')
+                        RETURNING s.id, s.status
+                    ), released AS (
+                        DELETE FROM sms_send_keys k
+                        USING upd
+                        WHERE upd.status = 'FAILED' AND k.sms_log_id = upd.id
+                    )
+                    SELECT s.provider_message_id FROM sms_logs s JOIN u ON s.provider_message_id = u.sid
+                    """);
+            ps.setArray(1, array(con, "text", sids));
+            ps.setArray(2, array(con, "text", statuses));
+            ps.setArray(3, array(con, "timestamptz", times));
+            ps.setArray(4, array(con, "text", errors));
+            return ps;
+        }, (rs, n) -> rs.getString(1));
+
+        return new HashSet<>(known);
+    }
+
+    private static Array array(Connection con, String type, Object[] values) throws java.sql.SQLException {
+        return con.createArrayOf(type, values);
+    }
+}
@@ -0,0 +1,41 @@
+package com.tayperformance.service.sms.template;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Placeholders die in SMS templates mogen staan, bv. {@code {{customerName}}}.
+ */
+public enum Placeholder {
+
+    CUSTOMER_NAME("customerName"),
+    GARAGE_NAME("garageName"),
+    GARAGE_PHONE("garagePhone"),
+    ADDRESS("address"),
+    DATE("date"),
+    TIME("time"),
+    PRICE("price"),
+    CAR_BRAND("carBrand"),
+    CAR_MODEL("carModel");
+
+    private static final Map<String, Placeholder> BY_KEY = new HashMap<>();
+
+    static {
+        for (Placeholder p : values()) BY_KEY.put(p.key, p);
+    }
+
+    private final String key;
+
+    Placeholder(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    /** @return null als de naam onbekend is */
+    static Placeholder of(String key) {
+        return BY_KEY.get(key);
+    }
+}
@@ -0,0 +1,108 @@
+package com.tayperformance.service.sms.template;
+
+import com.tayperformance.entity.Appointment;
+import com.tayperformance.entity.Customer;
+import com.tayperformance.entity.SmsLog;
+import com.tayperformance.entity.SmsType;
+import com.tayperformance.service.sms.encoding.SmsEncoder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Compacte opslag van SmsLog teksten (V14).
+ *
+ * Schrijven: i.p.v. message_body (tot 1600 tekens) bewaren we template_id + de waarden
+ * van de per-bericht placeholders (naam, datum, uur, ...), typisch een paar tientallen bytes.
+ * Lezen: resolve rendert de tekst opnieuw uit de (gecachete) template-versie.
+ *
+ * Enkel compact als het opnieuw renderen exact de verstuurde tekst oplevert
+ * (ook na GSM-7 transliteratie door SmsEncoder); anders de volledige tekst, zodat
+ * de audit trail altijd klopt.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SmsLogCompactor {
+
+    /** ASCII unit separator: komt niet voor in namen, datums of bedragen. */
+    static final char SEPARATOR = '\u001F';
+
+    private final SmsTemplateEngine engine;
+    private final SmsTemplateRegistry registry;
+
+    @Value("${tay.sms.log-storage:TEMPLATE}")
+    private SmsLogStorage storage;
+
+    /**
+     * @param sentText de tekst zoals hij naar de provider gaat (na encoding)
+     * @return leeg als de tekst volledig bewaard moet worden
+     */
+    public Optional<Compact> compact(Appointment appt, SmsType type, String sentText) {
+        if (storage != SmsLogStorage.TEMPLATE) return Optional.empty();
+        return compact(engine.parts(type, appt), sentText);
+    }
+
+    /** Campagne-SMS: template van de campagne, enkel de klantnaam als parameter. */
+    public Optional<Compact> compactCampaign(SmsTemplate template, Customer customer, String sentText) {
+        if (storage != SmsLogStorage.TEMPLATE) return Optional.empty();
+        return compact(engine.campaignParts(template, customer), sentText);
+    }
+
+    private Optional<Compact> compact(SmsTemplateEngine.Parts parts, String sentText) {
+        SmsTemplate template = parts.template();
+        String[] params = parts.params();
+
+        if (!template.render(params).equals(sentText)) {
+            // SmsEncoder heeft getransliteerd: template en waarden apart omzetten
+            try {
+                template = SmsTemplate.compile(SmsEncoder.transliterate(template.source()));
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+            String[] transliterated = new String[params.length];
+            for (int i = 0; i < params.length; i++) transliterated[i] = SmsEncoder.transliterate(params[i]);
+            params = transliterated;
+
+            if (!template.render(params).equals(sentText)) {
+                log.debug("SMS text not reproducible from template, storing full body");
+                return Optional.empty();
+            }
+        }
+
+        for (String p : params) {
+            if (p.indexOf(SEPARATOR) >= 0) return Optional.empty();
+        }
+        return Optional.of(new Compact(registry.idFor(template), encode(params)));
+    }
+
+    /** Tekst van een log: message_body, of opnieuw gerenderd uit template + waarden. */
+    public String resolve(SmsLog log) {
+        if (log.getMessageBody() != null || log.getTemplateId() == null) return log.getMessageBody();
+
+        SmsTemplate template = registry.byId(log.getTemplateId());
+        return template.render(decode(log.getTemplateParams(), template.placeholderCount()));
+    }
+
+    // -------------------------
+    // Helpers
+    // -------------------------
+
+    static String encode(String[] params) {
+        return params.length == 0 ? null : String.join(String.valueOf(SEPARATOR), params);
+    }
+
+    static String[] decode(String params, int count) {
+        if (count == 0) return new String[0];
+        String[] values = (params == null ? "" : params).split(String.valueOf(SEPARATOR), -1);
+        if (values.length != count) {
+            throw new IllegalStateException("SMS template verwacht " + count + " parameters, log bevat er " + values.length);
+        }
+        return values;
+    }
+
+    public record Compact(Long templateId, String params) {}
+}
@@ -0,0 +1,12 @@
+package com.tayperformance.service.sms.template;
+
+/**
+ * Hoe de tekst van een SmsLog bewaard wordt.
+ *
+ * TEMPLATE: template-versie + variabele waarden, tekst wordt bij het lezen gerenderd.
+ * FULL: volledige tekst in message_body (gedrag van vóór V14).
+ */
+public enum SmsLogStorage {
+    TEMPLATE,
+    FULL
+}
@@ -0,0 +1,127 @@
+package com.tayperformance.service.sms.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Gecompileerde SMS template: afwisselend vaste tekst en placeholders.
+ *
+ * Eén keer parsen (compile), daarna rendert elk bericht met 1 StringBuilder
+ * zonder regex, split of String.format.
+ * literals heeft altijd 1 element meer dan placeholders: l0 p0 l1 p1 ... ln.
+ */
+public final class SmsTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String source;
+    private final String[] literals;
+    private final Placeholder[] placeholders;
+    private final int literalLength;
+
+    private SmsTemplate(String source, String[] literals, Placeholder[] placeholders) {
+        this.source = source;
+        this.literals = literals;
+        this.placeholders = placeholders;
+        int len = 0;
+        for (String l : literals) len += l.length();
+        this.literalLength = len;
+    }
+
+    /**
+     * @throws IllegalArgumentException bij een onbekende of niet-afgesloten placeholder
+     */
+    public static SmsTemplate compile(String source) {
+        if (source == null) throw new IllegalArgumentException("Template ontbreekt");
+
+        List<String> literals = new ArrayList<>();
+        List<Placeholder> placeholders = new ArrayList<>();
+
+        int pos = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, pos);
+            if (open < 0) break;
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Placeholder niet afgesloten op positie " + open);
+            }
+
+            String name = source.substring(open + OPEN.length(), close).trim();
+            Placeholder p = Placeholder.of(name);
+            if (p == null) throw new IllegalArgumentException("Onbekende placeholder {{" + name + "}}");
+
+            literals.add(source.substring(pos, open));
+            placeholders.add(p);
+            pos = close + CLOSE.length();
+        }
+        literals.add(source.substring(pos));
+
+        return new SmsTemplate(source, literals.toArray(String[]::new), placeholders.toArray(Placeholder[]::new));
+    }
+
+    public String render(Values values) {
+        StringBuilder sb = new StringBuilder(literalLength + placeholders.length * 16);
+        sb.append(literals[0]);
+        for (int i = 0; i < placeholders.length; i++) {
+            values.appendTo(placeholders[i], sb);
+            sb.append(literals[i + 1]);
+        }
+        return sb.toString();
+    }
+
+    /** Rendert met 1 waarde per placeholder-positie (zie placeholders()). */
+    public String render(String[] params) {
+        if (params.length != placeholders.length) {
+            throw new IllegalArgumentException("Verwacht " + placeholders.length + " parameters, kreeg " + params.length);
+        }
+        StringBuilder sb = new StringBuilder(literalLength + placeholders.length * 16);
+        sb.append(literals[0]);
+        for (int i = 0; i < placeholders.length; i++) {
+            sb.append(params[i]);
+            sb.append(literals[i + 1]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Nieuwe template-bron waarin alle placeholders buiten {@code keep} al ingevuld zijn
+     * (bv. garagenaam en adres), zodat per bericht enkel de variabele waarden overblijven.
+     */
+    public String bind(Values constants, Set<Placeholder> keep) {
+        StringBuilder sb = new StringBuilder(literalLength + placeholders.length * 16);
+        sb.append(literals[0]);
+        for (int i = 0; i < placeholders.length; i++) {
+            if (keep.contains(placeholders[i])) sb.append(OPEN).append(placeholders[i].key()).append(CLOSE);
+            else constants.appendTo(placeholders[i], sb);
+            sb.append(literals[i + 1]);
+        }
+        return sb.toString();
+    }
+
+    public String source() {
+        return source;
+    }
+
+    public Placeholder[] placeholders() {
+        return placeholders.clone();
+    }
+
+    public int placeholderCount() {
+        return placeholders.length;
+    }
+
+    public boolean uses(Placeholder p) {
+        for (Placeholder q : placeholders) {
+            if (q == p) return true;
+        }
+        return false;
+    }
+
+    /** Schrijft de waarde van een placeholder rechtstreeks in de buffer. */
+    @FunctionalInterface
+    public interface Values {
+        void appendTo(Placeholder placeholder, StringBuilder sb);
+    }
+}
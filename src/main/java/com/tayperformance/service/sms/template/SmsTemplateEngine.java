@@ -0,0 +1,294 @@
+package com.tayperformance.service.sms.template;
+
+import com.tayperformance.config.GarageProperties;
+import com.tayperformance.entity.*;
+import com.tayperformance.repository.GarageSettingsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rendert SMS teksten uit gecompileerde templates.
+ *
+ * - CONFIRM gebruikt GarageSettings.templateConfirmation, "auto klaar" templateReady, zolang
+ *   templateLanguage leeg is of tay.sms.language; anders de ingebouwde tekst in die taal.
+ *   UPDATE / CANCEL / REMINDER hebben (nog) geen instelbare tekst en gebruiken de ingebouwde FR/NL templates.
+ * - Lege garage-gegevens vallen terug op tay.garage.*; de V2 seed-waarden zet V17 op NULL
+ *   of op de ingebouwde teksten, de engine kent die seed niet.
+ * - Settings + templates worden 1 keer geladen en gecompileerd, daarna uit het geheugen:
+ *   een reminder-run van duizenden berichten leest de settings niet opnieuw.
+ * - Ongeldig gemaakt na commit van GarageSettingsService.update; ttl-seconds vangt
+ *   wijzigingen op andere nodes op.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SmsTemplateEngine {
+
+    private static final long SETTINGS_ID = 1L;
+    private static final ZoneId ZONE = ZoneId.of("Europe/Brussels");
+
+    private static final DateTimeFormatter DATE_FR = DateTimeFormatter.ofPattern("dd/MM/yyyy", Locale.FRANCE);
+    private static final DateTimeFormatter TIME_FR = DateTimeFormatter.ofPattern("HH'h'mm", Locale.FRANCE);
+    private static final DateTimeFormatter DATE_NL = DateTimeFormatter.ofPattern("dd/MM/yyyy", new Locale("nl", "BE"));
+    private static final DateTimeFormatter TIME_NL = DateTimeFormatter.ofPattern("HH:mm", new Locale("nl", "BE"));
+
+    private static final Map<SmsType, SmsTemplate> BUILTIN_FR = builtins(
+            "TayPerformance ✅ RDV confirmé\nLe {{date}} à {{time}}\nAdresse: {{address}}",
+            "TayPerformance 🔁 RDV modifié\nNouvelle date: {{date}} à {{time}}\nAdresse: {{address}}",
+            "TayPerformance ❌ RDV annulé (prévu le {{date}}). Besoin d'un nouveau RDV? Contact: {{garagePhone}}",
+            "TayPerformance ⏰ Rappel RDV\nLe {{date}} à {{time}}\nAdresse: {{address}}");
+
+    private static final Map<SmsType, SmsTemplate> BUILTIN_NL = builtins(
+            "TayPerformance ✅ Afspraak bevestigd\nOp {{date}} om {{time}}\nAdres: {{address}}",
+            "TayPerformance 🔁 Afspraak gewijzigd\nNieuwe datum: {{date}} om {{time}}\nAdres: {{address}}",
+            "TayPerformance ❌ Afspraak geannuleerd (op {{date}}). Nieuwe afspraak nodig? Contact: {{garagePhone}}",
+            "TayPerformance ⏰ Herinnering afspraak\nOp {{date}} om {{time}}\nAdres: {{address}}");
+
+    /** Per bericht verschillend; de rest (garage, adres, telefoon) wordt in de template ingebakken. */
+    private static final Set<Placeholder> PER_MESSAGE = EnumSet.of(
+            Placeholder.CUSTOMER_NAME, Placeholder.DATE, Placeholder.TIME,
+            Placeholder.PRICE, Placeholder.CAR_BRAND, Placeholder.CAR_MODEL);
+
+    /** Campagne-SMS hebben geen afspraak: enkel klantnaam en garage-gegevens. */
+    public static final Set<Placeholder> CAMPAIGN_PLACEHOLDERS = EnumSet.of(
+            Placeholder.CUSTOMER_NAME, Placeholder.GARAGE_NAME, Placeholder.GARAGE_PHONE, Placeholder.ADDRESS);
+
+    private static final SmsTemplate READY_FR =
+            SmsTemplate.compile("TayPerformance 🚗 Votre véhicule est prêt. Vous pouvez passer chez {{garageName}}, {{address}}.");
+    private static final SmsTemplate READY_NL =
+            SmsTemplate.compile("TayPerformance 🚗 Je auto is klaar. Je kan langskomen bij {{garageName}}, {{address}}.");
+
+    private final GarageSettingsRepository settingsRepo;
+    private final GarageProperties garage;
+
+    /**
+     * MVP: simpele taalkeuze via property.
+     * Later kan je dit per klant opslaan.
+     */
+    @Value("${tay.sms.language:FR}")
+    private String language;
+
+    @Value("${tay.sms.templates.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private volatile Compiled compiled;
+
+    // -------------------------
+    // RENDER
+    // -------------------------
+
+    public String render(SmsType type, Appointment appt) {
+        Compiled c = current();
+        return c.templates.get(type).render((p, sb) -> append(c, appt, p, sb));
+    }
+
+    /** "Auto klaar" bericht (GarageSettings.templateReady). */
+    public String renderReady(Appointment appt) {
+        Compiled c = current();
+        return c.ready.render((p, sb) -> append(c, appt, p, sb));
+    }
+
+    /**
+     * Zelfde bericht als render, maar opgesplitst in een template met enkel de
+     * per-bericht placeholders en hun waarden (compacte SmsLog opslag).
+     * template.render(params) == render(type, appt).
+     */
+    public Parts parts(SmsType type, Appointment appt) {
+        Compiled c = current();
+        return split(c.bound.get(type), (p, sb) -> append(c, appt, p, sb));
+    }
+
+    // -------------------------
+    // CAMPAGNES
+    // -------------------------
+
+    /**
+     * @throws IllegalArgumentException bij een ongeldige template of een afspraak-placeholder ({{date}}, ...)
+     */
+    public static SmsTemplate compileCampaign(String source) {
+        SmsTemplate t = SmsTemplate.compile(source);
+        for (Placeholder p : t.placeholders()) {
+            if (!CAMPAIGN_PLACEHOLDERS.contains(p)) {
+                throw new IllegalArgumentException("{{" + p.key() + "}} kan niet in een campagne (geen afspraak)");
+            }
+        }
+        return t;
+    }
+
+    public String renderCampaign(SmsTemplate template, Customer customer) {
+        Compiled c = current();
+        return template.render((p, sb) -> appendCampaign(c, customer, p, sb));
+    }
+
+    /** Zie parts: garage-gegevens ingebakken, enkel de klantnaam als parameter. */
+    public Parts campaignParts(SmsTemplate template, Customer customer) {
+        Compiled c = current();
+        SmsTemplate bound = template;
+        try {
+            bound = SmsTemplate.compile(template.bind((p, sb) -> append(c, null, p, sb), EnumSet.of(Placeholder.CUSTOMER_NAME)));
+        } catch (IllegalArgumentException e) {
+            // garagenaam/adres met "{{" erin: niet inbakken
+        }
+        return split(bound, (p, sb) -> appendCampaign(c, customer, p, sb));
+    }
+
+    private static Parts split(SmsTemplate t, SmsTemplate.Values values) {
+        Placeholder[] placeholders = t.placeholders();
+        String[] params = new String[placeholders.length];
+        StringBuilder sb = new StringBuilder(32);
+        for (int i = 0; i < placeholders.length; i++) {
+            sb.setLength(0);
+            values.appendTo(placeholders[i], sb);
+            params[i] = sb.toString();
+        }
+        return new Parts(t, params);
+    }
+
+    /** Na een settings-wijziging: volgende render laadt en compileert opnieuw. */
+    public synchronized void invalidate() {
+        compiled = null;
+    }
+
+    // -------------------------
+    // CACHE
+    // -------------------------
+
+    private Compiled current() {
+        Compiled c = compiled;
+        if (c != null && c.loadedAt.plusSeconds(ttlSeconds).isAfter(Instant.now())) return c;
+
+        synchronized (this) {
+            c = compiled;
+            if (c == null || !c.loadedAt.plusSeconds(ttlSeconds).isAfter(Instant.now())) {
+                c = load();
+                compiled = c;
+            }
+            return c;
+        }
+    }
+
+    private Compiled load() {
+        GarageSettings s = settingsRepo.findById(SETTINGS_ID).orElse(null);
+        boolean french = "FR".equalsIgnoreCase(language);
+
+        Map<SmsType, SmsTemplate> templates = new EnumMap<>(french ? BUILTIN_FR : BUILTIN_NL);
+        SmsTemplate ready = french ? READY_FR : READY_NL;
+
+        if (s != null && (s.getTemplateLanguage() == null || s.getTemplateLanguage().equalsIgnoreCase(language))) {
+            SmsTemplate confirm = compileOrNull(s.getTemplateConfirmation(), "templateConfirmation");
+            if (confirm != null) templates.put(SmsType.CONFIRM, confirm);
+            SmsTemplate r = compileOrNull(s.getTemplateReady(), "templateReady");
+            if (r != null) ready = r;
+        }
+
+        log.debug("SMS templates compiled language={} fromSettings={}", language, s != null);
+        Compiled c = new Compiled(
+                firstNonBlank(s == null ? null : s.getGarageName(), garage.getName()),
+                firstNonBlank(s == null ? null : s.getAddress(), garage.getFullAddress()),
+                firstNonBlank(s == null ? null : s.getPhone(), garage.getPhone()),
+                french ? DATE_FR : DATE_NL,
+                french ? TIME_FR : TIME_NL,
+                templates,
+                new EnumMap<>(SmsType.class),
+                ready,
+                Instant.now());
+        templates.forEach((type, t) -> c.bound.put(type, bind(c, t)));
+        return c;
+    }
+
+    /** Garage-constanten invullen; de per-bericht placeholders blijven staan. */
+    private static SmsTemplate bind(Compiled c, SmsTemplate t) {
+        try {
+            return SmsTemplate.compile(t.bind((p, sb) -> append(c, null, p, sb), PER_MESSAGE));
+        } catch (IllegalArgumentException e) {
+            // garagenaam/adres met "{{" erin: niet inbakken
+            return t;
+        }
+    }
+
+    private static SmsTemplate compileOrNull(String source, String field) {
+        if (source == null || source.isBlank()) return null;
+        try {
+            return SmsTemplate.compile(source);
+        } catch (IllegalArgumentException e) {
+            // oude/ongeldige data: ingebouwde tekst i.p.v. geen SMS
+            log.warn("Invalid SMS template in garage settings field={}: {}", field, e.getMessage());
+            return null;
+        }
+    }
+
+    // -------------------------
+    // Helpers
+    // -------------------------
+
+    private static void append(Compiled c, Appointment a, Placeholder p, StringBuilder sb) {
+        switch (p) {
+            case CUSTOMER_NAME -> appendCustomerName(a.getCustomer(), sb);
+            case GARAGE_NAME -> appendNullable(c.garageName, sb);
+            case GARAGE_PHONE -> appendNullable(c.garagePhone, sb);
+            case ADDRESS -> appendNullable(c.address, sb);
+            case DATE -> c.dateFormat.formatTo(a.getStartTime().atZoneSameInstant(ZONE), sb);
+            case TIME -> c.timeFormat.formatTo(a.getStartTime().atZoneSameInstant(ZONE), sb);
+            case PRICE -> appendPrice(a.getPrice(), sb);
+            case CAR_BRAND -> appendNullable(a.getCarBrand(), sb);
+            case CAR_MODEL -> appendNullable(a.getCarModel(), sb);
+        }
+    }
+
+    private static void appendCampaign(Compiled c, Customer customer, Placeholder p, StringBuilder sb) {
+        if (p == Placeholder.CUSTOMER_NAME) appendCustomerName(customer, sb);
+        else append(c, null, p, sb);
+    }
+
+    private static void appendCustomerName(Customer c, StringBuilder sb) {
+        if (c == null) return;
+        if (c.getFirstName() != null && !c.getFirstName().isBlank()) sb.append(c.getFirstName());
+        else appendNullable(c.getLastName(), sb);
+    }
+
+    private static void appendPrice(BigDecimal price, StringBuilder sb) {
+        if (price != null) sb.append(price.setScale(2, RoundingMode.HALF_UP).toPlainString());
+    }
+
+    private static void appendNullable(String s, StringBuilder sb) {
+        if (s != null) sb.append(s);
+    }
+
+    private static String firstNonBlank(String a, String b) {
+        return a != null && !a.isBlank() ? a : b;
+    }
+
+    private static Map<SmsType, SmsTemplate> builtins(String confirm, String update, String cancel, String reminder) {
+        Map<SmsType, SmsTemplate> m = new EnumMap<>(SmsType.class);
+        m.put(SmsType.CONFIRM, SmsTemplate.compile(confirm));
+        m.put(SmsType.UPDATE, SmsTemplate.compile(update));
+        m.put(SmsType.CANCEL, SmsTemplate.compile(cancel));
+        m.put(SmsType.REMINDER, SmsTemplate.compile(reminder));
+        return m;
+    }
+
+    private record Compiled(String garageName,
+                            String address,
+                            String garagePhone,
+                            DateTimeFormatter dateFormat,
+                            DateTimeFormatter timeFormat,
+                            Map<SmsType, SmsTemplate> templates,
+                            Map<SmsType, SmsTemplate> bound,
+                            SmsTemplate ready,
+                            Instant loadedAt) {}
+
+    public record Parts(SmsTemplate template, String[] params) {}
+}
@@ -0,0 +1,76 @@
+package com.tayperformance.service.sms.template;
+
+import com.tayperformance.exception.NotFoundException;
+import com.tayperformance.repository.SmsTemplateVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Template-versies voor compacte SmsLogs (sms_templates).
+ *
+ * Een versie is onveranderlijk (id hoort bij exact 1 tekst), dus beide richtingen
+ * mogen zonder ttl in het geheugen: na opwarmen kost een SMS geen extra query.
+ */
+@Service
+@RequiredArgsConstructor
+public class SmsTemplateRegistry {
+
+    /** Ruim boven het aantal templates dat ooit bestaat; beschermt enkel tegen misbruik. */
+    private static final int MAX_CACHE_ENTRIES = 1_000;
+
+    private final SmsTemplateVersionRepository repo;
+
+    private final Map<String, Long> idsBySource = new ConcurrentHashMap<>();
+    private final Map<Long, SmsTemplate> byId = new ConcurrentHashMap<>();
+
+    /**
+     * Id van deze template-tekst, aangemaakt indien nodig.
+     * REQUIRES_NEW: het id wordt gecachet en moet dus blijven bestaan, ook als de
+     * aanroepende transactie (outbox prepare) terugrolt.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Long idFor(SmsTemplate template) {
+        Long id = idsBySource.get(template.source());
+        if (id != null) return id;
+
+        String hash = sha256(template.source());
+        repo.insertIfAbsent(template.source(), hash);
+        id = repo.findIdByHash(hash).orElseThrow();
+
+        if (idsBySource.size() >= MAX_CACHE_ENTRIES) idsBySource.clear();
+        idsBySource.put(template.source(), id);
+        return id;
+    }
+
+    @Transactional(readOnly = true)
+    public SmsTemplate byId(Long id) {
+        SmsTemplate cached = byId.get(id);
+        if (cached != null) return cached;
+
+        SmsTemplate t = SmsTemplate.compile(repo.findById(id)
+                .orElseThrow(() -> NotFoundException.of("SmsTemplate", id))
+                .getSource());
+
+        if (byId.size() >= MAX_CACHE_ENTRIES) byId.clear();
+        byId.put(id, t);
+        return t;
+    }
+
+    static String sha256(String s) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
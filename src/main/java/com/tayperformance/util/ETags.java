@@ -0,0 +1,35 @@
+package com.tayperformance.util;
+
+/**
+ * ETags op basis van id + @Version: verandert enkel als de rij (of een
+ * meegeserialiseerde rij, bv. de klant bij een afspraak) gewijzigd is.
+ */
+public final class ETags {
+
+    private ETags() {}
+
+    /** bv. "appt-12-v3.5" (quoted, strong). */
+    public static String of(String kind, Long id, Long... versions) {
+        StringBuilder sb = new StringBuilder("\"").append(kind).append('-').append(id).append("-v");
+        for (int i = 0; i < versions.length; i++) {
+            if (i > 0) sb.append('.');
+            sb.append(versions[i] == null ? 0 : versions[i]);
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * If-None-Match: "*", een lijst ("a", "b") of W/"a" (weak vergelijking volstaat voor GET).
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank() || etag == null) return false;
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.equals("*")) return true;
+            if (c.startsWith("W/")) c = c.substring(2);
+            if (c.equals(etag)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,37 @@
+package com.tayperformance.util;
+
+import com.tayperformance.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Opaque cursor over (tijdstip, id) voor keyset paginatie.
+ * Formaat (base64url): "epochSeconds.nanos:id".
+ */
+public record KeysetCursor(OffsetDateTime time, Long id) {
+
+    public String encode() {
+        Instant i = time.toInstant();
+        String raw = i.getEpochSecond() + "." + i.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int dot = raw.indexOf('.');
+            int colon = raw.indexOf(':');
+            long seconds = Long.parseLong(raw.substring(0, dot));
+            int nanos = Integer.parseInt(raw.substring(dot + 1, colon));
+            long id = Long.parseLong(raw.substring(colon + 1));
+            return new KeysetCursor(OffsetDateTime.ofInstant(Instant.ofEpochSecond(seconds, nanos), ZoneOffset.UTC), id);
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Ongeldige cursor");
+        }
+    }
+}
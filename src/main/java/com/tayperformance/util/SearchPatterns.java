@@ -0,0 +1,55 @@
+package com.tayperformance.util;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Bouwt LIKE patterns voor substring search (pg_trgm indexes, zie V4__trigram_search.sql).
+ *
+ * De patterns worden in Java gelowercased en ge-escaped, zodat de query
+ * "LOWER(kolom) LIKE :pattern" kan gebruiken (zelfde expressie als de index).
+ */
+public final class SearchPatterns {
+
+    private SearchPatterns() {}
+
+    /** "%term%" in lowercase; % _ en \ worden letterlijk gezocht. */
+    public static String contains(String term) {
+        if (term == null || term.isBlank()) return "%";
+        return "%" + escape(term.trim().toLowerCase(Locale.ROOT)) + "%";
+    }
+
+    /** Minimum aantal cijfers voor een telefoon-zoekopdracht ("A3", "Golf 7", "911" zijn geen nummer). */
+    static final int MIN_PHONE_DIGITS = 4;
+
+    /** phone_digits bevat enkel cijfers: dit pattern matcht nooit. */
+    static final String NO_MATCH = "-";
+
+    private static final Pattern PHONE_LIKE = Pattern.compile("[0-9 +.\\-/()]+");
+
+    /**
+     * Pattern voor customers.phone_digits: enkel de cijfers uit de zoekterm,
+     * zonder nationaal ("0") of internationaal ("00") prefix.
+     *
+     * Enkel als de hele term op een telefoonnummer lijkt (cijfers en " +.-/()", min. MIN_PHONE_DIGITS
+     * cijfers); anders NO_MATCH, zodat een merk of naam met een cijfer niet half de klanten matcht.
+     */
+    public static String phoneDigits(String term) {
+        if (term == null || term.isBlank()) return "%";
+        String t = term.trim();
+        if (!PHONE_LIKE.matcher(t).matches()) return NO_MATCH;
+
+        String digits = t.replaceAll("[^0-9]", "");
+        if (digits.length() < MIN_PHONE_DIGITS) return NO_MATCH;
+
+        String stripped = digits;
+        if (stripped.startsWith("00")) stripped = stripped.substring(2);
+        else if (stripped.startsWith("0")) stripped = stripped.substring(1);
+
+        return "%" + (stripped.isEmpty() ? digits : stripped) + "%";
+    }
+
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
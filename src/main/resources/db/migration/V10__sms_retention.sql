@@ -0,0 +1,9 @@
+-- V10__sms_retention.sql
+-- Retentie: SmsRetentionJob verwijdert sms_logs na expires_at en afgewerkte outbox rijen.
+
+-- rijen van vóór V6 hebben nog geen vervaldatum
+UPDATE sms_logs SET expires_at = created_at + INTERVAL '30 days' WHERE expires_at IS NULL;
+
+-- purge van afgewerkte outbox rijen scant enkel DONE
+CREATE INDEX IF NOT EXISTS idx_sms_outbox_processed
+    ON sms_outbox(processed_at) WHERE status = 'DONE';
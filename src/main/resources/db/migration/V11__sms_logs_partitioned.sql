@@ -0,0 +1,113 @@
+-- V11__sms_logs_partitioned.sql
+-- sms_logs wordt maandelijks gepartitioneerd op created_at (UTC maanden).
+-- Retentie = hele partities droppen i.p.v. rijen deleten; queries met een created_at
+-- voorwaarde (findFailedSince, keyset) raken enkel de relevante partities.
+-- Nieuwe partities maakt SmsLogPartitionManager vooraf aan (ensure_sms_logs_partition).
+
+-- ------------------------------------------------------------
+-- 1) Oude tabel opzij zetten (naam van de PK-index is schema-breed uniek)
+-- ------------------------------------------------------------
+ALTER TABLE sms_logs RENAME TO sms_logs_old;
+ALTER INDEX sms_logs_pkey RENAME TO sms_logs_old_pkey;
+
+-- ------------------------------------------------------------
+-- 2) Gepartitioneerde tabel: PK moet de partitie-sleutel bevatten
+-- ------------------------------------------------------------
+CREATE TABLE sms_logs (
+    id BIGINT NOT NULL DEFAULT nextval('sms_logs_id_seq'),
+    version BIGINT,
+    appointment_id BIGINT NOT NULL REFERENCES appointments(id) ON DELETE CASCADE,
+    type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    to_phone VARCHAR(30) NOT NULL,
+    message_body TEXT NOT NULL,
+    provider_message_id VARCHAR(120),
+    error_message TEXT,
+    attempts INT NOT NULL DEFAULT 0,
+    next_retry_at TIMESTAMPTZ,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    sent_at TIMESTAMPTZ,
+    delivered_at TIMESTAMPTZ,
+    expires_at TIMESTAMPTZ,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- vangnet: rijen buiten elke maandpartitie (zou leeg moeten blijven)
+CREATE TABLE sms_logs_default PARTITION OF sms_logs DEFAULT;
+
+-- ------------------------------------------------------------
+-- 3) Partitiebeheer (idempotent, multi-node safe via advisory lock)
+-- ------------------------------------------------------------
+
+-- Maakt sms_logs_YYYY_MM aan voor de maand van p_month. Rijen die intussen in de
+-- default partitie belandden worden eerst overgezet, anders faalt de ATTACH.
+CREATE OR REPLACE FUNCTION ensure_sms_logs_partition(p_month DATE) RETURNS TEXT
+LANGUAGE plpgsql AS $$
+DECLARE
+    v_month DATE := date_trunc('month', p_month)::date;
+    v_from TIMESTAMPTZ := v_month::timestamp AT TIME ZONE 'UTC';
+    v_to TIMESTAMPTZ := (v_month + INTERVAL '1 month')::timestamp AT TIME ZONE 'UTC';
+    v_name TEXT := 'sms_logs_' || to_char(v_month, 'YYYY_MM');
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('sms_logs_partitions'));
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN v_name;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE sms_logs INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', v_name);
+    EXECUTE format('INSERT INTO %I SELECT * FROM sms_logs_default WHERE created_at >= %L AND created_at < %L',
+                   v_name, v_from, v_to);
+    DELETE FROM sms_logs_default WHERE created_at >= v_from AND created_at < v_to;
+    EXECUTE format('ALTER TABLE sms_logs ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   v_name, v_from, v_to);
+    RETURN v_name;
+END $$;
+
+-- Dropt een maandpartitie; lock_timeout zodat we niet eindeloos achter lange reads aanschuiven.
+CREATE OR REPLACE FUNCTION drop_sms_logs_partition(p_name TEXT) RETURNS BOOLEAN
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF p_name !~ '^sms_logs_[0-9]{4}_[0-9]{2}$' THEN
+        RAISE EXCEPTION 'Geen sms_logs maandpartitie: %', p_name;
+    END IF;
+    PERFORM pg_advisory_xact_lock(hashtext('sms_logs_partitions'));
+    IF to_regclass(p_name) IS NULL THEN
+        RETURN FALSE;
+    END IF;
+    PERFORM set_config('lock_timeout', '5s', true);
+    EXECUTE format('DROP TABLE %I', p_name);
+    RETURN TRUE;
+END $$;
+
+-- ------------------------------------------------------------
+-- 4) Partities voor bestaande data + 3 maanden vooruit, data overzetten
+-- ------------------------------------------------------------
+SELECT ensure_sms_logs_partition(m::date)
+FROM generate_series(
+        date_trunc('month', COALESCE((SELECT min(created_at) FROM sms_logs_old), now()) AT TIME ZONE 'UTC'),
+        date_trunc('month', now() AT TIME ZONE 'UTC') + INTERVAL '3 months',
+        INTERVAL '1 month') AS m;
+
+INSERT INTO sms_logs (id, version, appointment_id, type, status, to_phone, message_body,
+                      provider_message_id, error_message, attempts, next_retry_at,
+                      created_at, sent_at, delivered_at, expires_at)
+SELECT id, version, appointment_id, type, status, to_phone, message_body,
+       provider_message_id, error_message, attempts, next_retry_at,
+       created_at, sent_at, delivered_at, expires_at
+FROM sms_logs_old;
+
+ALTER SEQUENCE sms_logs_id_seq OWNED BY sms_logs.id;
+DROP TABLE sms_logs_old;
+
+-- ------------------------------------------------------------
+-- 5) Indexen op de parent (worden per partitie aangemaakt)
+-- ------------------------------------------------------------
+CREATE INDEX IF NOT EXISTS idx_sms_appt ON sms_logs(appointment_id);
+CREATE INDEX IF NOT EXISTS idx_sms_status ON sms_logs(status);
+CREATE INDEX IF NOT EXISTS idx_sms_created ON sms_logs(created_at);
+CREATE INDEX IF NOT EXISTS idx_sms_expires ON sms_logs(expires_at);
+CREATE INDEX IF NOT EXISTS idx_sms_appt_type ON sms_logs(appointment_id, type);
+CREATE INDEX IF NOT EXISTS idx_sms_retry_due
+    ON sms_logs(next_retry_at) WHERE status = 'FAILED' AND next_retry_at IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_sms_provider_message_id
+    ON sms_logs(provider_message_id) WHERE provider_message_id IS NOT NULL;
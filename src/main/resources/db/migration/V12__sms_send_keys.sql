@@ -0,0 +1,26 @@
+-- V12__sms_send_keys.sql
+-- Idempotente SMS: max 1 actieve SMS per (afspraak, type).
+-- sms_logs is gepartitioneerd (V11), een unieke index daar moet created_at bevatten
+-- en kan dus niet over partities heen dedupliceren. Daarom een kleine sleuteltabel:
+-- INSERT ... ON CONFLICT DO NOTHING claimt de sleutel in 1 statement, ook bij
+-- gelijktijdige triggers. Een definitief gefaalde SMS geeft de sleutel weer vrij.
+
+CREATE TABLE IF NOT EXISTS sms_send_keys (
+    appointment_id BIGINT NOT NULL REFERENCES appointments(id) ON DELETE CASCADE,
+    type VARCHAR(20) NOT NULL,
+    -- geen FK: sms_logs partities worden gedropt
+    sms_log_id BIGINT,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (appointment_id, type)
+);
+
+CREATE INDEX IF NOT EXISTS idx_sms_send_keys_log ON sms_send_keys(sms_log_id);
+
+-- bestaande actieve logs (zelfde semantiek als de oude hasTypeBeenSent check + geplande retries)
+INSERT INTO sms_send_keys (appointment_id, type, sms_log_id, created_at)
+SELECT DISTINCT ON (appointment_id, type) appointment_id, type, id, created_at
+FROM sms_logs
+WHERE status IN ('QUEUED', 'SENT', 'DELIVERED')
+   OR (status = 'FAILED' AND next_retry_at IS NOT NULL)
+ORDER BY appointment_id, type, created_at DESC
+ON CONFLICT DO NOTHING;
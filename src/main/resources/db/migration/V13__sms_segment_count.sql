@@ -0,0 +1,5 @@
+-- V13__sms_segment_count.sql
+-- Aantal SMS segmenten per bericht (kost + provider throughput), zie SmsEncoder.
+-- Op de gepartitioneerde parent: geldt voor alle partities.
+
+ALTER TABLE sms_logs ADD COLUMN IF NOT EXISTS segment_count INT;
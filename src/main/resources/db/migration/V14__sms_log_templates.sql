@@ -0,0 +1,20 @@
+-- V14__sms_log_templates.sql
+-- Compacte opslag van sms_logs: i.p.v. de volledige tekst (tot 1600 tekens per rij)
+-- een verwijzing naar de gebruikte template-versie + de variabele waarden.
+-- sms_templates is content-addressed (source_hash = SHA-256 van source): een gewijzigde
+-- template in GarageSettings krijgt een nieuwe rij, oude logs blijven correct renderen.
+
+CREATE TABLE IF NOT EXISTS sms_templates (
+    id BIGSERIAL PRIMARY KEY,
+    source TEXT NOT NULL,
+    source_hash VARCHAR(64) NOT NULL UNIQUE,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Op de gepartitioneerde parent: geldt voor alle partities.
+ALTER TABLE sms_logs ADD COLUMN IF NOT EXISTS template_id BIGINT REFERENCES sms_templates(id);
+ALTER TABLE sms_logs ADD COLUMN IF NOT EXISTS template_params TEXT;
+ALTER TABLE sms_logs ALTER COLUMN message_body DROP NOT NULL;
+
+ALTER TABLE sms_logs ADD CONSTRAINT chk_sms_logs_body_or_template
+    CHECK (message_body IS NOT NULL OR template_id IS NOT NULL);
@@ -0,0 +1,12 @@
+-- V15__sms_logs_list_indexes.sql
+-- Keyset lijst van sms_logs (InternalSmsLogController /cursor): ORDER BY created_at DESC, id DESC
+-- met optionele filter op status of type. Composite indexes zodat een pagina een index range
+-- scan is (geen sort, geen COUNT); op de gepartitioneerde parent: geldt voor alle partities.
+
+CREATE INDEX IF NOT EXISTS idx_sms_created_id ON sms_logs(created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_sms_status_created_id ON sms_logs(status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_sms_type_created_id ON sms_logs(type, created_at DESC, id DESC);
+
+-- vervangen door de composite indexes hierboven (zelfde leidende kolom)
+DROP INDEX IF EXISTS idx_sms_status;
+DROP INDEX IF EXISTS idx_sms_created;
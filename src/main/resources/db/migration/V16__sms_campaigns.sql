@@ -0,0 +1,60 @@
+-- V16__sms_campaigns.sql
+-- Bulk SMS campagnes naar alle actieve klanten (promo's, sluitingsdagen).
+-- Ontvangers worden in batches uit een server-side cursor over customers gehaald en als
+-- gewone outbox rijen (campaign_id i.p.v. appointment_id) door de dispatcher verstuurd,
+-- dus achter dezelfde rate limiter / circuit breaker als de afspraak-SMS.
+
+CREATE TABLE IF NOT EXISTS sms_campaigns (
+    id BIGSERIAL PRIMARY KEY,
+    version BIGINT,
+    name VARCHAR(120) NOT NULL,
+    message TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    -- resume-punt van de cursor over customers (keyset op id)
+    last_customer_id BIGINT NOT NULL DEFAULT 0,
+    exhausted BOOLEAN NOT NULL DEFAULT FALSE,
+    -- volgende vrije verzendslot (pacing over batches heen)
+    next_slot_at TIMESTAMPTZ,
+    total_customers INT NOT NULL DEFAULT 0,
+    enqueued INT NOT NULL DEFAULT 0,
+    duplicates INT NOT NULL DEFAULT 0,
+    skipped INT NOT NULL DEFAULT 0,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    finished_at TIMESTAMPTZ
+);
+
+CREATE INDEX IF NOT EXISTS idx_sms_campaigns_running ON sms_campaigns(id) WHERE status = 'RUNNING';
+
+-- Dedupe: max 1 SMS per genormaliseerd nummer per campagne (ON CONFLICT DO NOTHING)
+CREATE TABLE IF NOT EXISTS sms_campaign_recipients (
+    campaign_id BIGINT NOT NULL REFERENCES sms_campaigns(id) ON DELETE CASCADE,
+    phone VARCHAR(30) NOT NULL,
+    customer_id BIGINT NOT NULL REFERENCES customers(id) ON DELETE CASCADE,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (campaign_id, phone)
+);
+
+-- ------------------------------------------------------------
+-- Outbox: rij hoort bij een afspraak of bij een campagne (+ klant)
+-- ------------------------------------------------------------
+ALTER TABLE sms_outbox ALTER COLUMN appointment_id DROP NOT NULL;
+ALTER TABLE sms_outbox ADD COLUMN IF NOT EXISTS campaign_id BIGINT REFERENCES sms_campaigns(id) ON DELETE CASCADE;
+ALTER TABLE sms_outbox ADD COLUMN IF NOT EXISTS customer_id BIGINT REFERENCES customers(id) ON DELETE CASCADE;
+ALTER TABLE sms_outbox ADD CONSTRAINT chk_sms_outbox_target
+    CHECK (appointment_id IS NOT NULL OR (campaign_id IS NOT NULL AND customer_id IS NOT NULL));
+
+-- backlog per campagne (PENDING + HELD bij pauze)
+CREATE INDEX IF NOT EXISTS idx_sms_outbox_campaign_open
+    ON sms_outbox(campaign_id, status) WHERE campaign_id IS NOT NULL AND status IN ('PENDING', 'HELD');
+
+-- ------------------------------------------------------------
+-- SMS logs: campagne-SMS hebben geen afspraak
+-- geen FK naar sms_campaigns: partities worden gedropt, campagnes blijven
+-- ------------------------------------------------------------
+ALTER TABLE sms_logs ALTER COLUMN appointment_id DROP NOT NULL;
+ALTER TABLE sms_logs ADD COLUMN IF NOT EXISTS campaign_id BIGINT;
+ALTER TABLE sms_logs ADD CONSTRAINT chk_sms_logs_target
+    CHECK (appointment_id IS NOT NULL OR campaign_id IS NOT NULL);
+
+-- voortgang per campagne (GROUP BY status)
+CREATE INDEX IF NOT EXISTS idx_sms_logs_campaign ON sms_logs(campaign_id, status) WHERE campaign_id IS NOT NULL;
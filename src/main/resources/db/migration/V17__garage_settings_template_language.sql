@@ -0,0 +1,31 @@
+-- V17__garage_settings_template_language.sql
+-- De V2 seed bevatte placeholders ('Vul adres in', lege telefoon) en een Nederlandse
+-- bevestiging zonder {{time}}, terwijl tay.sms.language standaard FR is.
+--
+-- - template_language: taal van de templates in deze rij; de SmsTemplateEngine gebruikt ze
+--   enkel als die overeenkomt met tay.sms.language (NULL = oude rij, elke taal).
+-- - Onbewerkte seed: lege waarden op NULL (engine valt terug op tay.garage.*) en de
+--   ingebouwde FR teksten i.p.v. de seed-teksten. De engine kent de seed zelf niet meer.
+-- - Half bewerkte rij (1 template aangepast): enkel de onbewerkte kolom krijgt de ingebouwde
+--   FR tekst; template_language blijft NULL zodat de aangepaste tekst in elke taal gebruikt blijft.
+
+ALTER TABLE garage_settings ADD COLUMN IF NOT EXISTS template_language VARCHAR(2);
+ALTER TABLE garage_settings ALTER COLUMN address DROP NOT NULL;
+
+UPDATE garage_settings SET address = NULL WHERE address = 'Vul adres in';
+UPDATE garage_settings SET phone = NULL WHERE phone = '';
+UPDATE garage_settings SET kvk_number = NULL WHERE kvk_number = '';
+UPDATE garage_settings SET logo_url = NULL WHERE logo_url = '';
+
+UPDATE garage_settings
+SET template_language = 'FR'
+WHERE template_confirmation = 'Hoi {{customerName}}, je afspraak bij {{garageName}} staat gepland op {{date}}. Adres: {{address}}. Prijs: €{{price}}.'
+  AND template_ready = 'Hoi {{customerName}}, je auto is klaar. Je kan langskomen bij {{garageName}} op {{address}}.';
+
+UPDATE garage_settings
+SET template_confirmation = E'TayPerformance ✅ RDV confirmé\nLe {{date}} à {{time}}\nAdresse: {{address}}'
+WHERE template_confirmation = 'Hoi {{customerName}}, je afspraak bij {{garageName}} staat gepland op {{date}}. Adres: {{address}}. Prijs: €{{price}}.';
+
+UPDATE garage_settings
+SET template_ready = 'TayPerformance 🚗 Votre véhicule est prêt. Vous pouvez passer chez {{garageName}}, {{address}}.'
+WHERE template_ready = 'Hoi {{customerName}}, je auto is klaar. Je kan langskomen bij {{garageName}} op {{address}}.';
@@ -0,0 +1,17 @@
+-- V3__align_overlap_constraint.sql
+-- Exclusion constraint gelijktrekken met de echte blokkerende statussen
+-- (AppointmentConflictChecker.BLOCKING_STATUSES = CONFIRMED, IN_PROGRESS).
+-- V1 gebruikte 'RESCHEDULED', een status die niet bestaat in AppointmentStatus.
+--
+-- Let op: faalt als er vandaag al overlappende CONFIRMED/IN_PROGRESS afspraken
+-- per medewerker in de data zitten. Die eerst rechtzetten.
+
+ALTER TABLE appointments DROP CONSTRAINT IF EXISTS no_overlapping_per_staff;
+
+ALTER TABLE appointments
+    ADD CONSTRAINT no_overlapping_per_staff
+    EXCLUDE USING gist (
+        assigned_staff_id WITH =,
+        time_range WITH &&
+    )
+    WHERE (status IN ('CONFIRMED', 'IN_PROGRESS'));
@@ -0,0 +1,24 @@
+-- V4__trigram_search.sql
+-- Substring search (LIKE '%term%') via pg_trgm GIN indexes i.p.v. sequential scans.
+-- De queries vergelijken LOWER(kolom) met een al-lowercase pattern, zodat de
+-- expressie exact overeenkomt met de index-expressie.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- CUSTOMERS: telefoon als enkel cijfers ("+32 470/12.34.56" -> "32470123456")
+ALTER TABLE customers
+    ADD COLUMN IF NOT EXISTS phone_digits VARCHAR(30)
+    GENERATED ALWAYS AS (regexp_replace(phone, '[^0-9]', '', 'g')) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_customers_phone_digits_trgm
+    ON customers USING gin (phone_digits gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_customers_first_name_trgm
+    ON customers USING gin (lower(first_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_customers_last_name_trgm
+    ON customers USING gin (lower(last_name) gin_trgm_ops);
+
+-- APPOINTMENTS: merk / model
+CREATE INDEX IF NOT EXISTS idx_appt_car_brand_trgm
+    ON appointments USING gin (lower(car_brand) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_appt_car_model_trgm
+    ON appointments USING gin (lower(car_model) gin_trgm_ops);
@@ -0,0 +1,16 @@
+-- V5__appointment_fulltext.sql
+-- Full-text search op werknotities (description) met ranking.
+-- Description in zowel french als dutch config (stemming per taal), merk/model
+-- met 'simple' en zwaarder gewogen zodat "audi polish" eerst op de wagen matcht.
+-- (unaccent is niet IMMUTABLE en kan dus niet in een generated column.)
+
+ALTER TABLE appointments
+    ADD COLUMN IF NOT EXISTS search_tsv tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(car_brand, '') || ' ' || coalesce(car_model, '')), 'A') ||
+        setweight(to_tsvector('french', coalesce(description, '')), 'B') ||
+        setweight(to_tsvector('dutch', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_appt_search_tsv
+    ON appointments USING gin (search_tsv);
@@ -0,0 +1,30 @@
+-- V6__sms_outbox.sql
+-- Transactional outbox voor SMS: de rij wordt in dezelfde transactie als de boeking
+-- geschreven, een dispatcher claimt batches met FOR UPDATE SKIP LOCKED (multi-node safe).
+
+CREATE TABLE IF NOT EXISTS sms_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    appointment_id BIGINT NOT NULL REFERENCES appointments(id) ON DELETE CASCADE,
+    type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    available_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    locked_until TIMESTAMPTZ,
+    locked_by VARCHAR(80),
+    -- geen FK: sms_logs wordt later opgekuist/gepartitioneerd
+    sms_log_id BIGINT,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    processed_at TIMESTAMPTZ
+);
+
+-- dispatcher scant enkel openstaande rijen
+CREATE INDEX IF NOT EXISTS idx_sms_outbox_due
+    ON sms_outbox(available_at, id) WHERE status = 'PENDING';
+
+-- SMS_LOGS: kolommen die de entity al gebruikt maar nog niet in het schema stonden
+ALTER TABLE sms_logs ADD COLUMN IF NOT EXISTS message_body TEXT NOT NULL DEFAULT '';
+ALTER TABLE sms_logs ALTER COLUMN message_body DROP DEFAULT;
+ALTER TABLE sms_logs ADD COLUMN IF NOT EXISTS sent_at TIMESTAMPTZ;
+ALTER TABLE sms_logs ADD COLUMN IF NOT EXISTS delivered_at TIMESTAMPTZ;
+ALTER TABLE sms_logs ADD COLUMN IF NOT EXISTS expires_at TIMESTAMPTZ;
+CREATE INDEX IF NOT EXISTS idx_sms_expires ON sms_logs(expires_at);
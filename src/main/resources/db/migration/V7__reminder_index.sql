@@ -0,0 +1,9 @@
+-- V7__reminder_index.sql
+-- Reminder scheduler: range scan op start_time, enkel over CONFIRMED afspraken.
+
+CREATE INDEX IF NOT EXISTS idx_appt_confirmed_start
+    ON appointments(start_time, id) WHERE status = 'CONFIRMED';
+
+-- NOT EXISTS checks per afspraak + type
+CREATE INDEX IF NOT EXISTS idx_sms_outbox_appt_type ON sms_outbox(appointment_id, type);
+CREATE INDEX IF NOT EXISTS idx_sms_appt_type ON sms_logs(appointment_id, type);
@@ -0,0 +1,9 @@
+-- V8__sms_retry.sql
+-- Automatische retries voor gefaalde SMS: pogingen + volgende retry tijdstip.
+
+ALTER TABLE sms_logs ADD COLUMN IF NOT EXISTS attempts INT NOT NULL DEFAULT 0;
+ALTER TABLE sms_logs ADD COLUMN IF NOT EXISTS next_retry_at TIMESTAMPTZ;
+
+-- retrier scant enkel FAILED logs met een geplande retry
+CREATE INDEX IF NOT EXISTS idx_sms_retry_due
+    ON sms_logs(next_retry_at) WHERE status = 'FAILED' AND next_retry_at IS NOT NULL;
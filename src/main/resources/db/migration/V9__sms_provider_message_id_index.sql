@@ -0,0 +1,5 @@
+-- V9__sms_provider_message_id_index.sql
+-- Status callbacks van de provider zoeken de log op via provider_message_id (Twilio SID).
+
+CREATE INDEX IF NOT EXISTS idx_sms_provider_message_id
+    ON sms_logs(provider_message_id) WHERE provider_message_id IS NOT NULL;
@@ -0,0 +1,45 @@
+package com.tayperformance.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmsRateLimitPropertiesTest {
+
+    @Test
+    void singleNodeGetsTheFullLimit() {
+        SmsRateLimitProperties props = new SmsRateLimitProperties();
+        props.setPermitsPerSecond(10);
+        props.setBurst(20);
+
+        assertEquals(10.0, props.permitsPerSecond("MG1"));
+        assertEquals(20, props.burst("MG1"));
+    }
+
+    @Test
+    void limitIsSharedAcrossNodes() {
+        SmsRateLimitProperties props = new SmsRateLimitProperties();
+        props.setPermitsPerSecond(10);
+        props.setBurst(5);
+        props.setNodes(4);
+
+        assertEquals(2.5, props.permitsPerSecond("MG1"));
+        assertEquals(1, props.burst("MG1"));
+    }
+
+    @Test
+    void senderOverrideIsAlsoShared() {
+        SmsRateLimitProperties.Sender sender = new SmsRateLimitProperties.Sender();
+        sender.setPermitsPerSecond(30.0);
+        sender.setBurst(9);
+        SmsRateLimitProperties props = new SmsRateLimitProperties();
+        props.setSenders(Map.of("MG1", sender));
+        props.setNodes(3);
+
+        assertEquals(10.0, props.permitsPerSecond("MG1"));
+        assertEquals(3, props.burst("MG1"));
+        assertEquals(1.0 / 3, props.permitsPerSecond("other"));
+    }
+}
@@ -0,0 +1,41 @@
+package com.tayperformance.controller.internalapi;
+
+import com.tayperformance.dto.customer.CustomerResponse;
+import com.tayperformance.service.customer.CustomerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InternalCustomerControllerTest {
+
+    private final CustomerService service = mock(CustomerService.class);
+    private final InternalCustomerController controller = new InternalCustomerController(service);
+
+    @Test
+    void matchingIfNoneMatchReturns304WithoutLoadingCustomer() {
+        when(service.etag(7L)).thenReturn("\"cust-7-v3\"");
+
+        ResponseEntity<CustomerResponse> res = controller.get(7L, "W/\"cust-7-v3\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, res.getStatusCode());
+        assertEquals("\"cust-7-v3\"", res.getHeaders().getETag());
+        assertNull(res.getBody());
+        verify(service, never()).getById(any());
+    }
+
+    @Test
+    void staleIfNoneMatchReturnsBodyWithNewTag() {
+        CustomerResponse body = CustomerResponse.builder().id(7L).build();
+        when(service.etag(7L)).thenReturn("\"cust-7-v4\"");
+        when(service.getById(7L)).thenReturn(body);
+
+        ResponseEntity<CustomerResponse> res = controller.get(7L, "\"cust-7-v3\"");
+
+        assertEquals(HttpStatus.OK, res.getStatusCode());
+        assertEquals("\"cust-7-v4\"", res.getHeaders().getETag());
+        assertSame(body, res.getBody());
+    }
+}
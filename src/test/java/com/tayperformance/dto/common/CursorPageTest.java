@@ -0,0 +1,35 @@
+package com.tayperformance.dto.common;
+
+import com.tayperformance.exception.BadRequestException;
+import com.tayperformance.util.KeysetCursor;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorPageTest {
+
+    private static final OffsetDateTime T = OffsetDateTime.of(2026, 2, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    void limitFetchesOneExtraRowWithinCap() {
+        assertEquals(21, CursorPage.limit(20).max());
+        assertEquals(CursorPage.MAX_SIZE + 1, CursorPage.limit(CursorPage.MAX_SIZE).max());
+        assertThrows(BadRequestException.class, () -> CursorPage.limit(0));
+        assertThrows(BadRequestException.class, () -> CursorPage.limit(CursorPage.MAX_SIZE + 1));
+    }
+
+    @Test
+    void extraRowYieldsCursorOfLastReturnedRow() {
+        CursorPage<Long> page = CursorPage.of(List.of(3L, 2L, 1L), 2, Function.identity(),
+                id -> new KeysetCursor(T, id));
+
+        assertEquals(List.of(3L, 2L), page.content());
+        assertEquals(2L, KeysetCursor.decode(page.nextCursor()).id());
+        assertFalse(CursorPage.of(List.of(1L), 2, Function.identity(), id -> new KeysetCursor(T, id)).hasNext());
+    }
+}
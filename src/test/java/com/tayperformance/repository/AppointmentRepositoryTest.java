@@ -0,0 +1,167 @@
+package com.tayperformance.repository;
+
+import com.tayperformance.entity.*;
+import com.tayperformance.repository.projection.AppointmentListView;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+class AppointmentRepositoryTest {
+
+    @Autowired
+    private AppointmentRepository repo;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private Statistics stats;
+
+    @BeforeEach
+    void setUp() {
+        User staff = em.persist(User.builder()
+                .username("staff@tay.be").passwordHash("x").role(Role.STAFF).build());
+
+        OffsetDateTime start = OffsetDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < 12; i++) {
+            Customer c = em.persist(Customer.builder()
+                    .phone("+3247000000" + String.format("%02d", i))
+                    .firstName("Klant" + i)
+                    .lastName("Test")
+                    .build());
+            em.persist(Appointment.builder()
+                    .customer(c)
+                    .assignedStaff(staff)
+                    .carBrand("Audi")
+                    .carModel("A" + i)
+                    .startTime(start.plusHours(i))
+                    .endTime(start.plusHours(i).plusMinutes(60))
+                    .status(AppointmentStatus.CONFIRMED)
+                    .build());
+        }
+        em.flush();
+        em.clear();
+
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+    }
+
+    @Test
+    void searchPageUsesOneSelectPlusCount() {
+        Page<AppointmentListView> page = repo.listAll(PageRequest.of(0, 5));
+        page.getContent().forEach(v -> {
+            assertNotNull(v.getCustomerPhone());
+            assertNotNull(v.getAssignedStaffId());
+        });
+
+        assertEquals(12, page.getTotalElements());
+        assertEquals(5, page.getContent().size());
+        assertEquals(2, stats.getPrepareStatementCount(), "select + count, geen query per rij");
+        assertEquals(0, stats.getEntityLoadCount());
+    }
+
+    @Test
+    void searchAdvancedPageUsesOneSelectPlusCount() {
+        OffsetDateTime from = OffsetDateTime.now();
+        Page<AppointmentListView> page = repo.searchAdvanced("%audi%", "%audi%", from, from.plusDays(3), PageRequest.of(1, 5));
+        page.getContent().forEach(v -> assertNotNull(v.getCustomerFirstName()));
+
+        assertEquals(12, page.getTotalElements());
+        assertEquals(2, stats.getPrepareStatementCount());
+        assertEquals(0, stats.getEntityLoadCount());
+    }
+
+    @Test
+    void seekWalksAllRowsWithoutCount() {
+        Set<Long> seen = new HashSet<>();
+        List<AppointmentListView> page = repo.seekFirst("%", "%", Limit.of(5));
+        int statements = 1;
+
+        while (!page.isEmpty()) {
+            page.forEach(v -> assertTrue(seen.add(v.getId()), "geen dubbele rijen"));
+            AppointmentListView last = page.get(page.size() - 1);
+            page = repo.seekAfter("%", "%", last.getStartTime(), last.getId(), Limit.of(5));
+            statements++;
+        }
+
+        assertEquals(12, seen.size());
+        assertEquals(statements, stats.getPrepareStatementCount(), "1 statement per pagina, geen COUNT");
+    }
+
+    @Test
+    void streamForExportIsOrderedAndLoadsNoEntities() {
+        OffsetDateTime from = OffsetDateTime.now();
+        try (Stream<AppointmentListView> stream = repo.streamForExport(from, from.plusDays(3))) {
+            List<AppointmentListView> rows = stream.toList();
+
+            assertEquals(12, rows.size());
+            for (int i = 1; i < rows.size(); i++) {
+                assertFalse(rows.get(i).getStartTime().isBefore(rows.get(i - 1).getStartTime()));
+            }
+        }
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals(0, stats.getEntityLoadCount());
+    }
+
+    @Test
+    void dueForReminderSkipsAlreadyScheduled() {
+        OffsetDateTime from = OffsetDateTime.now();
+        List<Long> due = repo.findDueForReminder(from, from.plusDays(3), Limit.of(100));
+        assertEquals(12, due.size());
+
+        em.persist(SmsOutbox.builder()
+                .appointment(em.find(Appointment.class, due.get(0)))
+                .type(SmsType.REMINDER)
+                .build());
+        em.flush();
+
+        List<Long> again = repo.findDueForReminder(from, from.plusDays(3), Limit.of(100));
+        assertEquals(11, again.size());
+        assertFalse(again.contains(due.get(0)));
+    }
+
+    @Test
+    void fullTextRowsAreLoadedByIdWithEntityTypes() {
+        // fullTextSearchIds zelf vraagt Postgres (tsvector); de rijen komen via JPQL
+        List<Long> ids = repo.listAll(PageRequest.of(0, 3)).map(AppointmentListView::getId).getContent();
+        stats.clear();
+
+        List<AppointmentListView> rows = repo.findListViewsByIdIn(ids);
+
+        assertEquals(Set.copyOf(ids), rows.stream().map(AppointmentListView::getId).collect(Collectors.toSet()));
+        rows.forEach(v -> {
+            assertEquals(AppointmentStatus.CONFIRMED, v.getStatus());
+            assertNotNull(v.getStartTime());
+            assertNotNull(v.getAssignedStaffId());
+        });
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals(0, stats.getEntityLoadCount());
+    }
+}
@@ -0,0 +1,45 @@
+package com.tayperformance.repository;
+
+import com.tayperformance.entity.Customer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@ActiveProfiles("test")
+class CustomerRepositoryTest {
+
+    @Autowired
+    private CustomerRepository repo;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Test
+    void nullVersionCountsAsZero() {
+        Customer c = em.persist(Customer.builder().phone("+32470000001").firstName("Sam").build());
+        em.flush();
+        // oude rij van voor @Version
+        em.getEntityManager().createNativeQuery("UPDATE customers SET version = NULL WHERE id = :id")
+                .setParameter("id", c.getId())
+                .executeUpdate();
+        em.clear();
+
+        assertEquals(Optional.of(0L), repo.findVersionById(c.getId()));
+    }
+
+    @Test
+    void unknownCustomerHasNoVersion() {
+        assertTrue(repo.findVersionById(-1L).isEmpty());
+    }
+}
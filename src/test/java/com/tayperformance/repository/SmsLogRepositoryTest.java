@@ -0,0 +1,111 @@
+package com.tayperformance.repository;
+
+import com.tayperformance.entity.*;
+import com.tayperformance.repository.projection.SmsLogListView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@ActiveProfiles("test")
+class SmsLogRepositoryTest {
+
+    private static final OffsetDateTime BASE = OffsetDateTime.of(2026, 2, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private SmsLogRepository repo;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private Appointment appt;
+
+    @BeforeEach
+    void setUp() {
+        Customer c = em.persist(Customer.builder().phone("+33612345678").firstName("Test").build());
+        appt = em.persist(Appointment.builder()
+                .customer(c)
+                .carBrand("Audi")
+                .startTime(BASE)
+                .endTime(BASE.plusHours(1))
+                .build());
+
+        // 10 logs, 1 per uur; even = CONFIRM/SENT, oneven = REMINDER/FAILED; 2 met hetzelfde tijdstip
+        for (int i = 0; i < 10; i++) {
+            boolean even = i % 2 == 0;
+            log(even ? SmsType.CONFIRM : SmsType.REMINDER, even ? SmsStatus.SENT : SmsStatus.FAILED,
+                    BASE.plusHours(Math.min(i, 8)));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void seekWalksAllPagesNewestFirstWithoutGapsOrDuplicates() {
+        EnumSet<SmsStatus> statuses = EnumSet.allOf(SmsStatus.class);
+        EnumSet<SmsType> types = EnumSet.allOf(SmsType.class);
+        OffsetDateTime from = BASE.minusDays(1), to = BASE.plusDays(1);
+
+        List<SmsLogListView> all = new ArrayList<>();
+        List<SmsLogListView> page = repo.seekFirst(statuses, types, from, to, Limit.of(3));
+        while (!page.isEmpty()) {
+            all.addAll(page);
+            SmsLogListView last = page.get(page.size() - 1);
+            page = repo.seekAfter(statuses, types, from, last.getCreatedAt(), last.getId(), Limit.of(3));
+        }
+
+        assertEquals(10, all.size());
+        assertEquals(10, all.stream().map(SmsLogListView::getId).distinct().count());
+        for (int i = 1; i < all.size(); i++) {
+            SmsLogListView prev = all.get(i - 1), cur = all.get(i);
+            assertTrue(cur.getCreatedAt().isBefore(prev.getCreatedAt())
+                    || (cur.getCreatedAt().isEqual(prev.getCreatedAt()) && cur.getId() < prev.getId()));
+        }
+        assertEquals(appt.getId(), all.get(0).getAppointmentId());
+    }
+
+    @Test
+    void filtersOnStatusTypeAndDateRange() {
+        List<SmsLogListView> failed = repo.seekFirst(EnumSet.of(SmsStatus.FAILED), EnumSet.allOf(SmsType.class),
+                BASE.minusDays(1), BASE.plusDays(1), Limit.of(50));
+        assertEquals(5, failed.size());
+        assertTrue(failed.stream().allMatch(v -> v.getType() == SmsType.REMINDER));
+
+        List<SmsLogListView> confirmsInRange = repo.seekFirst(EnumSet.allOf(SmsStatus.class), EnumSet.of(SmsType.CONFIRM),
+                BASE.plusHours(2), BASE.plusHours(6), Limit.of(50));
+        // uur 2 en 4 (6 valt buiten: to is exclusief)
+        assertEquals(2, confirmsInRange.size());
+    }
+
+    private void log(SmsType type, SmsStatus status, OffsetDateTime createdAt) {
+        SmsLog l = em.persist(SmsLog.builder()
+                .appointment(appt)
+                .type(type)
+                .status(status)
+                .toPhone("+33612345678")
+                .messageBody("TayPerformance test bericht")
+                .build());
+        em.flush();
+        // created_at is @CreationTimestamp: achteraf zetten
+        em.getEntityManager().createNativeQuery("UPDATE sms_logs SET created_at = ?1 WHERE id = ?2")
+                .setParameter(1, createdAt)
+                .setParameter(2, l.getId())
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,75 @@
+package com.tayperformance.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private JwtProvider jwt;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwt = new JwtProvider("devSecret12345_devSecret12345_dev!", 60_000);
+        UserDetailsService users = mock(UserDetailsService.class);
+        when(users.loadUserByUsername("staff@tay.be"))
+                .thenReturn(User.withUsername("staff@tay.be").password("x").roles("STAFF").build());
+        filter = new JwtAuthenticationFilter(jwt, users);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void streamTicketInQueryAuthenticatesStream() throws Exception {
+        assertTrue(authenticates(get(JwtAuthenticationFilter.STREAM_PATH,
+                jwt.generateStreamTicket("staff@tay.be", 60_000))));
+    }
+
+    @Test
+    void ticketIsOnlyValidForTheStream() throws Exception {
+        String ticket = jwt.generateStreamTicket("staff@tay.be", 60_000);
+
+        // niet op andere endpoints, ook niet als Bearer header
+        assertFalse(authenticates(get("/api/internal/appointments", ticket)));
+        MockHttpServletRequest header = get("/api/internal/appointments", null);
+        header.addHeader("Authorization", "Bearer " + ticket);
+        assertFalse(authenticates(header));
+    }
+
+    @Test
+    void loginTokenIsNotAcceptedInQuery() throws Exception {
+        assertFalse(authenticates(get(JwtAuthenticationFilter.STREAM_PATH, jwt.generateToken("staff@tay.be"))));
+    }
+
+    @Test
+    void expiredTicketIsRejected() throws Exception {
+        assertFalse(authenticates(get(JwtAuthenticationFilter.STREAM_PATH,
+                jwt.generateStreamTicket("staff@tay.be", -1_000))));
+    }
+
+    private static MockHttpServletRequest get(String path, String ticket) {
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", path);
+        req.setServletPath(path);
+        if (ticket != null) req.setParameter(JwtAuthenticationFilter.TICKET_PARAM, ticket);
+        return req;
+    }
+
+    private boolean authenticates(MockHttpServletRequest req) throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(req, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication() != null;
+    }
+}
@@ -0,0 +1,73 @@
+package com.tayperformance.service.appointment;
+
+import com.tayperformance.dto.appointment.AppointmentResponse;
+import com.tayperformance.exception.BadRequestException;
+import com.tayperformance.repository.AppointmentRepository;
+import com.tayperformance.repository.SmsLogRepository;
+import com.tayperformance.repository.UserRepository;
+import com.tayperformance.repository.projection.AppointmentListView;
+import com.tayperformance.service.appointment.core.AppointmentChangeNotifier;
+import com.tayperformance.service.appointment.core.AppointmentConflictChecker;
+import com.tayperformance.service.appointment.core.AppointmentSmsScheduler;
+import com.tayperformance.service.appointment.core.AppointmentValidator;
+import com.tayperformance.service.customer.CustomerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * GET /api/internal/appointments/fulltext: de query zelf vraagt Postgres (tsvector),
+ * hier enkel validatie en het behoud van de rangorde.
+ */
+class AppointmentFullTextSearchTest {
+
+    private AppointmentRepository repo;
+    private AppointmentService service;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(AppointmentRepository.class);
+        service = new AppointmentService(repo, mock(UserRepository.class), mock(AppointmentValidator.class),
+                mock(AppointmentConflictChecker.class), mock(AppointmentSmsScheduler.class),
+                mock(AppointmentChangeNotifier.class), mock(CustomerService.class), mock(SmsLogRepository.class));
+    }
+
+    @Test
+    void keepsRankOrderOfFullTextQuery() {
+        when(repo.fullTextSearchIds("remblokken", 20)).thenReturn(List.of(7L, 3L, 9L));
+        // IN-query geeft de rijen in willekeurige volgorde; 9 is intussen verwijderd
+        List<AppointmentListView> rows = List.of(view(3L), view(7L));
+        when(repo.findListViewsByIdIn(List.of(7L, 3L, 9L))).thenReturn(rows);
+
+        List<AppointmentResponse> result = service.fullTextSearch(" remblokken ", 20);
+
+        assertEquals(List.of(7L, 3L), result.stream().map(AppointmentResponse::getId).toList());
+    }
+
+    @Test
+    void noMatchesSkipsRowQuery() {
+        when(repo.fullTextSearchIds("xyz", 20)).thenReturn(List.of());
+
+        assertTrue(service.fullTextSearch("xyz", 20).isEmpty());
+        verify(repo, never()).findListViewsByIdIn(any());
+    }
+
+    @Test
+    void rejectsBlankQueryAndBadLimit() {
+        assertThrows(BadRequestException.class, () -> service.fullTextSearch(" ", 20));
+        assertThrows(BadRequestException.class, () -> service.fullTextSearch("olie", 0));
+        assertThrows(BadRequestException.class, () -> service.fullTextSearch("olie", 101));
+    }
+
+    private static AppointmentListView view(Long id) {
+        AppointmentListView v = mock(AppointmentListView.class);
+        when(v.getId()).thenReturn(id);
+        when(v.getCustomerPhone()).thenReturn("+32470000000");
+        return v;
+    }
+}
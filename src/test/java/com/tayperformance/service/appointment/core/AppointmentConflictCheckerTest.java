@@ -0,0 +1,131 @@
+package com.tayperformance.service.appointment.core;
+
+import com.tayperformance.entity.Appointment;
+import com.tayperformance.entity.AppointmentStatus;
+import com.tayperformance.entity.User;
+import com.tayperformance.exception.ConflictException;
+import com.tayperformance.repository.AppointmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AppointmentConflictCheckerTest {
+
+    private static final OffsetDateTime START = OffsetDateTime.of(2026, 2, 15, 10, 0, 0, 0, ZoneOffset.UTC);
+
+    private AppointmentRepository repo;
+    private StaffScheduleIndex index;
+    private AppointmentConflictChecker checker;
+    private User staff;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(AppointmentRepository.class);
+        index = mock(StaffScheduleIndex.class);
+        checker = new AppointmentConflictChecker(repo, index);
+        staff = User.builder().id(5L).build();
+        when(index.isReady()).thenReturn(true);
+    }
+
+    @Test
+    void ensureNoConflictAlwaysAsksDatabase() {
+        when(repo.findConflicting(any(), any(), any(), any(), any())).thenReturn(List.of(existing(9L, AppointmentStatus.CONFIRMED)));
+
+        assertThrows(ConflictException.class, () -> checker.ensureNoConflict(candidate()));
+        verifyNoInteractions(index);
+    }
+
+    @Test
+    void checkThenInsertQueriesBeforeWriting() {
+        ReflectionTestUtils.setField(checker, "bookingMode", BookingMode.CHECK_THEN_INSERT);
+        when(index.findConflict(any(), any(), any(), any())).thenReturn(OptionalLong.empty());
+        when(repo.findConflicting(any(), any(), any(), any(), any())).thenReturn(List.of(existing(9L, AppointmentStatus.CONFIRMED)));
+
+        assertThrows(ConflictException.class, () -> checker.saveChecked(candidate()));
+        verify(repo, never()).saveAndFlush(any());
+        verifyNoInteractions(index);
+    }
+
+    @Test
+    void constraintModeWritesWithoutQuery() {
+        ReflectionTestUtils.setField(checker, "bookingMode", BookingMode.CONSTRAINT);
+        when(index.findConflict(any(), any(), any(), any())).thenReturn(OptionalLong.empty());
+        Appointment appt = candidate();
+        when(repo.saveAndFlush(appt)).thenReturn(appt);
+
+        assertSame(appt, checker.saveChecked(appt));
+        verify(repo, never()).findConflicting(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void constraintModeIndexHitRejectsWithExistingAppointment() {
+        ReflectionTestUtils.setField(checker, "bookingMode", BookingMode.CONSTRAINT);
+        when(index.findConflict(any(), any(), any(), any())).thenReturn(OptionalLong.of(9L));
+        when(repo.findConflicting(any(), any(), any(), any(), any())).thenReturn(List.of(existing(9L, AppointmentStatus.CONFIRMED)));
+
+        ConflictException e = assertThrows(ConflictException.class, () -> checker.saveChecked(candidate()));
+        assertEquals(9L, e.getDetails().get("conflictingAppointmentId"));
+        verify(repo, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void constraintModeStaleIndexHitStillWrites() {
+        ReflectionTestUtils.setField(checker, "bookingMode", BookingMode.CONSTRAINT);
+        when(index.findConflict(any(), any(), any(), any())).thenReturn(OptionalLong.of(9L));
+        when(repo.findConflicting(any(), any(), any(), any(), any())).thenReturn(List.of());
+        Appointment appt = candidate();
+        when(repo.saveAndFlush(appt)).thenReturn(appt);
+
+        assertSame(appt, checker.saveChecked(appt));
+    }
+
+    @Test
+    void exclusionViolationBecomesStaffOverlap() {
+        ReflectionTestUtils.setField(checker, "bookingMode", BookingMode.CONSTRAINT);
+        when(index.findConflict(any(), any(), any(), any())).thenReturn(OptionalLong.empty());
+        SQLException sql = new SQLException(
+                "conflicting key value violates exclusion constraint \"no_overlapping_per_staff\"", "23P01");
+        when(repo.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("insert", sql));
+
+        ConflictException e = assertThrows(ConflictException.class, () -> checker.saveChecked(candidate()));
+        assertEquals("APPOINTMENT_OVERLAP", e.getCode());
+        assertEquals(5L, e.getDetails().get("staffId"));
+        assertEquals(START, e.getDetails().get("requestedStartTime"));
+    }
+
+    @Test
+    void otherIntegrityViolationIsRethrown() {
+        ReflectionTestUtils.setField(checker, "bookingMode", BookingMode.CONSTRAINT);
+        when(index.findConflict(any(), any(), any(), any())).thenReturn(OptionalLong.empty());
+        when(repo.saveAndFlush(any())).thenThrow(
+                new DataIntegrityViolationException("insert", new SQLException("not null", "23502")));
+
+        assertThrows(DataIntegrityViolationException.class, () -> checker.saveChecked(candidate()));
+    }
+
+    private Appointment candidate() {
+        return Appointment.builder().assignedStaff(staff).startTime(START).endTime(START.plusHours(1)).build();
+    }
+
+    private Appointment existing(Long id, AppointmentStatus status) {
+        return Appointment.builder()
+                .id(id)
+                .assignedStaff(staff)
+                .carBrand("Audi")
+                .status(status)
+                .startTime(START.minusMinutes(30))
+                .endTime(START.plusMinutes(30))
+                .build();
+    }
+}
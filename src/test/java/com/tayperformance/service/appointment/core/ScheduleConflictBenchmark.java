@@ -0,0 +1,138 @@
+package com.tayperformance.service.appointment.core;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.*;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vergelijkt de conflict-check via {@link StaffScheduleIndex.Timeline} met de query-route
+ * (zelfde predicaat als AppointmentRepository.findConflicting, via JDBC op in-memory H2).
+ *
+ * Enkel een micro-benchmark van de datastructuur: H2 in-memory heeft niets gemeen met
+ * Postgres (planner, GiST-index, netwerk), dus hieruit volgt geen uitspraak over productie.
+ * De index vervangt de query ook nergens; zie StaffScheduleIndex.
+ *
+ * Run:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *        com.tayperformance.service.appointment.core.ScheduleConflictBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduleConflictBenchmark {
+
+    private static final OffsetDateTime BASE = OffsetDateTime.of(2026, 1, 5, 8, 0, 0, 0, ZoneOffset.UTC);
+
+    @Param({"200", "2000"})
+    int appointmentsPerStaff;
+
+    private static final int STAFF = 5;
+
+    private StaffScheduleIndex.Timeline timeline;
+    private Connection connection;
+    private PreparedStatement conflictQuery;
+
+    private long[] probeStarts;
+    private int probe;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1");
+        try (Statement st = connection.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS appointments");
+            st.execute("""
+                CREATE TABLE appointments (
+                    id BIGINT PRIMARY KEY,
+                    assigned_staff_id BIGINT,
+                    car_brand VARCHAR(80),
+                    start_time TIMESTAMP WITH TIME ZONE,
+                    end_time TIMESTAMP WITH TIME ZONE,
+                    status VARCHAR(20))
+                """);
+            st.execute("CREATE INDEX idx_appt_assigned_start ON appointments(assigned_staff_id, start_time)");
+        }
+
+        // 1 afspraak van 90 min per 2 uur, per medewerker
+        long id = 1;
+        try (PreparedStatement ins = connection.prepareStatement("INSERT INTO appointments VALUES (?,?,?,?,?,?)")) {
+            for (int staff = 1; staff <= STAFF; staff++) {
+                for (int i = 0; i < appointmentsPerStaff; i++) {
+                    OffsetDateTime start = BASE.plusHours(2L * i);
+                    OffsetDateTime end = start.plusMinutes(90);
+                    ins.setLong(1, id);
+                    ins.setLong(2, staff);
+                    ins.setString(3, "Audi");
+                    ins.setObject(4, start);
+                    ins.setObject(5, end);
+                    ins.setString(6, "CONFIRMED");
+                    ins.addBatch();
+
+                    if (staff == 1) {
+                        timeline = (timeline == null)
+                                ? StaffScheduleIndex.Timeline.of(id, start.toEpochSecond(), end.toEpochSecond())
+                                : timeline.with(id, start.toEpochSecond(), end.toEpochSecond());
+                    }
+                    id++;
+                }
+            }
+            ins.executeBatch();
+        }
+
+        conflictQuery = connection.prepareStatement("""
+            SELECT * FROM appointments a
+            WHERE a.status IN ('CONFIRMED','IN_PROGRESS')
+              AND a.assigned_staff_id = ?
+              AND a.start_time < ?
+              AND a.end_time > ?
+            ORDER BY a.start_time ASC
+            """);
+
+        // mix van vrije en bezette probes
+        SplittableRandom rnd = new SplittableRandom(42);
+        probeStarts = new long[1024];
+        for (int i = 0; i < probeStarts.length; i++) {
+            probeStarts[i] = BASE.toEpochSecond() + rnd.nextLong(appointmentsPerStaff * 7200L);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        conflictQuery.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public void index(Blackhole bh) {
+        long start = probeStarts[probe++ & 1023];
+        bh.consume(timeline.findOverlap(start, start + 1800, -1L));
+    }
+
+    @Benchmark
+    public void query(Blackhole bh) throws SQLException {
+        long start = probeStarts[probe++ & 1023];
+        conflictQuery.setLong(1, 1L);
+        conflictQuery.setObject(2, OffsetDateTime.ofInstant(java.time.Instant.ofEpochSecond(start + 1800), ZoneOffset.UTC));
+        conflictQuery.setObject(3, OffsetDateTime.ofInstant(java.time.Instant.ofEpochSecond(start), ZoneOffset.UTC));
+        try (ResultSet rs = conflictQuery.executeQuery()) {
+            bh.consume(rs.next() ? rs.getLong("id") : -1L);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ScheduleConflictBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
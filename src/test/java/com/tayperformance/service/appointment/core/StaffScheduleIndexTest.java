@@ -0,0 +1,77 @@
+package com.tayperformance.service.appointment.core;
+
+import com.tayperformance.repository.AppointmentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class StaffScheduleIndexTest {
+
+    private static StaffScheduleIndex.Timeline timeline() {
+        // [100,200) id=1, [300,400) id=2, [400,500) id=3
+        return StaffScheduleIndex.Timeline.of(2, 300, 400)
+                .with(1, 100, 200)
+                .with(3, 400, 500);
+    }
+
+    @Test
+    void detectsOverlap() {
+        assertEquals(1L, timeline().findOverlap(150, 250, -1).getAsLong());
+        assertEquals(2L, timeline().findOverlap(350, 360, -1).getAsLong());
+    }
+
+    @Test
+    void touchingIntervalsDoNotOverlap() {
+        assertTrue(timeline().findOverlap(200, 300, -1).isEmpty());
+        assertTrue(timeline().findOverlap(500, 600, -1).isEmpty());
+    }
+
+    @Test
+    void excludesOwnAppointment() {
+        assertTrue(timeline().findOverlap(310, 390, 2).isEmpty());
+    }
+
+    @Test
+    void findsLongAppointmentStartingEarlier() {
+        StaffScheduleIndex.Timeline t = timeline().with(9, 0, 1000);
+        assertEquals(9L, t.findOverlap(210, 290, -1).getAsLong());
+    }
+
+    @Test
+    void removeKeepsOrder() {
+        StaffScheduleIndex.Timeline t = timeline().without(2);
+        assertTrue(t.findOverlap(310, 390, -1).isEmpty());
+        assertEquals(3L, t.findOverlap(450, 460, -1).getAsLong());
+        assertTrue(t.without(1).without(3).isEmpty());
+    }
+
+    @Test
+    void endedAppointmentsArePruned() {
+        List<Long> removed = new ArrayList<>();
+        StaffScheduleIndex.Timeline t = timeline().endedBefore(400, removed::add);
+
+        assertEquals(List.of(1L, 2L), removed);
+        assertEquals(3L, t.findOverlap(450, 460, -1).getAsLong());
+        assertSame(t, t.endedBefore(400, removed::add));
+        assertTrue(t.endedBefore(500, removed::add).isEmpty());
+    }
+
+    @Test
+    void notLoadedInCheckThenInsertMode() {
+        AppointmentRepository repo = mock(AppointmentRepository.class);
+        StaffScheduleIndex index = new StaffScheduleIndex(repo);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "bookingMode", BookingMode.CHECK_THEN_INSERT);
+
+        index.warmUp();
+
+        assertFalse(index.isReady());
+        verifyNoInteractions(repo);
+    }
+}
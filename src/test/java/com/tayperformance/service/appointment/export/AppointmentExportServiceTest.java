@@ -0,0 +1,70 @@
+package com.tayperformance.service.appointment.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tayperformance.entity.AppointmentStatus;
+import com.tayperformance.repository.AppointmentRepository;
+import com.tayperformance.repository.projection.AppointmentListView;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AppointmentExportServiceTest {
+
+    private static final OffsetDateTime START = OffsetDateTime.of(2026, 2, 15, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    void csvNeutralisesFormulasInTextCells() throws Exception {
+        AppointmentListView v = mock(AppointmentListView.class);
+        when(v.getId()).thenReturn(1L);
+        when(v.getStartTime()).thenReturn(START);
+        when(v.getEndTime()).thenReturn(START.plusHours(1));
+        when(v.getStatus()).thenReturn(AppointmentStatus.CONFIRMED);
+        when(v.getCustomerFirstName()).thenReturn("=HYPERLINK(\"http://x\";\"klik\")");
+        when(v.getCustomerPhone()).thenReturn("+32470123456");
+        when(v.getCarBrand()).thenReturn("@SUM(A1)");
+        when(v.getCarModel()).thenReturn("Golf");
+        when(v.getPrice()).thenReturn(new BigDecimal("-10.00"));
+        when(v.getDescription()).thenReturn("-2+3");
+
+        String csv = export(v);
+        String row = csv.split("\n")[1];
+
+        assertEquals("1;2026-02-15T10:00;2026-02-15T11:00;60;CONFIRMED;"
+                + "\"'=HYPERLINK(\"\"http://x\"\";\"\"klik\"\")\";'+32470123456;'@SUM(A1);Golf;-10.00;'-2+3", row);
+    }
+
+    @Test
+    void plainTextIsWrittenAsIs() throws Exception {
+        AppointmentListView v = mock(AppointmentListView.class);
+        when(v.getId()).thenReturn(2L);
+        when(v.getCustomerFirstName()).thenReturn("Sam");
+        when(v.getCustomerPhone()).thenReturn("0470123456");
+        when(v.getCarBrand()).thenReturn("Audi");
+
+        String row = export(v).split("\n")[1];
+
+        assertEquals("2;;;;;Sam;0470123456;Audi;;;", row);
+    }
+
+    private static String export(AppointmentListView v) throws Exception {
+        AppointmentRepository repo = mock(AppointmentRepository.class);
+        when(repo.streamForExport(any(), any())).thenReturn(Stream.of(v));
+        AppointmentExportService service = new AppointmentExportService(repo, new ObjectMapper());
+        ReflectionTestUtils.setField(service, "maxDays", 366);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.export(AppointmentExportService.Format.CSV, LocalDate.of(2026, 2, 1), LocalDate.of(2026, 2, 28), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,182 @@
+package com.tayperformance.service.appointment.live;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tayperformance.entity.AppointmentStatus;
+import com.tayperformance.exception.ConflictException;
+import com.tayperformance.service.appointment.core.AppointmentChange;
+import com.tayperformance.service.appointment.core.AppointmentSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppointmentEventBroadcasterTest {
+
+    private static final OffsetDateTime START = OffsetDateTime.of(2026, 2, 15, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    private AppointmentEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new AppointmentEventBroadcaster(new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(broadcaster, "maxClients", 10);
+        ReflectionTestUtils.setField(broadcaster, "clientBuffer", 3);
+        ReflectionTestUtils.setField(broadcaster, "senderThreads", 2);
+        broadcaster.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void everyClientReceivesTheEvent() throws Exception {
+        RecordingEmitter a = new RecordingEmitter(null), b = new RecordingEmitter(null);
+        broadcaster.register(a);
+        broadcaster.register(b);
+
+        broadcaster.onAppointmentChanged(created(1L));
+
+        assertTrue(a.await(1) && b.await(1));
+        assertTrue(a.text().contains("event:appointment") && a.text().contains("\"type\":\"CREATED\""));
+        assertEquals(a.text(), b.text());
+    }
+
+    @Test
+    void slowClientDoesNotStallOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release), fast = new RecordingEmitter(null);
+        broadcaster.register(slow);
+        broadcaster.register(fast);
+
+        broadcaster.onAppointmentChanged(created(1L));
+        broadcaster.onAppointmentChanged(created(2L));
+
+        assertTrue(fast.await(2), "snelle client krijgt alles terwijl de trage nog schrijft");
+        release.countDown();
+        assertTrue(slow.await(2));
+    }
+
+    @Test
+    void clientWithFullBufferIsDisconnected() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter stuck = new RecordingEmitter(release), ok = new RecordingEmitter(null);
+        broadcaster.register(stuck);
+        broadcaster.register(ok);
+
+        // 1 event hangt in send, 3 in de buffer, het 5de past niet meer
+        broadcaster.onAppointmentChanged(created(1L));
+        assertTrue(stuck.sending.await(2, TimeUnit.SECONDS));
+        for (int id = 1; id <= 5; id++) {
+            if (id > 1) broadcaster.onAppointmentChanged(created((long) id));
+            assertTrue(ok.await(id));
+        }
+
+        assertEquals(1, broadcaster.clientCount());
+        release.countDown();
+        assertTrue(stuck.completed.await(2, TimeUnit.SECONDS), "trage client wordt afgesloten");
+    }
+
+    @Test
+    void concurrentSubscribesNeverExceedLimit() throws Exception {
+        int attempts = 50;
+        CountDownLatch go = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < attempts; i++) {
+                pool.execute(() -> {
+                    try {
+                        go.await();
+                        broadcaster.register(new RecordingEmitter(null));
+                    } catch (ConflictException e) {
+                        rejected.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            go.countDown();
+        } finally {
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(10, broadcaster.clientCount());
+        assertEquals(attempts - 10, rejected.get());
+    }
+
+    @Test
+    void closedClientFreesItsSlot() {
+        ReflectionTestUtils.setField(broadcaster, "maxClients", 1);
+        AppointmentEventBroadcaster.Client first = broadcaster.register(new RecordingEmitter(null));
+        assertThrows(ConflictException.class, () -> broadcaster.register(new RecordingEmitter(null)));
+
+        ReflectionTestUtils.invokeMethod(broadcaster, "close", first);
+        ReflectionTestUtils.invokeMethod(broadcaster, "close", first); // dubbel sluiten telt 1x
+
+        assertEquals(0, broadcaster.clientCount());
+        assertDoesNotThrow(() -> broadcaster.register(new RecordingEmitter(null)));
+    }
+
+    private static AppointmentChange created(Long id) {
+        return new AppointmentChange(null,
+                new AppointmentSnapshot(id, 5L, START, START.plusHours(1), AppointmentStatus.CONFIRMED));
+    }
+
+    /** Neemt frames op; blokkeert in send zolang release niet afgeteld is. */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch release;
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) {
+            sending.countDown();
+            try {
+                if (release != null) release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StringBuilder sb = new StringBuilder();
+            items.forEach(d -> sb.append(d.getData()));
+            frames.add(sb.toString());
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        boolean await(int count) throws InterruptedException {
+            long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while (frames.size() < count && System.nanoTime() < until) Thread.sleep(5);
+            return frames.size() >= count;
+        }
+
+        String text() {
+            return String.join("", frames);
+        }
+    }
+}
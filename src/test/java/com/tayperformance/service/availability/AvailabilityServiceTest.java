@@ -0,0 +1,158 @@
+package com.tayperformance.service.availability;
+
+import com.tayperformance.config.GarageProperties;
+import com.tayperformance.dto.availability.AvailabilitySlotResponse;
+import com.tayperformance.entity.AppointmentStatus;
+import com.tayperformance.entity.DetailService;
+import com.tayperformance.entity.Role;
+import com.tayperformance.repository.AppointmentRepository;
+import com.tayperformance.repository.DetailServiceRepository;
+import com.tayperformance.repository.UserRepository;
+import com.tayperformance.repository.projection.ScheduleSlotView;
+import com.tayperformance.service.appointment.core.AppointmentChange;
+import com.tayperformance.service.appointment.core.AppointmentSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.*;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AvailabilityServiceTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Brussels");
+
+    private AppointmentRepository appointmentRepo;
+    private UserRepository userRepo;
+    private AvailabilityService service;
+    private LocalDate day;
+
+    @BeforeEach
+    void setUp() {
+        appointmentRepo = mock(AppointmentRepository.class);
+        DetailServiceRepository serviceRepo = mock(DetailServiceRepository.class);
+        userRepo = mock(UserRepository.class);
+
+        // 08:00-10:00, elke dag open: 8 slots van 15 min; dienst van 30 min = 2 slots
+        GarageProperties garage = new GarageProperties();
+        garage.setOpeningTime(LocalTime.of(8, 0));
+        garage.setClosingTime(LocalTime.of(10, 0));
+        garage.setOpenDays(EnumSet.allOf(DayOfWeek.class));
+
+        service = new AvailabilityService(appointmentRepo, serviceRepo, userRepo, garage);
+        ReflectionTestUtils.setField(service, "slotMinutes", 15);
+        ReflectionTestUtils.setField(service, "maxDays", 31);
+        ReflectionTestUtils.setField(service, "minLeadMinutes", 0);
+        ReflectionTestUtils.setField(service, "staffTtlSeconds", 300L);
+        ReflectionTestUtils.setField(service, "cacheTtlSeconds", 300L);
+
+        when(serviceRepo.findById(1L)).thenReturn(Optional.of(
+                DetailService.builder().id(1L).name("Wash").defaultMinutes(30).build()));
+        when(userRepo.findActiveIdsByRole(Role.STAFF)).thenReturn(List.of(1L, 2L));
+        when(appointmentRepo.findBlockingSlotsBetween(any(), any(), any())).thenReturn(List.of());
+
+        day = LocalDate.now(ZONE).plusDays(10);
+    }
+
+    @Test
+    void countsStaffPerSlotFromFreeRuns() {
+        // medewerker 1 bezet 08:30-09:00 (slots 2 en 3)
+        busy(slot(10L, 1L, at(day, 8, 30), at(day, 9, 0)));
+
+        List<AvailabilitySlotResponse> slots = service.findFreeSlots(1L, day, day);
+
+        assertArrayEquals(new int[]{2, 1, 1, 1, 2, 2, 2}, staffPerSlot(slots));
+        assertEquals(at(day, 8, 0), slots.get(0).getStartTime());
+        assertEquals(at(day, 8, 30), slots.get(0).getEndTime());
+        verify(userRepo).findActiveIdsByRole(Role.STAFF);
+    }
+
+    @Test
+    void appointmentSpanningMidnightBlocksBothDays() {
+        busy(slot(10L, 1L, at(day, 9, 30), at(day.plusDays(1), 8, 30)));
+
+        List<AvailabilitySlotResponse> slots = service.findFreeSlots(1L, day, day.plusDays(1));
+
+        // dag 1: 09:15 en 09:30 botsen voor medewerker 1; dag 2: 08:00 en 08:15
+        assertArrayEquals(new int[]{2, 2, 2, 2, 2, 1, 1, 1, 1, 2, 2, 2, 2, 2}, staffPerSlot(slots));
+    }
+
+    @Test
+    void slotsInsideMinLeadAreNotOffered() {
+        ReflectionTestUtils.setField(service, "minLeadMinutes", (int) Duration.ofDays(12).toMinutes());
+
+        List<AvailabilitySlotResponse> slots = service.findFreeSlots(1L, day, day.plusDays(3));
+
+        // dag +10 en +11 vallen volledig binnen de marge, dag +13 volledig erbuiten
+        assertTrue(slots.stream().allMatch(s -> !s.getStartTime().toLocalDate().isBefore(day.plusDays(2))));
+        assertEquals(7, slots.stream().filter(s -> s.getStartTime().toLocalDate().equals(day.plusDays(3))).count());
+    }
+
+    @Test
+    void cacheIsInvalidatedByAppointmentChange() {
+        service.findFreeSlots(1L, day, day);
+        service.findFreeSlots(1L, day, day);
+        verify(appointmentRepo, times(1)).findBlockingSlotsBetween(any(), any(), any());
+
+        // nieuwe afspraak voor medewerker 2 om 08:00
+        busy(slot(11L, 2L, at(day, 8, 0), at(day, 8, 30)));
+        service.onAppointmentChanged(new AppointmentChange(null,
+                new AppointmentSnapshot(11L, 2L, at(day, 8, 0), at(day, 8, 30), AppointmentStatus.CONFIRMED)));
+
+        List<AvailabilitySlotResponse> slots = service.findFreeSlots(1L, day, day);
+        verify(appointmentRepo, times(2)).findBlockingSlotsBetween(any(), any(), any());
+        assertEquals(1, slots.get(0).getAvailableStaff());
+    }
+
+    @Test
+    void nonBlockingChangeKeepsCache() {
+        service.findFreeSlots(1L, day, day);
+        service.onAppointmentChanged(new AppointmentChange(null,
+                new AppointmentSnapshot(12L, 2L, at(day, 8, 0), at(day, 8, 30), AppointmentStatus.REQUESTED)));
+        service.findFreeSlots(1L, day, day);
+
+        verify(appointmentRepo, times(1)).findBlockingSlotsBetween(any(), any(), any());
+    }
+
+    @Test
+    void expiredDayIsReloaded() {
+        // boeking op een andere node: geen event hier, enkel de TTL helpt
+        ReflectionTestUtils.setField(service, "cacheTtlSeconds", 0L);
+        service.findFreeSlots(1L, day, day);
+
+        busy(slot(11L, 2L, at(day, 8, 0), at(day, 8, 30)));
+        List<AvailabilitySlotResponse> slots = service.findFreeSlots(1L, day, day);
+
+        verify(appointmentRepo, times(2)).findBlockingSlotsBetween(any(), any(), any());
+        assertEquals(1, slots.get(0).getAvailableStaff());
+    }
+
+    private void busy(ScheduleSlotView... slots) {
+        when(appointmentRepo.findBlockingSlotsBetween(any(), any(), any())).thenReturn(List.of(slots));
+    }
+
+    private static int[] staffPerSlot(List<AvailabilitySlotResponse> slots) {
+        return slots.stream().mapToInt(AvailabilitySlotResponse::getAvailableStaff).toArray();
+    }
+
+    private static OffsetDateTime at(LocalDate d, int hour, int minute) {
+        return d.atTime(hour, minute).atZone(ZONE).toOffsetDateTime();
+    }
+
+    private static ScheduleSlotView slot(Long id, Long staffId, OffsetDateTime start, OffsetDateTime end) {
+        return new Slot(id, staffId, start, end);
+    }
+
+    private record Slot(Long id, Long staffId, OffsetDateTime start, OffsetDateTime end) implements ScheduleSlotView {
+        public Long getId() { return id; }
+        public Long getStaffId() { return staffId; }
+        public OffsetDateTime getStartTime() { return start; }
+        public OffsetDateTime getEndTime() { return end; }
+    }
+}
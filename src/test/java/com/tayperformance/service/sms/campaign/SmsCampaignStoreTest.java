@@ -0,0 +1,223 @@
+package com.tayperformance.service.sms.campaign;
+
+import com.tayperformance.entity.*;
+import com.tayperformance.repository.SmsCampaignRepository;
+import com.tayperformance.repository.SmsOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureJdbc;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        // ON CONFLICT DO NOTHING (sms_campaign_recipients) vraagt de PostgreSQL mode van H2
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:campaign;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "tay.sms.campaign.batch-size=2",
+        "tay.sms.campaign.messages-per-minute=60"
+})
+@AutoConfigureJdbc
+@Import(SmsCampaignStore.class)
+@ActiveProfiles("test")
+class SmsCampaignStoreTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2026, 3, 2, 10, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private SmsCampaignStore store;
+
+    @Autowired
+    private SmsCampaignRepository campaignRepo;
+
+    @Autowired
+    private SmsOutboxRepository outboxRepo;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private Long campaignId;
+
+    @BeforeEach
+    void setUp() {
+        customer("+33611111111", true);
+        customer("33611111111", true);   // zelfde nummer als hierboven, andere opmaak
+        customer("12", true);            // geen bruikbaar nummer
+        customer("+33622222222", true);
+        customer("33622222222", true);   // zelfde nummer als batch 1, pas in de volgende batch
+        customer("+33633333333", true);
+        customer("+33644444444", false); // inactief
+
+        campaignId = em.persist(SmsCampaign.builder()
+                .name("Promo")
+                .message("Promo voor {{customerName}}")
+                .nextSlotAt(NOW)
+                .build()).getId();
+        em.flush();
+    }
+
+    @Test
+    void enqueuesUniqueNumbersInPacedBatchesUntilCompleted() {
+        // batch 1: dubbel en ongeldig nummer overgeslagen, stopt na 2 unieke nummers
+        assertEquals(2, store.enqueueNext(campaignId, NOW));
+        SmsCampaign c = campaignRepo.findById(campaignId).orElseThrow();
+        assertEquals(2, c.getEnqueued());
+        assertEquals(1, c.getDuplicates());
+        assertEquals(1, c.getSkipped());
+        assertFalse(c.isExhausted());
+
+        List<SmsOutbox> rows = outboxRows();
+        assertEquals(2, rows.size());
+        assertEquals(SmsType.CAMPAIGN, rows.get(0).getType());
+        assertTrue(rows.get(0).getAvailableAt().isEqual(NOW));
+        assertTrue(rows.get(1).getAvailableAt().isEqual(NOW.plusSeconds(1)));
+
+        // backlog vol: geen nieuwe batch tot de dispatcher bijbeent
+        assertEquals(0, store.enqueueNext(campaignId, NOW));
+        drainOutbox();
+
+        // batch 2: nummer van batch 1 opnieuw (andere opmaak) telt als dubbel
+        assertEquals(1, store.enqueueNext(campaignId, NOW));
+        c = campaignRepo.findById(campaignId).orElseThrow();
+        assertEquals(3, c.getEnqueued());
+        assertEquals(2, c.getDuplicates());
+        assertTrue(c.isExhausted());
+        assertTrue(outboxRows().get(2).getAvailableAt().isEqual(NOW.plusSeconds(2)));
+
+        // klaar zodra de outbox leeg is
+        assertEquals(0, store.enqueueNext(campaignId, NOW));
+        assertEquals(SmsCampaignStatus.RUNNING, campaignRepo.findById(campaignId).orElseThrow().getStatus());
+        drainOutbox();
+        assertEquals(0, store.enqueueNext(campaignId, NOW));
+        c = campaignRepo.findById(campaignId).orElseThrow();
+        assertEquals(SmsCampaignStatus.COMPLETED, c.getStatus());
+        assertNotNull(c.getFinishedAt());
+    }
+
+    @Test
+    void slotsOutsideSendWindowMoveToNextMorning() {
+        // 19:59:59 in Brussel (CET): 1e slot net binnen het venster, 2e valt op 20:00
+        OffsetDateTime evening = OffsetDateTime.of(2026, 3, 2, 18, 59, 59, 0, ZoneOffset.UTC);
+        OffsetDateTime nextMorning = OffsetDateTime.of(2026, 3, 3, 8, 0, 0, 0, ZoneOffset.UTC);
+
+        assertEquals(2, store.enqueueNext(campaignId, evening));
+
+        List<SmsOutbox> rows = outboxRows();
+        assertTrue(rows.get(0).getAvailableAt().isEqual(evening));
+        assertTrue(rows.get(1).getAvailableAt().isEqual(nextMorning));
+        assertTrue(campaignRepo.findById(campaignId).orElseThrow().getNextSlotAt().isEqual(nextMorning.plusSeconds(1)));
+    }
+
+    @Test
+    void batchBeforeSendFromStartsAtSendFrom() {
+        // 06:30 in Brussel, campagne nog zonder slot
+        OffsetDateTime early = OffsetDateTime.of(2026, 3, 2, 5, 30, 0, 0, ZoneOffset.UTC);
+        jdbc.update("UPDATE sms_campaigns SET next_slot_at = NULL WHERE id = ?", campaignId);
+        em.clear();
+
+        assertEquals(2, store.enqueueNext(campaignId, early));
+
+        List<SmsOutbox> rows = outboxRows();
+        assertTrue(rows.get(0).getAvailableAt().isEqual(OffsetDateTime.of(2026, 3, 2, 8, 0, 0, 0, ZoneOffset.UTC)));
+        assertTrue(rows.get(1).getAvailableAt().isEqual(OffsetDateTime.of(2026, 3, 2, 8, 0, 1, 0, ZoneOffset.UTC)));
+    }
+
+    @Test
+    void numberAlreadyRecipientIsCountedAsDuplicate() {
+        // bv. ingevoegd door een eerdere batch die na de insert terugrolde op een andere node
+        jdbc.update("INSERT INTO sms_campaign_recipients (campaign_id, phone, customer_id, created_at) "
+                + "SELECT ?, '+33611111111', id, now() FROM customers WHERE phone = '+33611111111'", campaignId);
+
+        assertEquals(1, store.enqueueNext(campaignId, NOW));
+        SmsCampaign c = campaignRepo.findById(campaignId).orElseThrow();
+        assertEquals(1, c.getEnqueued());
+        assertEquals(2, c.getDuplicates());
+        assertEquals(1, outboxRows().size());
+    }
+
+    @Test
+    void resumeOutsideSendWindowReslotsHeldRowsToNextMorning() {
+        assertEquals(2, store.enqueueNext(campaignId, NOW));
+        campaignRepo.transition(campaignId, List.of(SmsCampaignStatus.RUNNING), SmsCampaignStatus.PAUSED, null);
+        outboxRepo.holdCampaign(campaignId, NOW);
+
+        // hervat om 22:00 in Brussel (CET): achterstand pas vanaf 09:00, gespreid
+        OffsetDateTime late = OffsetDateTime.of(2026, 3, 2, 21, 0, 0, 0, ZoneOffset.UTC);
+        OffsetDateTime nextMorning = OffsetDateTime.of(2026, 3, 3, 8, 0, 0, 0, ZoneOffset.UTC);
+        campaignRepo.transition(campaignId, List.of(SmsCampaignStatus.PAUSED), SmsCampaignStatus.RUNNING, null);
+        em.clear();
+
+        assertEquals(2, store.releaseHeld(campaignId, late));
+        em.flush();
+        em.clear();
+
+        List<SmsOutbox> rows = outboxRows();
+        assertEquals(OutboxStatus.PENDING, rows.get(0).getStatus());
+        assertTrue(rows.get(0).getAvailableAt().isEqual(nextMorning));
+        assertTrue(rows.get(1).getAvailableAt().isEqual(nextMorning.plusSeconds(1)));
+        assertTrue(campaignRepo.findById(campaignId).orElseThrow().getNextSlotAt().isEqual(nextMorning.plusSeconds(2)));
+    }
+
+    @Test
+    void campaignRetryIsSlottedAfterPlannedRows() {
+        assertEquals(2, store.enqueueNext(campaignId, NOW));
+        Long logId = em.persist(SmsLog.builder()
+                .campaignId(campaignId)
+                .type(SmsType.CAMPAIGN)
+                .status(SmsStatus.QUEUED)
+                .toPhone("+33611111111")
+                .build()).getId();
+        em.flush();
+
+        assertEquals(1, outboxRepo.enqueueRetries(List.of(logId)));
+        store.reslotRetries(List.of(logId), NOW);
+        em.flush();
+        em.clear();
+
+        SmsOutbox retry = outboxRows().get(2);
+        assertEquals(logId, retry.getSmsLogId());
+        assertTrue(retry.getAvailableAt().isEqual(NOW.plusSeconds(2)));
+        assertTrue(campaignRepo.findById(campaignId).orElseThrow().getNextSlotAt().isEqual(NOW.plusSeconds(3)));
+    }
+
+    @Test
+    void pausedCampaignEnqueuesNothing() {
+        campaignRepo.transition(campaignId, List.of(SmsCampaignStatus.RUNNING), SmsCampaignStatus.PAUSED, null);
+        em.clear();
+
+        assertEquals(0, store.enqueueNext(campaignId, NOW));
+        assertTrue(outboxRows().isEmpty());
+    }
+
+    private void customer(String phone, boolean active) {
+        em.persist(Customer.builder().phone(phone).firstName("Klant").active(active).build());
+    }
+
+    private List<SmsOutbox> outboxRows() {
+        return outboxRepo.findAll().stream()
+                .filter(o -> campaignId.equals(o.getCampaignId()))
+                .sorted((a, b) -> a.getId().compareTo(b.getId()))
+                .toList();
+    }
+
+    private void drainOutbox() {
+        em.flush();
+        jdbc.update("UPDATE sms_outbox SET status = 'DONE' WHERE campaign_id = ?", campaignId);
+        em.clear();
+    }
+}
@@ -0,0 +1,55 @@
+package com.tayperformance.service.sms.encoding;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmsEncoderTest {
+
+    private SmsEncoder encoder(boolean transliterate, int maxSegments) {
+        SmsEncoder e = new SmsEncoder(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(e, "transliterate", transliterate);
+        ReflectionTestUtils.setField(e, "maxSegments", maxSegments);
+        return e;
+    }
+
+    @Test
+    void segmentLimitsPerEncoding() {
+        assertEquals(new SmsSegments(SmsEncoding.GSM7, 160, 1), SmsSegments.of("a".repeat(160)));
+        assertEquals(2, SmsSegments.of("a".repeat(161)).segments());
+        assertEquals(2, SmsSegments.of("a".repeat(306)).segments());
+        assertEquals(3, SmsSegments.of("a".repeat(307)).segments());
+
+        // extensie-teken telt als 2 septets
+        assertEquals(160, SmsSegments.of("€" + "a".repeat(158)).units());
+
+        assertEquals(new SmsSegments(SmsEncoding.UCS2, 70, 1), SmsSegments.of("ê" + "a".repeat(69)));
+        assertEquals(2, SmsSegments.of("ê" + "a".repeat(70)).segments());
+    }
+
+    @Test
+    void transliteratesEmojiAndAccentsToGsm7() {
+        SmsEncoder.Encoded e = encoder(true, 3).encode("TayPerformance ⏰ Rappel RDV\nVotre véhicule est prêt – à bientôt 🔁");
+
+        assertEquals("TayPerformance Rappel RDV\nVotre véhicule est pret - à bientot", e.text());
+        assertEquals(SmsEncoding.GSM7, e.segments().encoding());
+        assertTrue(e.withinBudget());
+    }
+
+    @Test
+    void keepsOriginalWhenTextCannotBecomeGsm7() {
+        String body = "Здравствуйте ✅";
+        SmsEncoder.Encoded e = encoder(true, 3).encode(body);
+
+        assertEquals(body, e.text());
+        assertEquals(SmsEncoding.UCS2, e.segments().encoding());
+    }
+
+    @Test
+    void enforcesSegmentBudget() {
+        assertFalse(encoder(false, 1).encode("ê".repeat(71)).withinBudget());
+        assertTrue(encoder(true, 1).encode("ê".repeat(71)).withinBudget());
+    }
+}
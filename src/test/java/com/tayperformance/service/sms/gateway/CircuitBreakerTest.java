@@ -0,0 +1,120 @@
+package com.tayperformance.service.sms.gateway;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final long FAST = SECOND / 10;
+
+    private CircuitBreaker breaker() {
+        // window 4, min 4 calls, 50% fouten of 100% traag, 2s traag, 10s open, 2 probes
+        return new CircuitBreaker(4, 4, 0.5, 1.0, 2 * SECOND, 10 * SECOND, 2);
+    }
+
+    @Test
+    void opensWhenFailureRateReachedAfterMinimumCalls() {
+        CircuitBreaker cb = breaker();
+
+        cb.onResult(false, FAST, 0);
+        cb.onResult(false, FAST, 0);
+        cb.onResult(true, FAST, 0);
+        assertEquals(CircuitBreaker.State.CLOSED, cb.state(0));
+
+        cb.onResult(true, FAST, 0);
+        assertEquals(CircuitBreaker.State.OPEN, cb.state(0));
+        assertFalse(cb.tryAcquire(SECOND));
+        assertEquals(9 * SECOND, cb.remainingOpenNanos(SECOND));
+    }
+
+    @Test
+    void opensOnSlowCalls() {
+        CircuitBreaker cb = breaker();
+        for (int i = 0; i < 4; i++) cb.onResult(true, 3 * SECOND, 0);
+
+        assertEquals(CircuitBreaker.State.OPEN, cb.state(0));
+    }
+
+    @Test
+    void slidingWindowForgetsOldFailures() {
+        CircuitBreaker cb = breaker();
+        cb.onResult(false, FAST, 0);
+        for (int i = 0; i < 4; i++) cb.onResult(true, FAST, 0);
+        cb.onResult(false, FAST, 0);
+
+        // window = [ok, ok, ok, fout] => 25%
+        assertEquals(CircuitBreaker.State.CLOSED, cb.state(0));
+    }
+
+    @Test
+    void halfOpenLimitsProbesAndClosesOnSuccess() {
+        CircuitBreaker cb = breaker();
+        for (int i = 0; i < 4; i++) cb.onResult(false, FAST, 0);
+
+        long later = 10 * SECOND;
+        assertEquals(CircuitBreaker.State.HALF_OPEN, cb.state(later));
+        assertTrue(cb.tryAcquire(later));
+        assertTrue(cb.tryAcquire(later));
+        assertFalse(cb.tryAcquire(later));
+
+        cb.onResult(true, FAST, later);
+        cb.onResult(true, FAST, later);
+        assertEquals(CircuitBreaker.State.CLOSED, cb.state(later));
+
+        // na sluiten: verse window, 1 fout opent niet meteen
+        cb.onResult(false, FAST, later);
+        assertEquals(CircuitBreaker.State.CLOSED, cb.state(later));
+    }
+
+    @Test
+    void failedProbeReopens() {
+        CircuitBreaker cb = breaker();
+        for (int i = 0; i < 4; i++) cb.onResult(false, FAST, 0);
+
+        long later = 10 * SECOND;
+        assertTrue(cb.tryAcquire(later));
+        cb.onResult(false, FAST, later);
+
+        assertEquals(CircuitBreaker.State.OPEN, cb.state(later));
+        assertFalse(cb.tryAcquire(later + SECOND));
+    }
+
+    @Test
+    void releasedProbeIsNotCountedAsSuccess() {
+        CircuitBreaker cb = breaker();
+        for (int i = 0; i < 4; i++) cb.onResult(false, FAST, 0);
+
+        long later = 10 * SECOND;
+        assertTrue(cb.tryAcquire(later));
+        assertTrue(cb.tryAcquire(later));
+        assertFalse(cb.tryAcquire(later));
+
+        // bulkhead vol: probe komt terug, circuit blijft HALF_OPEN
+        cb.release();
+        cb.release();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, cb.state(later));
+
+        assertTrue(cb.tryAcquire(later));
+        cb.onResult(false, FAST, later);
+        assertEquals(CircuitBreaker.State.OPEN, cb.state(later));
+    }
+
+    @Test
+    void releaseWhileClosedRecordsNothing() {
+        CircuitBreaker cb = breaker();
+        cb.onResult(false, FAST, 0);
+        cb.onResult(false, FAST, 0);
+        cb.onResult(true, FAST, 0);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(cb.tryAcquire(0));
+            cb.release();
+        }
+
+        // window telt nog altijd 3 calls: 1 echte call erbij opent het circuit (2/4)
+        assertEquals(CircuitBreaker.State.CLOSED, cb.state(0));
+        cb.onResult(true, FAST, 0);
+        assertEquals(CircuitBreaker.State.OPEN, cb.state(0));
+    }
+}
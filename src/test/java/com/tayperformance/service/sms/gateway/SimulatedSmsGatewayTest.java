@@ -0,0 +1,91 @@
+package com.tayperformance.service.sms.gateway;
+
+import com.tayperformance.entity.SmsStatus;
+import com.tayperformance.service.sms.status.SmsStatusUpdateBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SimulatedSmsGatewayTest {
+
+    private final SmsStatusUpdateBuffer buffer = mock(SmsStatusUpdateBuffer.class);
+    private final SimulatedSmsGateway gateway = new SimulatedSmsGateway(buffer);
+
+    @BeforeEach
+    void setUp() {
+        // geen latency, geen fouten, geen cap: elke test zet enkel wat hij nodig heeft
+        ReflectionTestUtils.setField(gateway, "latencyMedianMs", 0.0);
+        ReflectionTestUtils.setField(gateway, "latencySigma", 0.0);
+        ReflectionTestUtils.setField(gateway, "latencyMaxMs", 0L);
+        ReflectionTestUtils.setField(gateway, "errorRate", 0.0);
+        ReflectionTestUtils.setField(gateway, "maxPerSecond", 0);
+        ReflectionTestUtils.setField(gateway, "deliveryDelayMs", 0L);
+        ReflectionTestUtils.setField(gateway, "deliveryFailureRate", 0.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gateway.shutdown();
+    }
+
+    @Test
+    void errorRateZeroAlwaysSends() {
+        for (int i = 0; i < 200; i++) {
+            assertTrue(gateway.send("+33612345678", "test").startsWith("SM"));
+        }
+    }
+
+    @Test
+    void errorRateOneAlwaysFails() {
+        ReflectionTestUtils.setField(gateway, "errorRate", 1.0);
+
+        for (int i = 0; i < 50; i++) {
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> gateway.send("+33612345678", "test"));
+            assertTrue(e.getMessage().startsWith("500"));
+        }
+        verifyNoInteractions(buffer);
+    }
+
+    @Test
+    void sendsAboveCapAreRejectedWith429() {
+        ReflectionTestUtils.setField(gateway, "maxPerSecond", 5);
+
+        int sent = 0, rejected = 0;
+        for (int i = 0; i < 20; i++) {
+            try {
+                gateway.send("+33612345678", "test");
+                sent++;
+            } catch (IllegalStateException e) {
+                assertTrue(e.getMessage().startsWith("429"));
+                rejected++;
+            }
+        }
+
+        // 20 sends vallen in hoogstens 2 vensters van 1 seconde
+        assertTrue(sent >= 5 && sent <= 10, "sent=" + sent);
+        assertEquals(20 - sent, rejected);
+    }
+
+    @Test
+    void deliveredCallbackReachesStatusBuffer() {
+        String sid = gateway.send("+33612345678", "test");
+
+        verify(buffer, timeout(2000)).add(sid, SmsStatus.DELIVERED, null);
+    }
+
+    @Test
+    void failedDeliveryReachesStatusBufferWithError() {
+        ReflectionTestUtils.setField(gateway, "deliveryFailureRate", 1.0);
+
+        String sid = gateway.send("+33612345678", "test");
+
+        verify(buffer, timeout(2000)).add(eq(sid), eq(SmsStatus.FAILED), any());
+    }
+}
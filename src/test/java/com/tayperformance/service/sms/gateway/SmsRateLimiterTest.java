@@ -0,0 +1,30 @@
+package com.tayperformance.service.sms.gateway;
+
+import com.tayperformance.config.SmsRateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmsRateLimiterTest {
+
+    @Test
+    void waitAboveMaxWaitDefersInsteadOfFailing() throws InterruptedException {
+        SmsRateLimitProperties props = new SmsRateLimitProperties();
+        props.setPermitsPerSecond(0.01);
+        props.setBurst(1);
+        props.setMaxWait(Duration.ofSeconds(2));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SmsRateLimiter limiter = new SmsRateLimiter(props, registry);
+
+        limiter.acquire("MG1");
+        RateLimitedException e = assertThrows(RateLimitedException.class, () -> limiter.acquire("MG1"));
+
+        // zelfde pad als een open circuit: de dispatcher stelt uit i.p.v. FAILED
+        assertInstanceOf(CallNotPermittedException.class, e);
+        assertEquals(Duration.ofSeconds(2), e.getRetryAfter());
+        assertEquals(1.0, registry.get("tay.sms.ratelimit.rejected").counter().count());
+    }
+}
@@ -0,0 +1,45 @@
+package com.tayperformance.service.sms.gateway;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void burstIsFreeThenQueuesAtRate() {
+        TokenBucket bucket = new TokenBucket(2.0, 3, 0);
+
+        assertEquals(0, bucket.reserve(0, 10 * SECOND));
+        assertEquals(0, bucket.reserve(0, 10 * SECOND));
+        assertEquals(0, bucket.reserve(0, 10 * SECOND));
+
+        // daarna 1 token per 500ms, in volgorde van aanvraag
+        assertEquals(SECOND / 2, bucket.reserve(0, 10 * SECOND));
+        assertEquals(SECOND, bucket.reserve(0, 10 * SECOND));
+    }
+
+    @Test
+    void refillsOverTimeUpToBurst() {
+        TokenBucket bucket = new TokenBucket(1.0, 2, 0);
+        bucket.reserve(0, SECOND);
+        bucket.reserve(0, SECOND);
+
+        // lang stil: terug tot burst, niet meer
+        assertEquals(0, bucket.reserve(100 * SECOND, SECOND));
+        assertEquals(0, bucket.reserve(100 * SECOND, SECOND));
+        assertEquals(SECOND, bucket.reserve(100 * SECOND, 10 * SECOND));
+    }
+
+    @Test
+    void rejectsWithoutReservingWhenWaitTooLong() {
+        TokenBucket bucket = new TokenBucket(1.0, 1, 0);
+        bucket.reserve(0, SECOND);
+
+        assertEquals(-1, bucket.reserve(0, SECOND / 2));
+        // afgewezen aanvraag telt niet mee in de wachtrij
+        assertEquals(SECOND, bucket.reserve(0, SECOND));
+    }
+}
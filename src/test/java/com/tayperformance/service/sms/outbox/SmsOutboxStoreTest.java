@@ -0,0 +1,412 @@
+package com.tayperformance.service.sms.outbox;
+
+import com.tayperformance.entity.*;
+import com.tayperformance.repository.SmsLogRepository;
+import com.tayperformance.repository.SmsOutboxRepository;
+import com.tayperformance.repository.SmsSendKeyRepository;
+import com.tayperformance.service.sms.SmsService;
+import com.tayperformance.service.sms.encoding.SmsEncoder;
+import com.tayperformance.service.sms.template.SmsLogCompactor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureJdbc;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        // ON CONFLICT DO NOTHING (sms_send_keys) vraagt de PostgreSQL mode van H2
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:outbox;MODE=PostgreSQL;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureJdbc
+@Import({SmsOutboxStore.class, SmsRetryPolicy.class, SmsEncoder.class, SmsOutboxStoreTest.Metrics.class})
+@ActiveProfiles("test")
+class SmsOutboxStoreTest {
+
+    private static final String NODE = "node-a";
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private SmsOutboxStore store;
+
+    @Autowired
+    private SmsOutboxRepository outboxRepo;
+
+    @Autowired
+    private SmsLogRepository smsLogRepo;
+
+    @Autowired
+    private SmsSendKeyRepository sendKeyRepo;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @MockBean
+    private SmsService smsService;
+
+    @MockBean
+    private SmsLogCompactor compactor;
+
+    private Appointment appt;
+
+    @BeforeEach
+    void setUp() {
+        when(smsService.buildMessage(any(), any())).thenReturn("TayPerformance test bericht");
+
+        Customer c = em.persist(Customer.builder().phone("+33612345678").firstName("Test").build());
+        OffsetDateTime start = OffsetDateTime.now().plusDays(1);
+        appt = em.persist(Appointment.builder()
+                .customer(c)
+                .carBrand("Audi")
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .status(AppointmentStatus.CONFIRMED)
+                .build());
+    }
+
+    @Test
+    void duplicateTypeInBatchIsSentOnce() {
+        Long a = em.persist(SmsOutbox.builder().appointment(appt).type(SmsType.CONFIRM).build()).getId();
+        Long b = em.persist(SmsOutbox.builder().appointment(appt).type(SmsType.CONFIRM).build()).getId();
+        em.flush();
+        em.clear();
+
+        List<SmsJob> jobs = store.prepare(List.of(a, b));
+        em.clear();
+
+        assertEquals(1, jobs.size());
+        assertEquals(1, smsLogRepo.count());
+        assertEquals(1, outboxRepo.findAll().stream().filter(o -> o.getStatus() == OutboxStatus.DONE).count());
+    }
+
+    @Test
+    void compactLogStoresTemplateInsteadOfBody() {
+        when(compactor.compact(any(), eq(SmsType.CONFIRM), eq("TayPerformance test bericht")))
+                .thenReturn(Optional.of(new SmsLogCompactor.Compact(7L, "Test\u001F15/02/2026")));
+        Long id = em.persist(SmsOutbox.builder().appointment(appt).type(SmsType.CONFIRM).build()).getId();
+        em.flush();
+        em.clear();
+
+        SmsJob job = store.prepare(List.of(id)).get(0);
+        em.clear();
+
+        // verstuurd wordt de volledige tekst, bewaard enkel template + waarden
+        assertEquals("TayPerformance test bericht", job.body());
+        SmsLog log = smsLogRepo.findById(job.smsLogId()).orElseThrow();
+        assertNull(log.getMessageBody());
+        assertEquals(7L, log.getTemplateId());
+        assertEquals("Test\u001F15/02/2026", log.getTemplateParams());
+    }
+
+    @Test
+    void campaignRowRendersForCustomerAndLogsCampaign() {
+        when(smsService.buildCampaignMessage(any(), any())).thenReturn("Promo voor Test");
+        SmsCampaign campaign = em.persist(SmsCampaign.builder().name("Promo").message("Promo voor {{customerName}}").build());
+        Long id = em.persist(SmsOutbox.builder()
+                .campaignId(campaign.getId())
+                .customer(appt.getCustomer())
+                .type(SmsType.CAMPAIGN)
+                .build()).getId();
+        em.flush();
+        em.clear();
+
+        SmsJob job = store.prepare(List.of(id)).get(0);
+        em.clear();
+
+        assertEquals("Promo voor Test", job.body());
+        assertEquals("+33612345678", job.toPhone());
+        SmsLog log = smsLogRepo.findById(job.smsLogId()).orElseThrow();
+        assertEquals(SmsType.CAMPAIGN, log.getType());
+        assertEquals(campaign.getId(), log.getCampaignId());
+        assertNull(log.getAppointment());
+    }
+
+    @Test
+    void canceledCampaignRowIsDroppedWithoutLog() {
+        SmsCampaign campaign = em.persist(SmsCampaign.builder()
+                .name("Promo").message("Promo").status(SmsCampaignStatus.CANCELED).build());
+        Long id = em.persist(SmsOutbox.builder()
+                .campaignId(campaign.getId())
+                .customer(appt.getCustomer())
+                .type(SmsType.CAMPAIGN)
+                .build()).getId();
+        em.flush();
+        em.clear();
+
+        assertTrue(store.prepare(List.of(id)).isEmpty());
+        em.clear();
+        assertEquals(0, smsLogRepo.count());
+        assertEquals(OutboxStatus.DONE, outboxRepo.findById(id).orElseThrow().getStatus());
+    }
+
+    @Test
+    void completeUpdatesLogsAndClosesOutbox() {
+        Long id = em.persist(SmsOutbox.builder().appointment(appt).type(SmsType.CONFIRM).build()).getId();
+        em.flush();
+        em.clear();
+
+        SmsJob job = store.prepare(List.of(lease(id))).get(0);
+        store.complete(NODE, List.of(SendResult.sent(job, "SM123")));
+        em.clear();
+
+        SmsLog log = smsLogRepo.findById(job.smsLogId()).orElseThrow();
+        assertEquals(SmsStatus.SENT, log.getStatus());
+        assertEquals("SM123", log.getProviderMessageId());
+        assertNotNull(log.getSentAt());
+        assertEquals(OutboxStatus.DONE, outboxRepo.findById(id).orElseThrow().getStatus());
+    }
+
+    @Test
+    void reclaimAfterSendSkipsRow() {
+        Long id = em.persist(SmsOutbox.builder().appointment(appt).type(SmsType.CONFIRM).build()).getId();
+        em.flush();
+        em.clear();
+
+        SmsJob job = store.prepare(List.of(id)).get(0);
+        // node "crasht" na versturen: log is SENT maar outbox rij nog PENDING
+        SmsLog log = smsLogRepo.findById(job.smsLogId()).orElseThrow();
+        log.setStatus(SmsStatus.SENT);
+        em.flush();
+        em.clear();
+
+        assertTrue(store.prepare(List.of(id)).isEmpty());
+        em.clear();
+        assertEquals(OutboxStatus.DONE, outboxRepo.findById(id).orElseThrow().getStatus());
+    }
+
+    @Test
+    void failedSendSchedulesRetry() {
+        Long id = em.persist(SmsOutbox.builder().appointment(appt).type(SmsType.CONFIRM).build()).getId();
+        em.flush();
+        em.clear();
+
+        SmsJob job = store.prepare(List.of(lease(id))).get(0);
+        store.complete(NODE, List.of(SendResult.failed(job, "provider down")));
+        em.clear();
+
+        SmsLog log = smsLogRepo.findById(job.smsLogId()).orElseThrow();
+        assertEquals(SmsStatus.FAILED, log.getStatus());
+        assertEquals(1, log.getAttempts());
+        assertNotNull(log.getNextRetryAt());
+        assertTrue(log.getNextRetryAt().isAfter(OffsetDateTime.now()));
+    }
+
+    @Test
+    void deferredSendStaysQueuedAndReusesLog() {
+        Long id = em.persist(SmsOutbox.builder().appointment(appt).type(SmsType.CONFIRM).build()).getId();
+        em.flush();
+        em.clear();
+
+        SmsJob job = store.prepare(List.of(lease(id))).get(0);
+        store.complete(NODE, List.of(SendResult.deferred(job, Duration.ofSeconds(30))));
+        em.clear();
+
+        SmsOutbox row = outboxRepo.findById(id).orElseThrow();
+        assertEquals(OutboxStatus.PENDING, row.getStatus());
+        assertTrue(row.getAvailableAt().isAfter(OffsetDateTime.now().plusSeconds(20)));
+        SmsLog log = smsLogRepo.findById(job.smsLogId()).orElseThrow();
+        assertEquals(SmsStatus.QUEUED, log.getStatus());
+        assertEquals(0, log.getAttempts());
+
+        // volgende claim: zelfde SmsLog, geen nieuwe rij
+        assertEquals(job.smsLogId(), store.prepare(List.of(id)).get(0).smsLogId());
+        assertEquals(1, smsLogRepo.count());
+    }
+
+    @Test
+    void heldSendKeyBlocksSecondSms() {
+        Long first = em.persist(SmsOutbox.builder().appointment(appt).type(SmsType.CONFIRM).build()).getId();
+        em.flush();
+        em.clear();
+        SmsJob job = store.prepare(List.of(first)).get(0);
+        em.clear();
+
+        // tweede trigger (bv. dubbelklik) in een latere batch
+        Long second = em.persist(SmsOutbox.builder().appointment(em.find(Appointment.class, appt.getId()))
+                .type(SmsType.CONFIRM).build()).getId();
+        em.flush();
+        em.clear();
+
+        assertTrue(store.prepare(List.of(second)).isEmpty());
+        em.clear();
+        assertEquals(1, smsLogRepo.count());
+        assertEquals(job.smsLogId(), sendKeyRepo.findAll().get(0).getSmsLogId());
+        assertEquals(OutboxStatus.DONE, outboxRepo.findById(second).orElseThrow().getStatus());
+    }
+
+    @Test
+    void givenUpFailureReleasesSendKey() {
+        Long id = em.persist(SmsOutbox.builder().appointment(appt).type(SmsType.CONFIRM).build()).getId();
+        em.flush();
+        em.clear();
+
+        SmsJob job = store.prepare(List.of(lease(id))).get(0);
+        SmsJob last = new SmsJob(job.outboxId(), job.smsLogId(), job.appointmentId(), job.type(),
+                job.toPhone(), job.body(), 99);
+        store.complete(NODE, List.of(SendResult.failed(last, "invalid number")));
+        em.clear();
+
+        assertNull(smsLogRepo.findById(job.smsLogId()).orElseThrow().getNextRetryAt());
+        assertEquals(0, sendKeyRepo.count());
+    }
+
+    @Test
+    void messagesAreEncodedAndOverBudgetIsNotSent() {
+        when(smsService.buildMessage(any(), eq(SmsType.CONFIRM))).thenReturn("TayPerformance ✅ RDV confirmé, à bientôt");
+        when(smsService.buildMessage(any(), eq(SmsType.UPDATE))).thenReturn("TayPerformance ".repeat(40));
+        Long ok = em.persist(SmsOutbox.builder().appointment(appt).type(SmsType.CONFIRM).build()).getId();
+        Long tooLong = em.persist(SmsOutbox.builder().appointment(appt).type(SmsType.UPDATE).build()).getId();
+        em.flush();
+        em.clear();
+
+        List<SmsJob> jobs = store.prepare(List.of(ok, tooLong));
+        em.clear();
+
+        assertEquals(1, jobs.size());
+        assertEquals("TayPerformance RDV confirmé, à bientot", jobs.get(0).body());
+        assertEquals(1, smsLogRepo.findById(jobs.get(0).smsLogId()).orElseThrow().getSegmentCount());
+
+        SmsLog rejected = smsLogRepo.findAll().stream().filter(l -> l.getType() == SmsType.UPDATE).findFirst().orElseThrow();
+        assertEquals(SmsStatus.FAILED, rejected.getStatus());
+        assertEquals(4, rejected.getSegmentCount());
+        assertNull(rejected.getNextRetryAt());
+        assertEquals(OutboxStatus.DONE, outboxRepo.findById(tooLong).orElseThrow().getStatus());
+    }
+
+    @Test
+    void expiredLeaseReclaimedByOtherNodeIsNotCompleted() {
+        Long id = em.persist(SmsOutbox.builder().appointment(appt).type(SmsType.CONFIRM).build()).getId();
+        em.flush();
+        em.clear();
+
+        SmsJob job = store.prepare(List.of(lease(id))).get(0);
+        // batch van node-a duurt langer dan de lease, node-b claimt de rij opnieuw
+        outboxRepo.lease(List.of(id), OffsetDateTime.now().minusSeconds(1), NODE);
+        outboxRepo.lease(List.of(id), OffsetDateTime.now().plusSeconds(120), "node-b");
+        em.clear();
+
+        store.complete(NODE, List.of(SendResult.failed(job, "timeout")));
+        em.clear();
+
+        SmsLog log = smsLogRepo.findById(job.smsLogId()).orElseThrow();
+        assertEquals(SmsStatus.QUEUED, log.getStatus());
+        assertEquals(0, log.getAttempts());
+        SmsOutbox row = outboxRepo.findById(id).orElseThrow();
+        assertEquals(OutboxStatus.PENDING, row.getStatus());
+        assertEquals("node-b", row.getLockedBy());
+
+        // de nieuwe eigenaar rondt wel af
+        store.complete("node-b", List.of(SendResult.sent(job, "SM456")));
+        em.clear();
+        assertEquals(SmsStatus.SENT, smsLogRepo.findById(job.smsLogId()).orElseThrow().getStatus());
+        assertEquals(OutboxStatus.DONE, outboxRepo.findById(id).orElseThrow().getStatus());
+    }
+
+    @Test
+    void expiredLeaseStillOwnedIsCompleted() {
+        Long id = em.persist(SmsOutbox.builder().appointment(appt).type(SmsType.CONFIRM).build()).getId();
+        em.flush();
+        em.clear();
+
+        SmsJob job = store.prepare(List.of(lease(id))).get(0);
+        // lease verlopen maar door niemand geclaimd: de rij is nog van deze node
+        outboxRepo.lease(List.of(id), OffsetDateTime.now().minusSeconds(1), NODE);
+        em.clear();
+
+        store.complete(NODE, List.of(SendResult.sent(job, "SM789")));
+        em.clear();
+
+        assertEquals(SmsStatus.SENT, smsLogRepo.findById(job.smsLogId()).orElseThrow().getStatus());
+        assertEquals(OutboxStatus.DONE, outboxRepo.findById(id).orElseThrow().getStatus());
+    }
+
+    @Test
+    void smsForClosedAppointmentIsDroppedBeforeClaimingKey() {
+        Long reminder = em.persist(SmsOutbox.builder().appointment(appt).type(SmsType.REMINDER).build()).getId();
+        Long confirm = em.persist(SmsOutbox.builder().appointment(appt).type(SmsType.CONFIRM).build()).getId();
+        Long cancel = em.persist(SmsOutbox.builder().appointment(appt).type(SmsType.CANCEL).build()).getId();
+        // geannuleerd tussen enqueue en versturen (reminder-spreiding)
+        appt.setStatus(AppointmentStatus.CANCELED);
+        em.flush();
+        em.clear();
+
+        List<SmsJob> jobs = store.prepare(List.of(reminder, confirm, cancel));
+        em.clear();
+
+        assertEquals(1, jobs.size());
+        assertEquals(SmsType.CANCEL, jobs.get(0).type());
+        assertEquals(1, sendKeyRepo.count());
+        assertEquals(OutboxStatus.DONE, outboxRepo.findById(reminder).orElseThrow().getStatus());
+        assertEquals(OutboxStatus.DONE, outboxRepo.findById(confirm).orElseThrow().getStatus());
+    }
+
+    @Test
+    void deferredReminderForNoShowClosesLogAndReleasesKey() {
+        Long id = em.persist(SmsOutbox.builder().appointment(appt).type(SmsType.REMINDER).build()).getId();
+        em.flush();
+        em.clear();
+        SmsJob job = store.prepare(List.of(lease(id))).get(0);
+        store.complete(NODE, List.of(SendResult.deferred(job, Duration.ofSeconds(30))));
+        em.clear();
+
+        Appointment a = em.find(Appointment.class, appt.getId());
+        a.setStatus(AppointmentStatus.NOSHOW);
+        em.flush();
+        em.clear();
+
+        assertTrue(store.prepare(List.of(id)).isEmpty());
+        em.clear();
+
+        SmsLog log = smsLogRepo.findById(job.smsLogId()).orElseThrow();
+        assertEquals(SmsStatus.FAILED, log.getStatus());
+        assertNull(log.getNextRetryAt());
+        assertEquals(0, sendKeyRepo.count());
+        assertEquals(OutboxStatus.DONE, outboxRepo.findById(id).orElseThrow().getStatus());
+    }
+
+    @Test
+    void sendableStatusesPerType() {
+        assertTrue(SmsOutboxStore.isSendable(SmsType.REMINDER, AppointmentStatus.CONFIRMED));
+        assertFalse(SmsOutboxStore.isSendable(SmsType.REMINDER, AppointmentStatus.REQUESTED));
+        assertFalse(SmsOutboxStore.isSendable(SmsType.REMINDER, AppointmentStatus.IN_PROGRESS));
+        assertTrue(SmsOutboxStore.isSendable(SmsType.UPDATE, AppointmentStatus.REQUESTED));
+        assertFalse(SmsOutboxStore.isSendable(SmsType.UPDATE, AppointmentStatus.COMPLETED));
+        assertFalse(SmsOutboxStore.isSendable(SmsType.CONFIRM, AppointmentStatus.NOSHOW));
+        assertTrue(SmsOutboxStore.isSendable(SmsType.CANCEL, AppointmentStatus.CANCELED));
+    }
+
+    /** Zoals claim: lease van {@link #NODE} op de rij. */
+    private Long lease(Long id) {
+        outboxRepo.lease(List.of(id), OffsetDateTime.now().plusSeconds(120), NODE);
+        em.clear();
+        return id;
+    }
+}
@@ -0,0 +1,38 @@
+package com.tayperformance.service.sms.outbox;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmsRetryPolicyTest {
+
+    private final SmsRetryPolicy policy = new SmsRetryPolicy(5, 60, 600);
+
+    @Test
+    void delayDoublesUntilCap() {
+        assertEquals(60, policy.delaySeconds(1));
+        assertEquals(120, policy.delaySeconds(2));
+        assertEquals(240, policy.delaySeconds(3));
+        assertEquals(480, policy.delaySeconds(4));
+        assertEquals(600, policy.delaySeconds(5));
+        assertEquals(600, policy.delaySeconds(40));
+    }
+
+    @Test
+    void jitterStaysBetweenHalfAndFullDelay() {
+        OffsetDateTime now = OffsetDateTime.now();
+        for (int i = 0; i < 1000; i++) {
+            long s = Duration.between(now, policy.nextRetryAt(3, now)).toSeconds();
+            assertTrue(s >= 120 && s <= 240, "delay " + s);
+        }
+    }
+
+    @Test
+    void givesUpAtMaxAttempts() {
+        assertNotNull(policy.nextRetryAt(4, OffsetDateTime.now()));
+        assertNull(policy.nextRetryAt(5, OffsetDateTime.now()));
+    }
+}
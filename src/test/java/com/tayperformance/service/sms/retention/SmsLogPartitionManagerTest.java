@@ -0,0 +1,35 @@
+package com.tayperformance.service.sms.retention;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SmsLogPartitionManagerTest {
+
+    @Test
+    void dropsOnlyMonthsFullyPastRetention() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        when(jdbc.queryForList(anyString(), eq(String.class))).thenReturn(List.of(
+                "sms_logs_2026_01", "sms_logs_2026_02", "sms_logs_2026_03", "sms_logs_default"));
+        when(jdbc.queryForObject(startsWith("SELECT drop_sms_logs_partition"), eq(Boolean.class), anyString()))
+                .thenReturn(true);
+
+        SmsLogPartitionManager manager = new SmsLogPartitionManager(jdbc);
+
+        // februari eindigt 1 maart; + 30 dagen = 31 maart
+        OffsetDateTime now = OffsetDateTime.of(2026, 3, 31, 0, 0, 0, 0, ZoneOffset.UTC);
+        List<String> dropped = manager.dropExpired(now, Duration.ofDays(30));
+
+        assertEquals(List.of("sms_logs_2026_01", "sms_logs_2026_02"), dropped);
+        verify(jdbc, never()).queryForObject(anyString(), eq(Boolean.class), eq("sms_logs_2026_03"));
+        verify(jdbc, never()).queryForObject(anyString(), eq(Boolean.class), eq("sms_logs_default"));
+    }
+}
@@ -0,0 +1,126 @@
+package com.tayperformance.service.sms.retention;
+
+import com.tayperformance.entity.*;
+import com.tayperformance.repository.SmsLogRepository;
+import com.tayperformance.repository.SmsOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureJdbc;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "tay.sms.retention.chunk-size=2",
+        "tay.sms.retention.pause-ms=0",
+        "tay.sms.retention.mode=ROWS"
+})
+@AutoConfigureJdbc
+@Import({SmsRetentionJob.class, SmsRetentionJobTest.Metrics.class})
+@ActiveProfiles("test")
+class SmsRetentionJobTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private SmsRetentionJob job;
+
+    @Autowired
+    private SmsLogRepository smsLogRepo;
+
+    @Autowired
+    private SmsOutboxRepository outboxRepo;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @MockBean
+    private SmsLogPartitionManager partitions;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private Appointment appt;
+
+    @BeforeEach
+    void setUp() {
+        Customer c = em.persist(Customer.builder().phone("+33612345678").firstName("Test").build());
+        OffsetDateTime start = OffsetDateTime.now().minusDays(40);
+        appt = em.persist(Appointment.builder()
+                .customer(c)
+                .carBrand("Audi")
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .status(AppointmentStatus.COMPLETED)
+                .build());
+    }
+
+    @Test
+    void purgesExpiredLogsInChunksAndKeepsPendingWork() throws Exception {
+        OffsetDateTime past = OffsetDateTime.now().minusDays(1);
+        for (int i = 0; i < 5; i++) log(SmsStatus.DELIVERED, past, null);
+        Long queued = log(SmsStatus.QUEUED, past, null);
+        Long retry = log(SmsStatus.FAILED, past, OffsetDateTime.now().plusMinutes(5));
+        Long fresh = log(SmsStatus.SENT, OffsetDateTime.now().plusDays(10), null);
+        em.flush();
+        em.clear();
+
+        long purged = job.purgeLogs(OffsetDateTime.now());
+
+        assertEquals(5, purged);
+        assertEquals(3, smsLogRepo.count());
+        assertTrue(smsLogRepo.existsById(queued));
+        assertTrue(smsLogRepo.existsById(retry));
+        assertTrue(smsLogRepo.existsById(fresh));
+        assertEquals(5.0, registry.counter("tay.sms.retention.purged", "table", "sms_logs").count());
+        assertEquals(1, registry.timer("tay.sms.retention.duration", "table", "sms_logs").count());
+    }
+
+    @Test
+    void purgesOnlyOldDoneOutboxRows() throws Exception {
+        SmsOutbox done = em.persist(SmsOutbox.builder().appointment(appt).type(SmsType.CONFIRM)
+                .status(OutboxStatus.DONE).processedAt(OffsetDateTime.now().minusDays(10)).build());
+        SmsOutbox recent = em.persist(SmsOutbox.builder().appointment(appt).type(SmsType.UPDATE)
+                .status(OutboxStatus.DONE).processedAt(OffsetDateTime.now()).build());
+        SmsOutbox pending = em.persist(SmsOutbox.builder().appointment(appt).type(SmsType.REMINDER).build());
+        em.flush();
+        em.clear();
+
+        assertEquals(1, job.purgeOutbox(OffsetDateTime.now().minusDays(7)));
+        assertFalse(outboxRepo.existsById(done.getId()));
+        assertTrue(outboxRepo.existsById(recent.getId()));
+        assertTrue(outboxRepo.existsById(pending.getId()));
+    }
+
+    private Long log(SmsStatus status, OffsetDateTime expiresAt, OffsetDateTime nextRetryAt) {
+        return em.persist(SmsLog.builder()
+                .appointment(appt)
+                .type(SmsType.CONFIRM)
+                .status(status)
+                .toPhone("+33612345678")
+                .messageBody("TayPerformance test bericht")
+                .expiresAt(expiresAt)
+                .nextRetryAt(nextRetryAt)
+                .build()).getId();
+    }
+}
@@ -0,0 +1,75 @@
+package com.tayperformance.service.sms.status;
+
+import com.tayperformance.controller.publicapi.PublicSmsStatusController;
+import com.tayperformance.entity.SmsStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SmsStatusCallbackServiceTest {
+
+    private final SmsStatusUpdateBuffer buffer = mock(SmsStatusUpdateBuffer.class);
+    private final SmsStatusCallbackService service = new SmsStatusCallbackService(buffer);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "authToken", "test-token");
+        ReflectionTestUtils.setField(service, "callbackUrl", "https://tay.example/api/public/sms/status");
+        ReflectionTestUtils.setField(service, "validateSignature", true);
+    }
+
+    @Test
+    void providerStatusesMapToFinalStatuses() {
+        assertEquals(SmsStatus.DELIVERED, SmsStatusCallbackService.map("delivered"));
+        assertEquals(SmsStatus.DELIVERED, SmsStatusCallbackService.map("DELIVERED"));
+        assertEquals(SmsStatus.FAILED, SmsStatusCallbackService.map("undelivered"));
+        assertEquals(SmsStatus.FAILED, SmsStatusCallbackService.map("failed"));
+        assertNull(SmsStatusCallbackService.map("queued"));
+        assertNull(SmsStatusCallbackService.map("sent"));
+        assertNull(SmsStatusCallbackService.map(null));
+    }
+
+    @Test
+    void invalidSignatureIsRejectedWith403() {
+        Map<String, String> params = Map.of("MessageSid", "SM1", "MessageStatus", "delivered");
+
+        assertFalse(service.handle(params, "bm90LXZhbGlk"));
+        assertFalse(service.handle(params, null));
+        assertEquals(HttpStatus.FORBIDDEN,
+                new PublicSmsStatusController(service).status(params, "bm90LXZhbGlk").getStatusCode());
+        verify(buffer, never()).add(any(), any(), any());
+    }
+
+    @Test
+    void missingTokenRejectsEvenWithSignature() {
+        ReflectionTestUtils.setField(service, "authToken", "");
+
+        assertFalse(service.handle(Map.of("MessageSid", "SM1", "MessageStatus", "delivered"), "c2lnbmF0dXJl"));
+        verifyNoInteractions(buffer);
+    }
+
+    @Test
+    void failedStatusIsBufferedWithErrorCode() {
+        ReflectionTestUtils.setField(service, "validateSignature", false);
+
+        assertTrue(service.handle(Map.of("MessageSid", "SM1", "MessageStatus", "undelivered", "ErrorCode", "30003"), null));
+        verify(buffer).add("SM1", SmsStatus.FAILED, "Provider status undelivered (error 30003)");
+    }
+
+    @Test
+    void intermediateStatusIsAcceptedButNotBuffered() {
+        ReflectionTestUtils.setField(service, "validateSignature", false);
+
+        assertTrue(service.handle(Map.of("MessageSid", "SM1", "MessageStatus", "sending"), null));
+        assertEquals(HttpStatus.NO_CONTENT, new PublicSmsStatusController(service)
+                .status(Map.of("MessageSid", "SM1", "MessageStatus", "sent"), null).getStatusCode());
+        verifyNoInteractions(buffer);
+    }
+}
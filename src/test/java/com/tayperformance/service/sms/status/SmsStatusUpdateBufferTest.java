@@ -0,0 +1,134 @@
+package com.tayperformance.service.sms.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.*;
+
+import static com.tayperformance.entity.SmsStatus.DELIVERED;
+import static com.tayperformance.entity.SmsStatus.FAILED;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * De UPDATE zelf (unnest + writable CTE) vraagt Postgres; hier wordt gecontroleerd
+ * wat de buffer wegschrijft en wat hij na de flush terug in de buffer zet.
+ */
+class SmsStatusUpdateBufferTest {
+
+    private final JdbcTemplate jdbc = mock(JdbcTemplate.class);
+    private final SmsStatusUpdateBuffer buffer = new SmsStatusUpdateBuffer(jdbc);
+
+    /** Per flush: sid → status zoals meegegeven aan de UPDATE. */
+    private final List<Map<String, String>> flushes = new ArrayList<>();
+
+    /** SIDs die "in sms_logs" staan. */
+    private final Set<String> known = new HashSet<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(buffer, "maxBuffered", 1000);
+        ReflectionTestUtils.setField(buffer, "maxAgeSeconds", 60L);
+
+        when(jdbc.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenAnswer(inv -> {
+            List<Object[]> arrays = new ArrayList<>();
+            Connection con = mock(Connection.class);
+            when(con.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+            when(con.createArrayOf(anyString(), any())).thenAnswer(a -> {
+                arrays.add(a.getArgument(1));
+                return mock(Array.class);
+            });
+            inv.getArgument(0, PreparedStatementCreator.class).createPreparedStatement(con);
+
+            Map<String, String> flushed = new HashMap<>();
+            for (int i = 0; i < arrays.get(0).length; i++) {
+                flushed.put((String) arrays.get(0)[i], (String) arrays.get(1)[i]);
+            }
+            flushes.add(flushed);
+            return flushed.keySet().stream().filter(known::contains).toList();
+        });
+    }
+
+    @Test
+    void deliveredWinsOverFailedInEitherOrder() {
+        known.addAll(List.of("SM1", "SM2"));
+        buffer.add("SM1", FAILED, "undelivered");
+        buffer.add("SM1", DELIVERED, null);
+        buffer.add("SM2", DELIVERED, null);
+        buffer.add("SM2", FAILED, "undelivered");
+
+        buffer.flush();
+
+        assertEquals(Map.of("SM1", "DELIVERED", "SM2", "DELIVERED"), flushes.get(0));
+    }
+
+    @Test
+    void unknownSidIsRequeuedUntilItAppears() {
+        buffer.add("SM1", DELIVERED, null);
+
+        buffer.flush();
+        buffer.flush();
+        known.add("SM1");
+        buffer.flush();
+        buffer.flush();
+
+        assertEquals(3, flushes.size());
+        flushes.forEach(f -> assertEquals(Map.of("SM1", "DELIVERED"), f));
+    }
+
+    @Test
+    void requeuedUpdateMergesWithNewerCallback() {
+        buffer.add("SM1", FAILED, "undelivered");
+        buffer.flush();
+        buffer.add("SM1", DELIVERED, null);
+        buffer.flush();
+
+        assertEquals(Map.of("SM1", "DELIVERED"), flushes.get(1));
+    }
+
+    @Test
+    void unknownSidIsDroppedAfterMaxAge() {
+        ReflectionTestUtils.setField(buffer, "maxAgeSeconds", -1L);
+        buffer.add("SM1", DELIVERED, null);
+
+        buffer.flush();
+        buffer.flush();
+
+        assertEquals(1, flushes.size());
+    }
+
+    @Test
+    void alreadyFinalSidIsNotResent() {
+        // log bestaat maar is al DELIVERED: UPDATE raakt niets, SID komt wel terug
+        known.add("SM1");
+        buffer.add("SM1", FAILED, "undelivered");
+
+        buffer.flush();
+        buffer.flush();
+
+        assertEquals(1, flushes.size());
+    }
+
+    @Test
+    void failedWriteKeepsUpdatesBuffered() {
+        when(jdbc.query(any(PreparedStatementCreator.class), any(RowMapper.class)))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenReturn(List.of("SM1"));
+        buffer.add("SM1", DELIVERED, null);
+
+        buffer.flush();
+        buffer.flush();
+        buffer.flush();
+
+        verify(jdbc, times(2)).query(any(PreparedStatementCreator.class), any(RowMapper.class));
+    }
+}
@@ -0,0 +1,114 @@
+package com.tayperformance.service.sms.template;
+
+import com.tayperformance.config.GarageProperties;
+import com.tayperformance.entity.*;
+import com.tayperformance.repository.GarageSettingsRepository;
+import com.tayperformance.service.sms.encoding.SmsEncoder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SmsLogCompactorTest {
+
+    private SmsTemplateEngine engine;
+    private SmsLogCompactor compactor;
+    private Appointment appt;
+
+    /** In-memory sms_templates. */
+    private final Map<Long, SmsTemplate> versions = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        GarageSettingsRepository settingsRepo = mock(GarageSettingsRepository.class);
+        when(settingsRepo.findById(1L)).thenReturn(Optional.of(GarageSettings.builder()
+                .id(1L)
+                .garageName("Tay Performance")
+                .address("Rue 1, Strasbourg")
+                .templateConfirmation("Hoi {{customerName}}, {{garageName}} op {{date}} om {{time}}. Prijs: €{{price}}.")
+                .build()));
+
+        engine = new SmsTemplateEngine(settingsRepo, new GarageProperties());
+        ReflectionTestUtils.setField(engine, "language", "FR");
+        ReflectionTestUtils.setField(engine, "ttlSeconds", 300L);
+
+        SmsTemplateRegistry registry = mock(SmsTemplateRegistry.class);
+        when(registry.idFor(any())).thenAnswer(inv -> {
+            SmsTemplate t = inv.getArgument(0);
+            long id = versions.size() + 1L;
+            versions.put(id, t);
+            return id;
+        });
+        when(registry.byId(any())).thenAnswer(inv -> versions.get((Long) inv.getArgument(0)));
+
+        compactor = new SmsLogCompactor(engine, registry);
+        ReflectionTestUtils.setField(compactor, "storage", SmsLogStorage.TEMPLATE);
+
+        OffsetDateTime start = OffsetDateTime.of(2026, 2, 15, 13, 0, 0, 0, ZoneOffset.UTC);
+        appt = Appointment.builder()
+                .id(42L)
+                .customer(Customer.builder().firstName("Sam").phone("+33612345678").build())
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .price(new BigDecimal("89.5"))
+                .build();
+    }
+
+    @Test
+    void storesOnlyPerMessageValuesAndRendersBackOnRead() {
+        String sent = engine.render(SmsType.CONFIRM, appt);
+
+        SmsLogCompactor.Compact compact = compactor.compact(appt, SmsType.CONFIRM, sent).orElseThrow();
+
+        assertEquals("Sam\u001F15/02/2026\u001F14h00\u001F89.50", compact.params());
+        assertFalse(compact.params().contains("Tay Performance"));
+        assertEquals(sent, compactor.resolve(log(compact)));
+    }
+
+    @Test
+    void transliteratedTextIsReproducedFromTransliteratedTemplate() {
+        String sent = SmsEncoder.transliterate(engine.render(SmsType.REMINDER, appt));
+        assertFalse(sent.contains("⏰"));
+
+        SmsLogCompactor.Compact compact = compactor.compact(appt, SmsType.REMINDER, sent).orElseThrow();
+
+        assertEquals(sent, compactor.resolve(log(compact)));
+    }
+
+    @Test
+    void keepsFullBodyWhenTextCannotBeReproduced() {
+        assertTrue(compactor.compact(appt, SmsType.CONFIRM, "Iets heel anders").isEmpty());
+
+        ReflectionTestUtils.setField(compactor, "storage", SmsLogStorage.FULL);
+        String sent = engine.render(SmsType.CONFIRM, appt);
+        assertTrue(compactor.compact(appt, SmsType.CONFIRM, sent).isEmpty());
+        assertEquals(sent, compactor.resolve(SmsLog.builder().messageBody(sent).build()));
+    }
+
+    @Test
+    void paramsCodecRoundTrips() {
+        String[] params = {"Sam", "", "14h00"};
+
+        assertArrayEquals(params, SmsLogCompactor.decode(SmsLogCompactor.encode(params), 3));
+        assertNull(SmsLogCompactor.encode(new String[0]));
+        assertEquals(0, SmsLogCompactor.decode(null, 0).length);
+        assertThrows(IllegalStateException.class, () -> SmsLogCompactor.decode("Sam", 2));
+    }
+
+    private static SmsLog log(SmsLogCompactor.Compact compact) {
+        return SmsLog.builder()
+                .templateId(compact.templateId())
+                .templateParams(compact.params())
+                .build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.tayperformance.service.sms.template;
+
+import com.tayperformance.config.GarageProperties;
+import com.tayperformance.entity.*;
+import com.tayperformance.repository.GarageSettingsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SmsTemplateEngineTest {
+
+    private GarageSettingsRepository repo;
+    private GarageSettings settings;
+    private SmsTemplateEngine engine;
+    private Appointment appt;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(GarageSettingsRepository.class);
+        settings = GarageSettings.builder()
+                .id(1L)
+                .garageName("Tay Performance")
+                .address("Rue 1, Strasbourg")
+                .templateConfirmation("Hoi {{customerName}}, {{garageName}} op {{date}} om {{time}}. Prijs: €{{price}}.")
+                .templateReady("Klaar bij {{garageName}}")
+                .build();
+        when(repo.findById(1L)).thenReturn(Optional.of(settings));
+
+        engine = new SmsTemplateEngine(repo, new GarageProperties());
+        ReflectionTestUtils.setField(engine, "language", "NL");
+        ReflectionTestUtils.setField(engine, "ttlSeconds", 300L);
+
+        OffsetDateTime start = OffsetDateTime.of(2026, 2, 15, 13, 0, 0, 0, ZoneOffset.UTC);
+        appt = Appointment.builder()
+                .customer(Customer.builder().firstName("Sam").phone("+33612345678").build())
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .price(new BigDecimal("89.5"))
+                .build();
+    }
+
+    @Test
+    void confirmationUsesSettingsTemplate() {
+        assertEquals("Hoi Sam, Tay Performance op 15/02/2026 om 14:00. Prijs: €89.50.",
+                engine.render(SmsType.CONFIRM, appt));
+        assertEquals("Klaar bij Tay Performance", engine.renderReady(appt));
+        assertTrue(engine.render(SmsType.REMINDER, appt).startsWith("TayPerformance ⏰ Herinnering afspraak"));
+    }
+
+    @Test
+    void settingsAreLoadedOnceUntilInvalidated() {
+        for (int i = 0; i < 1000; i++) engine.render(SmsType.REMINDER, appt);
+        verify(repo, times(1)).findById(1L);
+
+        settings.setTemplateConfirmation("Nieuw: {{date}}");
+        engine.invalidate();
+
+        assertEquals("Nieuw: 15/02/2026", engine.render(SmsType.CONFIRM, appt));
+        verify(repo, times(2)).findById(1L);
+    }
+
+    @Test
+    void invalidStoredTemplateFallsBackToBuiltin() {
+        settings.setTemplateConfirmation("Hoi {{onbekend}}");
+
+        assertTrue(engine.render(SmsType.CONFIRM, appt).startsWith("TayPerformance ✅ Afspraak bevestigd"));
+    }
+
+    @Test
+    void campaignTemplateRendersCustomerAndGarageOnly() {
+        SmsTemplate t = SmsTemplateEngine.compileCampaign("Hoi {{customerName}}, promo bij {{garageName}}");
+
+        assertEquals("Hoi Sam, promo bij Tay Performance", engine.renderCampaign(t, appt.getCustomer()));
+        assertThrows(IllegalArgumentException.class, () -> SmsTemplateEngine.compileCampaign("Tot {{date}}"));
+    }
+
+    @Test
+    void migratedSeedRowFallsBackToGarageProperties() {
+        // onbewerkte V2 seed zoals V17 hem achterlaat
+        GarageSettings seed = GarageSettings.builder()
+                .id(1L)
+                .garageName("Tay Performance")
+                .templateConfirmation("TayPerformance ✅ RDV confirmé\nLe {{date}} à {{time}}\nAdresse: {{address}}")
+                .templateReady("TayPerformance 🚗 Votre véhicule est prêt. Vous pouvez passer chez {{garageName}}, {{address}}.")
+                .templateLanguage("FR")
+                .build();
+        when(repo.findById(1L)).thenReturn(Optional.of(seed));
+        GarageProperties garage = new GarageProperties();
+        garage.setName("TayPerformance");
+        garage.setAddressLine("19 rue de l'Industrie");
+        garage.setPostalCode("67400");
+        garage.setCity("Strasbourg");
+        garage.setPhone("+33388000000");
+        engine = new SmsTemplateEngine(repo, garage);
+        ReflectionTestUtils.setField(engine, "language", "FR");
+        ReflectionTestUtils.setField(engine, "ttlSeconds", 300L);
+        appt.setPrice(null);
+
+        assertEquals("TayPerformance ✅ RDV confirmé\nLe 15/02/2026 à 14h00\nAdresse: 19 rue de l'Industrie, 67400 Strasbourg",
+                engine.render(SmsType.CONFIRM, appt));
+        assertEquals("TayPerformance 🚗 Votre véhicule est prêt. Vous pouvez passer chez Tay Performance, 19 rue de l'Industrie, 67400 Strasbourg.",
+                engine.renderReady(appt));
+        assertTrue(engine.render(SmsType.CANCEL, appt).endsWith("Contact: +33388000000"));
+    }
+
+    @Test
+    void settingsTemplatesOnlyUsedForTheirLanguage() {
+        settings.setTemplateLanguage("FR");
+
+        assertTrue(engine.render(SmsType.CONFIRM, appt).startsWith("TayPerformance ✅ Afspraak bevestigd"));
+        assertTrue(engine.renderReady(appt).startsWith("TayPerformance 🚗 Je auto is klaar"));
+
+        settings.setTemplateLanguage("nl");
+        engine.invalidate();
+        assertEquals("Klaar bij Tay Performance", engine.renderReady(appt));
+    }
+}
@@ -0,0 +1,48 @@
+package com.tayperformance.service.sms.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmsTemplateTest {
+
+    private static final SmsTemplate.Values VALUES = (p, sb) -> sb.append('<').append(p.key()).append('>');
+
+    @Test
+    void rendersLiteralsAndPlaceholdersInOrder() {
+        SmsTemplate t = SmsTemplate.compile("Hoi {{customerName}}, op {{date}} om {{ time }}.");
+
+        assertEquals("Hoi <customerName>, op <date> om <time>.", t.render(VALUES));
+        assertTrue(t.uses(Placeholder.TIME));
+        assertFalse(t.uses(Placeholder.PRICE));
+    }
+
+    @Test
+    void templateWithoutPlaceholdersIsReturnedAsIs() {
+        assertEquals("Vaste tekst", SmsTemplate.compile("Vaste tekst").render(VALUES));
+        assertEquals("<address>", SmsTemplate.compile("{{address}}").render(VALUES));
+    }
+
+    @Test
+    void rejectsUnknownOrUnclosedPlaceholders() {
+        IllegalArgumentException unknown =
+                assertThrows(IllegalArgumentException.class, () -> SmsTemplate.compile("Hoi {{naam}}"));
+        assertTrue(unknown.getMessage().contains("{{naam}}"));
+
+        assertThrows(IllegalArgumentException.class, () -> SmsTemplate.compile("Hoi {{customerName"));
+    }
+
+    @Test
+    void bindKeepsOnlyRequestedPlaceholders() {
+        SmsTemplate t = SmsTemplate.compile("{{garageName}}: op {{date}} om {{time}}, {{address}}");
+
+        SmsTemplate bound = SmsTemplate.compile(t.bind(VALUES, EnumSet.of(Placeholder.DATE, Placeholder.TIME)));
+
+        assertEquals("<garageName>: op {{date}} om {{time}}, <address>", bound.source());
+        assertEquals(2, bound.placeholderCount());
+        assertEquals("<garageName>: op 15/02 om 14:00, <address>", bound.render(new String[]{"15/02", "14:00"}));
+        assertThrows(IllegalArgumentException.class, () -> bound.render(new String[]{"15/02"}));
+    }
+}
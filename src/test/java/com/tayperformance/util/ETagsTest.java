@@ -0,0 +1,41 @@
+package com.tayperformance.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+    @Test
+    void tagIsQuotedAndCombinesVersions() {
+        assertEquals("\"cust-7-v3\"", ETags.of("cust", 7L, 3L));
+        assertEquals("\"appt-12-v3.5\"", ETags.of("appt", 12L, 3L, 5L));
+        assertEquals("\"appt-12-v0.5\"", ETags.of("appt", 12L, null, 5L));
+    }
+
+    @Test
+    void strongAndWeakTagsMatch() {
+        String etag = ETags.of("appt", 12L, 3L, 5L);
+        assertTrue(ETags.matches("\"appt-12-v3.5\"", etag));
+        assertTrue(ETags.matches("W/\"appt-12-v3.5\"", etag));
+        assertFalse(ETags.matches("\"appt-12-v3.4\"", etag));
+        assertFalse(ETags.matches("appt-12-v3.5", etag));
+    }
+
+    @Test
+    void listAndWildcardMatch() {
+        String etag = ETags.of("cust", 7L, 3L);
+        assertTrue(ETags.matches("\"cust-7-v2\", W/\"cust-7-v3\"", etag));
+        assertFalse(ETags.matches("\"cust-7-v1\",\"cust-7-v2\"", etag));
+        assertTrue(ETags.matches("*", etag));
+        assertTrue(ETags.matches("\"x\", *", etag));
+    }
+
+    @Test
+    void missingHeaderNeverMatches() {
+        String etag = ETags.of("cust", 7L, 3L);
+        assertFalse(ETags.matches(null, etag));
+        assertFalse(ETags.matches("", etag));
+        assertFalse(ETags.matches("  ", etag));
+    }
+}
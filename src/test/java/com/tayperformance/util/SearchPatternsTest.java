@@ -0,0 +1,38 @@
+package com.tayperformance.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchPatternsTest {
+
+    @Test
+    void phoneNumbersBecomeDigitPatterns() {
+        assertEquals("%470123456%", SearchPatterns.phoneDigits("0470 12 34 56"));
+        assertEquals("%32470123456%", SearchPatterns.phoneDigits("+32 (470) 12.34.56"));
+        assertEquals("%32470%", SearchPatterns.phoneDigits("0032-470"));
+        assertEquals("%4701%", SearchPatterns.phoneDigits(" 4701 "));
+    }
+
+    @Test
+    void termsWithLettersOrFewDigitsNeverMatchPhones() {
+        assertEquals(SearchPatterns.NO_MATCH, SearchPatterns.phoneDigits("Golf 7"));
+        assertEquals(SearchPatterns.NO_MATCH, SearchPatterns.phoneDigits("A3"));
+        assertEquals(SearchPatterns.NO_MATCH, SearchPatterns.phoneDigits("911"));
+        assertEquals(SearchPatterns.NO_MATCH, SearchPatterns.phoneDigits("Peeters"));
+        assertEquals(SearchPatterns.NO_MATCH, SearchPatterns.phoneDigits("BMW 320d 2019"));
+    }
+
+    @Test
+    void emptyTermMatchesEverything() {
+        assertEquals("%", SearchPatterns.phoneDigits(null));
+        assertEquals("%", SearchPatterns.phoneDigits("  "));
+        assertEquals("%", SearchPatterns.contains(null));
+    }
+
+    @Test
+    void containsEscapesLikeWildcards() {
+        assertEquals("%golf 7%", SearchPatterns.contains(" Golf 7 "));
+        assertEquals("%50\\%\\_off%", SearchPatterns.contains("50%_off"));
+    }
+}